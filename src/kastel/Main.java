@@ -1,9 +1,9 @@
 package kastel;
 
+import java.io.PrintStream;
 import kastel.model.AIPlayers;
 import kastel.model.ArtificialManager;
-import kastel.model.BogoAI;
-import kastel.model.HeroAI;
+import kastel.model.CancellationToken;
 import kastel.model.HexagonPrime;
 import kastel.model.Player;
 import kastel.ui.CommandHandler;
@@ -20,6 +20,8 @@ public final class Main {
         "Error: The given arguments does not have the expected lenght";
     private static final String SAME_NAMES_ERROR = "Error: The players name can not be equal.";
     private static final String PRINT_MESSAGE = "auto-print";
+    private static final String MOVE_TIME_PREFIX = "move-time=";
+    private static final String INVALID_MOVE_TIME = "Error: The given move time is not valid.";
     private static final String INVALID_BOARD_SIZE_EXCEPTION = "Error: The given board size is not valid.";
     private static final String HEXAGON_WELCOME_MESSAGE = "Welcome to Prime";
     private static final String FIRST_MOVE_MESSAGE = "%s's turn";
@@ -28,11 +30,13 @@ public final class Main {
     private static final int MIN_ARGUMENTS_LENGTH = 3;
     private static final int MIN_BOARD_SIZE = 4;
     private static final int ODD_NUMBER = 1;
-    private static final int MAX_ARGUMENTS_LENGTH = 4;
+    private static final int MAX_ARGUMENTS_LENGTH = 5;
+    private static final int MAX_OPTIONS_LENGTH = 1;
     private static final int BOARD_SIZE_INDEX = 0;
     private static final int MAXIMAL_BOARD_SIZE = 12345;
-    private static final int PRINT_BOARD_VALUE_INDEX = 3;
+    private static final int FIRST_OPTION_INDEX = 3;
     private static final int INVALID_SIZE = -1;
+    private static final long INVALID_MOVE_TIME_VALUE = -1;
     private static final int EVEN_DIVISION = 2;
 
     private Main() {
@@ -42,19 +46,35 @@ public final class Main {
     /**
      * The main method is the entry point for the programm, it serves to handle all the user interaction with,
      * the programm.
-     * @param args the command arguments, the players name, the board size and the indicator for printing the
-     *             game board after each turn.
+     * @param args the command arguments, the players name, the board size, the indicator for printing the
+     *             game board after each turn and the time budget of an artificial move as move-time=milliseconds.
      */
     public static void main(final String[] args) {
-        if (args.length < MIN_ARGUMENTS_LENGTH || args.length > MAX_ARGUMENTS_LENGTH) {
-            System.err.println(INVALID_ARGUMENTS_LENGTH);
-            return;
+        CommandHandler commandHandler = createSession(args, System.out, System.err);
+        if (commandHandler != null) {
+            commandHandler.handleUserInput();
+        }
+    }
+
+    /**
+     * Creates a session of the programm: the game and the command handler for the given command arguments, and prints
+     * the welcome message of the session.
+     * @param args the command arguments, see {@link #main(String[])}.
+     * @param output the stream for the output of the session.
+     * @param error the stream for the errors of the session.
+     * @return the command handler of the session, or null if the arguments are not valid.
+     */
+    public static CommandHandler createSession(final String[] args, final PrintStream output,
+                                               final PrintStream error) {
+        if (args.length < MIN_ARGUMENTS_LENGTH || args.length > MAX_ARGUMENTS_LENGTH || !hasValidOptions(args)) {
+            error.println(INVALID_ARGUMENTS_LENGTH);
+            return null;
         }
         String playerOneName = args[PLAYER_ONE_NAME_INDEX];
         String playerTwoName = args[PLAYER_TWO_NAME_INDEX];
         if (playerOneName.equals(playerTwoName) || equalsArtificialName(playerOneName)) {
-            System.err.println(SAME_NAMES_ERROR);
-            return;
+            error.println(SAME_NAMES_ERROR);
+            return null;
         }
         Player playerOne = new Player(playerOneName);
         boolean isAIPlayer = true;
@@ -65,28 +85,70 @@ public final class Main {
         }
         int boardSize = getBoardSize(args[BOARD_SIZE_INDEX]);
         if (boardSize == INVALID_SIZE) {
-            System.err.println(INVALID_BOARD_SIZE_EXCEPTION);
-            return;
+            error.println(INVALID_BOARD_SIZE_EXCEPTION);
+            return null;
+        }
+        long moveTimeMillis = getMoveTime(args);
+        if (moveTimeMillis == INVALID_MOVE_TIME_VALUE) {
+            error.println(INVALID_MOVE_TIME);
+            return null;
+        }
+        boolean mustBePrinted = false;
+        for (int i = FIRST_OPTION_INDEX; i < args.length; i++) {
+            mustBePrinted |= args[i].equals(PRINT_MESSAGE);
         }
-        boolean mustBePrinted =
-            args.length == MAX_ARGUMENTS_LENGTH && args[PRINT_BOARD_VALUE_INDEX].equals(PRINT_MESSAGE);
 
         HexagonPrime hexagonPrime = new HexagonPrime(boardSize, playerOne, playerTwo);
-        CommandHandler commandHandler = new CommandHandler(hexagonPrime, mustBePrinted, isAIPlayer);
+        CommandHandler commandHandler = new CommandHandler(hexagonPrime, mustBePrinted, isAIPlayer, output,
+            error);
         if (isAIPlayer) {
-            ArtificialManager artificialManager = new ArtificialManager(playerTwo);
+            ArtificialManager artificialManager = new ArtificialManager(playerTwo, moveTimeMillis);
             commandHandler.setArtificialManager(artificialManager);
         }
-        System.out.println(HEXAGON_WELCOME_MESSAGE);
+        output.println(HEXAGON_WELCOME_MESSAGE);
         if (mustBePrinted) {
-            System.out.println(hexagonPrime.getCurrentGame().getGameBoard().toString());
+            output.println(hexagonPrime.getCurrentGame().getGameBoard().toString());
         }
-        System.out.println(FIRST_MOVE_MESSAGE.formatted(playerOne.getName()));
-        commandHandler.handleUserInput();
+        output.println(FIRST_MOVE_MESSAGE.formatted(playerOne.getName()));
+        return commandHandler;
     }
 
 
 
+    /**
+     * Checks that the arguments after the player names hold at most one move time and at most one other option.
+     * @param args the command arguments.
+     * @return true if the options are valid, false otherwise.
+     */
+    private static boolean hasValidOptions(final String[] args) {
+        int moveTimesCount = 0;
+        int optionsCount = 0;
+        for (int i = FIRST_OPTION_INDEX; i < args.length; i++) {
+            if (args[i].startsWith(MOVE_TIME_PREFIX)) {
+                moveTimesCount++;
+            } else {
+                optionsCount++;
+            }
+        }
+        return moveTimesCount <= MAX_OPTIONS_LENGTH && optionsCount <= MAX_OPTIONS_LENGTH;
+    }
+
+    private static long getMoveTime(final String[] args) {
+        for (int i = FIRST_OPTION_INDEX; i < args.length; i++) {
+            if (!args[i].startsWith(MOVE_TIME_PREFIX)) {
+                continue;
+            }
+            long moveTime;
+            try {
+                moveTime = Long.parseLong(args[i].substring(MOVE_TIME_PREFIX.length()));
+            } catch (NumberFormatException e) {
+                return INVALID_MOVE_TIME_VALUE;
+            }
+            return moveTime > CancellationToken.NO_TIME_LIMIT ? moveTime : INVALID_MOVE_TIME_VALUE;
+        }
+        return CancellationToken.NO_TIME_LIMIT;
+    }
+
     private static int getBoardSize(String boardSize) {
         int size;
         try {
@@ -113,10 +175,10 @@ public final class Main {
     }
 
     private static Player getArtificialPlayer(String name) {
-        if (name.equals(AIPlayers.BogoAI.getPlayerName())) {
-            return new BogoAI();
-        } else if (name.equals(AIPlayers.HeroAI.getPlayerName())) {
-            return new HeroAI();
+        for (AIPlayers player : AIPlayers.values()) {
+            if (player.getPlayerName().equals(name)) {
+                return player.createPlayer();
+            }
         }
         return null;
 
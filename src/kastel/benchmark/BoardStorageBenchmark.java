@@ -0,0 +1,95 @@
+package kastel.benchmark;
+
+import java.util.Random;
+import kastel.model.CellStorage;
+import kastel.model.GameBoard;
+import kastel.model.GameTokens;
+import kastel.model.HeapCellStorage;
+import kastel.model.OffHeapCellStorage;
+
+/**
+ * A benchmark that compares the place and win-check throughput of the heap and the off-heap cell storage.
+ * The board sizes can be given as arguments, every size is played with the same random moves on both storages.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class BoardStorageBenchmark {
+    private static final String CLASS_NOT_INSTANTIATABLE = "Utility class cannot be instantiated.";
+    private static final String RESULT_FORMAT = "size %d, %s: %.0f places/s, %.0f win-checks/s";
+    private static final String HEAP_NAME = "heap";
+    private static final String OFF_HEAP_NAME = "off-heap";
+    private static final int[] DEFAULT_BOARD_SIZES = {11, 101, 1001, 4001};
+    private static final int MOVES_COUNT = 200_000;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final long RANDOM_SEED = 42;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final int PLACE_NANOS_INDEX = 0;
+    private static final int CHECK_NANOS_INDEX = 1;
+    private static final int PLACED_COUNT_INDEX = 2;
+
+    private BoardStorageBenchmark() {
+        throw new UnsupportedOperationException(CLASS_NOT_INSTANTIATABLE);
+    }
+
+    /**
+     * Runs the benchmark.
+     * @param args the board sizes to benchmark, the default sizes are used if no size is given.
+     */
+    public static void main(final String[] args) {
+        int[] boardSizes = DEFAULT_BOARD_SIZES;
+        if (args.length > 0) {
+            boardSizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                boardSizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        for (int boardSize : boardSizes) {
+            int cellsCount = boardSize * boardSize;
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                run(boardSize, new HeapCellStorage(cellsCount));
+                run(boardSize, new OffHeapCellStorage(cellsCount));
+            }
+            print(boardSize, HEAP_NAME, run(boardSize, new HeapCellStorage(cellsCount)));
+            print(boardSize, OFF_HEAP_NAME, run(boardSize, new OffHeapCellStorage(cellsCount)));
+        }
+    }
+
+    /**
+     * Places random stones and checks for a winner after every stone.
+     * @return the nanoseconds spent placing, the nanoseconds spent checking and the number of placed stones.
+     */
+    private static long[] run(final int boardSize, final CellStorage storage) {
+        GameBoard gameBoard = new GameBoard(boardSize, storage);
+        Random random = new Random(RANDOM_SEED);
+        int movesCount = Math.min(MOVES_COUNT, boardSize * boardSize);
+        long placeNanos = 0;
+        long checkNanos = 0;
+        long placedCount = 0;
+        GameTokens token = GameTokens.X_TOKEN;
+        for (int i = 0; i < movesCount; i++) {
+            int xCoordinate = random.nextInt(boardSize);
+            int yCoordinate = random.nextInt(boardSize);
+            if (gameBoard.getToken(xCoordinate, yCoordinate) != GameTokens.EMPTY) {
+                continue;
+            }
+            long start = System.nanoTime();
+            gameBoard.setToken(gameBoard.getHexagon(xCoordinate, yCoordinate), token);
+            long placed = System.nanoTime();
+            boolean connected = gameBoard.getConnectivity().isConnected(token);
+            checkNanos += System.nanoTime() - placed;
+            placeNanos += placed - start;
+            placedCount++;
+            if (connected) {
+                break;
+            }
+            token = token.getRivalToken();
+        }
+        return new long[] {placeNanos, checkNanos, placedCount};
+    }
+
+    private static void print(final int boardSize, final String storageName, final long[] result) {
+        double places = result[PLACED_COUNT_INDEX] * NANOS_PER_SECOND / Math.max(1, result[PLACE_NANOS_INDEX]);
+        double checks = result[PLACED_COUNT_INDEX] * NANOS_PER_SECOND / Math.max(1, result[CHECK_NANOS_INDEX]);
+        System.out.println(RESULT_FORMAT.formatted(boardSize, storageName, places, checks));
+    }
+}
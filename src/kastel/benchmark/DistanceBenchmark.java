@@ -0,0 +1,110 @@
+package kastel.benchmark;
+
+import java.util.Random;
+import kastel.model.GameBoard;
+import kastel.model.GameTokens;
+import kastel.model.searchalgorithms.PathDistances;
+
+/**
+ * A benchmark that compares the incremental repair of the path distances with computing them from scratch, for
+ * different board sizes. Every size is filled with random stones up to two thirds of its cells; after every move the
+ * distances of both tokens are repaired, and the move is also tried and undone once, like a search does.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class DistanceBenchmark {
+    private static final String CLASS_NOT_INSTANTIATABLE = "Utility class cannot be instantiated.";
+    private static final String RESULT_FORMAT
+        = "size %d: incremental %.2f us/update, from scratch %.2f us/update (%.1fx)";
+    private static final int[] DEFAULT_BOARD_SIZES = {5, 11, 19, 31, 51, 101};
+    private static final int FILLED_NUMERATOR = 2;
+    private static final int FILLED_DENOMINATOR = 3;
+    private static final int UPDATES_PER_MOVE = 3;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final long RANDOM_SEED = 42;
+    private static final double NANOS_PER_MICROSECOND = 1e3;
+
+    private DistanceBenchmark() {
+        throw new UnsupportedOperationException(CLASS_NOT_INSTANTIATABLE);
+    }
+
+    /**
+     * Runs the benchmark.
+     * @param args the board sizes to benchmark, the default sizes are used if no size is given.
+     */
+    public static void main(final String[] args) {
+        int[] boardSizes = DEFAULT_BOARD_SIZES;
+        if (args.length > 0) {
+            boardSizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                boardSizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        for (int boardSize : boardSizes) {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                run(boardSize, false);
+            }
+            run(boardSize, true);
+        }
+    }
+
+    private static void run(final int boardSize, final boolean print) {
+        GameBoard gameBoard = new GameBoard(boardSize);
+        Random random = new Random(RANDOM_SEED);
+        PathDistances xDistances = new PathDistances(gameBoard, GameTokens.X_TOKEN);
+        PathDistances oDistances = new PathDistances(gameBoard, GameTokens.O_TOKEN);
+        GameTokens token = GameTokens.X_TOKEN;
+        int movesCount = boardSize * boardSize * FILLED_NUMERATOR / FILLED_DENOMINATOR;
+        long incrementalNanos = 0;
+        long scratchNanos = 0;
+        long checksum = 0;
+        for (int i = 0; i < movesCount; i++) {
+            int cell = findRandomEmptyCell(gameBoard, random);
+            long start = System.nanoTime();
+            //The rival tries the cell first and takes it back, then the cell is played for good.
+            gameBoard.setCellToken(cell, token.getRivalToken());
+            xDistances.setCellToken(cell, token.getRivalToken());
+            oDistances.setCellToken(cell, token.getRivalToken());
+            checksum += xDistances.getShortestPathLength() + oDistances.getShortestPathLength();
+            gameBoard.setCellToken(cell, GameTokens.EMPTY);
+            xDistances.setCellToken(cell, GameTokens.EMPTY);
+            oDistances.setCellToken(cell, GameTokens.EMPTY);
+            gameBoard.setCellToken(cell, token);
+            xDistances.setCellToken(cell, token);
+            oDistances.setCellToken(cell, token);
+            checksum += xDistances.getShortestPathLength() + oDistances.getShortestPathLength();
+            incrementalNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            //The same three updates computed from scratch.
+            gameBoard.setCellToken(cell, token.getRivalToken());
+            checksum -= new PathDistances(gameBoard, GameTokens.X_TOKEN).getShortestPathLength()
+                + new PathDistances(gameBoard, GameTokens.O_TOKEN).getShortestPathLength();
+            gameBoard.setCellToken(cell, GameTokens.EMPTY);
+            new PathDistances(gameBoard, GameTokens.X_TOKEN);
+            new PathDistances(gameBoard, GameTokens.O_TOKEN);
+            gameBoard.setCellToken(cell, token);
+            checksum -= new PathDistances(gameBoard, GameTokens.X_TOKEN).getShortestPathLength()
+                + new PathDistances(gameBoard, GameTokens.O_TOKEN).getShortestPathLength();
+            scratchNanos += System.nanoTime() - start;
+            token = token.getRivalToken();
+        }
+        if (checksum != 0) {
+            throw new IllegalStateException("the incremental distances differ from the distances from scratch.");
+        }
+        if (print) {
+            int updatesCount = movesCount * UPDATES_PER_MOVE;
+            System.out.println(RESULT_FORMAT.formatted(boardSize,
+                incrementalNanos / NANOS_PER_MICROSECOND / updatesCount,
+                scratchNanos / NANOS_PER_MICROSECOND / updatesCount, (double) scratchNanos / incrementalNanos));
+        }
+    }
+
+    private static int findRandomEmptyCell(final GameBoard gameBoard, final Random random) {
+        int cellsCount = gameBoard.getBoardSize() * gameBoard.getBoardSize();
+        int cell = random.nextInt(cellsCount);
+        while (gameBoard.getCellToken(cell) != GameTokens.EMPTY) {
+            cell = random.nextInt(cellsCount);
+        }
+        return cell;
+    }
+}
@@ -0,0 +1,149 @@
+package kastel.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import kastel.model.Game;
+import kastel.model.GameBoard;
+import kastel.model.GameTokens;
+import kastel.model.Hexagon;
+import kastel.model.HeroAI;
+import kastel.model.Player;
+import kastel.model.TranspositionTable;
+
+/**
+ * A benchmark that compares the sequential path search of the HeroAI with the parallel one, for different board sizes.
+ * Both players get the same random positions, in which the HeroAI holds the X token and has placed every other
+ * stone. The benchmark fails if the two searches choose a different fourth move in any position, so it also checks
+ * that the parallel search keeps the moves of the sequential one.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class HeroSearchBenchmark {
+    private static final String CLASS_NOT_INSTANTIATABLE = "Utility class cannot be instantiated.";
+    private static final String RESULT_FORMAT
+        = "size %d: sequential %.2f ms/move, parallel %.2f ms/move (%.1fx), %d positions with the same moves";
+    private static final String MISMATCH_FORMAT = "size %d, position %d: the sequential search chose %s, the parallel"
+        + " search chose %s.";
+    private static final String HEXAGON_FORMAT = "(%d, %d)";
+    private static final String NO_HEXAGON = "no hexagon";
+    private static final String RIVAL_NAME = "Rival";
+    private static final int[] DEFAULT_BOARD_SIZES = {11, 19, 31, 51};
+    private static final int POSITIONS_COUNT = 50;
+    private static final int MINIMAL_MOVES = 4;
+    private static final int FILLED_NUMERATOR = 2;
+    private static final int FILLED_DENOMINATOR = 3;
+    private static final int WARMUP_ROUNDS = 1;
+    private static final long RANDOM_SEED = 42;
+    private static final double NANOS_PER_MILLISECOND = 1e6;
+
+    private HeroSearchBenchmark() {
+        throw new UnsupportedOperationException(CLASS_NOT_INSTANTIATABLE);
+    }
+
+    /**
+     * Runs the benchmark.
+     * @param args the board sizes to benchmark, the default sizes are used if no size is given.
+     */
+    public static void main(final String[] args) {
+        int[] boardSizes = DEFAULT_BOARD_SIZES;
+        if (args.length > 0) {
+            boardSizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                boardSizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            for (int boardSize : boardSizes) {
+                for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                    run(boardSize, pool, false);
+                }
+                run(boardSize, pool, true);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void run(final int boardSize, final ForkJoinPool pool, final boolean print) {
+        Random random = new Random(RANDOM_SEED);
+        HeroAI sequentialPlayer = new HeroAI(TranspositionTable.getShared(), null);
+        HeroAI parallelPlayer = new HeroAI(TranspositionTable.getShared(), pool);
+        int cellsCount = boardSize * boardSize;
+        long sequentialNanos = 0;
+        long parallelNanos = 0;
+        for (int position = 0; position < POSITIONS_COUNT; position++) {
+            int movesCount = MINIMAL_MOVES + random.nextInt(cellsCount * FILLED_NUMERATOR / FILLED_DENOMINATOR);
+            long seed = random.nextLong();
+            Game sequentialGame = createGame(sequentialPlayer, boardSize, movesCount, seed);
+            Game parallelGame = createGame(parallelPlayer, boardSize, movesCount, seed);
+            long start = System.nanoTime();
+            Hexagon sequentialMove = sequentialPlayer.getFourthMove();
+            sequentialNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            Hexagon parallelMove = parallelPlayer.getFourthMove();
+            parallelNanos += System.nanoTime() - start;
+            if (!isSameCell(sequentialMove, parallelMove)) {
+                throw new IllegalStateException(MISMATCH_FORMAT.formatted(boardSize, position,
+                    describe(sequentialMove), describe(parallelMove)));
+            }
+            if (sequentialGame.getGameBoard().positionHash() != parallelGame.getGameBoard().positionHash()) {
+                throw new IllegalStateException("the searches changed the game boards.");
+            }
+        }
+        if (print) {
+            System.out.println(RESULT_FORMAT.formatted(boardSize,
+                sequentialNanos / NANOS_PER_MILLISECOND / POSITIONS_COUNT,
+                parallelNanos / NANOS_PER_MILLISECOND / POSITIONS_COUNT, (double) sequentialNanos / parallelNanos,
+                POSITIONS_COUNT));
+        }
+    }
+
+    /**
+     * Creates a game of a player against a rival and plays random moves for both of them, the player moves first.
+     * @param player the HeroAI player, it is set to the game.
+     * @param boardSize the size of the board.
+     * @param movesCount the number of moves, the rival makes the last one if it is even.
+     * @param seed the seed of the random moves, the same seed gives the same moves.
+     * @return the game.
+     */
+    private static Game createGame(final HeroAI player, final int boardSize, final int movesCount, final long seed) {
+        Player rival = new Player(RIVAL_NAME);
+        player.setEnemyPlayer(rival);
+        rival.setEnemyPlayer(player);
+        Game game = new Game(player.getName(), player, rival, new GameBoard(boardSize));
+        GameBoard gameBoard = game.getGameBoard();
+        Random random = new Random(seed);
+        for (int i = 0; i < movesCount; i++) {
+            int cell = findRandomEmptyCell(gameBoard, random);
+            gameBoard.setCellToken(cell, game.getPlayerToken(game.getCurrentPlayer()));
+            game.addMovement(gameBoard.getHexagon(cell));
+            game.addTurn();
+        }
+        player.setCurrentGame(game);
+        return game;
+    }
+
+    private static boolean isSameCell(final Hexagon first, final Hexagon second) {
+        if (first == null || second == null) {
+            return first == second;
+        }
+        return first.getxCoordinate() == second.getxCoordinate() && first.getyCoordinate() == second.getyCoordinate();
+    }
+
+    private static String describe(final Hexagon hexagon) {
+        if (hexagon == null) {
+            return NO_HEXAGON;
+        }
+        return HEXAGON_FORMAT.formatted(hexagon.getxCoordinate(), hexagon.getyCoordinate());
+    }
+
+    private static int findRandomEmptyCell(final GameBoard gameBoard, final Random random) {
+        int cellsCount = gameBoard.getBoardSize() * gameBoard.getBoardSize();
+        int cell = random.nextInt(cellsCount);
+        while (gameBoard.getCellToken(cell) != GameTokens.EMPTY) {
+            cell = random.nextInt(cellsCount);
+        }
+        return cell;
+    }
+}
@@ -0,0 +1,47 @@
+package kastel.benchmark;
+
+/**
+ * A utility class that reads the percentiles of measured durations with the nearest rank method, shared by the
+ * self play runner and the load generator.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class Percentiles {
+
+    /**
+     * The fraction of the median.
+     */
+    public static final double MEDIAN = 0.5;
+    /**
+     * The fraction of the 90th percentile.
+     */
+    public static final double NINETIETH = 0.9;
+    /**
+     * The fraction of the 99th percentile.
+     */
+    public static final double NINETY_NINTH = 0.99;
+    /**
+     * The fraction of the longest duration.
+     */
+    public static final double MAXIMUM = 1;
+
+    private static final double NANOS_PER_MILLISECOND = 1e6;
+
+    private Percentiles() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Gets a percentile of sorted durations with the nearest rank method.
+     * @param sortedDurations the durations in nanoseconds, sorted in increasing order.
+     * @param fraction the fraction of the durations that are not greater than the percentile.
+     * @return the percentile in milliseconds, or 0 if there are no durations.
+     */
+    public static double inMilliseconds(final long[] sortedDurations, final double fraction) {
+        if (sortedDurations.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * sortedDurations.length);
+        return sortedDurations[Math.max(0, rank - 1)] / NANOS_PER_MILLISECOND;
+    }
+}
@@ -0,0 +1,63 @@
+package kastel.benchmark;
+
+import kastel.model.GameBoard;
+import kastel.model.GameTokens;
+import kastel.model.searchalgorithms.RandomPlayout;
+
+/**
+ * A benchmark that measures the number of random playouts per second for different board sizes.
+ * Every playout starts from the empty board, and the number of wins of the X token is reported as well, it should be
+ * close to the half of the playouts.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class PlayoutBenchmark {
+    private static final String CLASS_NOT_INSTANTIATABLE = "Utility class cannot be instantiated.";
+    private static final String RESULT_FORMAT = "size %d: %.0f playouts/s, X wins %.1f%%";
+    private static final int[] DEFAULT_BOARD_SIZES = {5, 7, 9, 11, 13, 19};
+    private static final int PLAYOUTS_COUNT = 1_000_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final long RANDOM_SEED = 42;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double PERCENT = 100;
+
+    private PlayoutBenchmark() {
+        throw new UnsupportedOperationException(CLASS_NOT_INSTANTIATABLE);
+    }
+
+    /**
+     * Runs the benchmark.
+     * @param args the board sizes to benchmark, the default sizes are used if no size is given.
+     */
+    public static void main(final String[] args) {
+        int[] boardSizes = DEFAULT_BOARD_SIZES;
+        if (args.length > 0) {
+            boardSizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                boardSizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        for (int boardSize : boardSizes) {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                run(boardSize, false);
+            }
+            run(boardSize, true);
+        }
+    }
+
+    private static void run(final int boardSize, final boolean print) {
+        RandomPlayout playout = new RandomPlayout(new GameBoard(boardSize), RANDOM_SEED);
+        int xWins = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < PLAYOUTS_COUNT; i++) {
+            if (playout.run(GameTokens.X_TOKEN) == GameTokens.X_TOKEN) {
+                xWins++;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        if (print) {
+            System.out.println(RESULT_FORMAT.formatted(boardSize, PLAYOUTS_COUNT * NANOS_PER_SECOND / elapsedNanos,
+                xWins * PERCENT / PLAYOUTS_COUNT));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package kastel.benchmark;
+
+import java.util.Random;
+import kastel.model.GameBoard;
+import kastel.model.GameTokens;
+import kastel.model.searchalgorithms.ResistanceEvaluator;
+
+/**
+ * A benchmark that measures the solve time of the resistance evaluator for different board sizes.
+ * Every size is filled with random stones up to a third of its cells, then the position is evaluated once from
+ * scratch and once more after every further move, which starts from the potentials of the previous solve.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class ResistanceBenchmark {
+    private static final String CLASS_NOT_INSTANTIATABLE = "Utility class cannot be instantiated.";
+    private static final String RESULT_FORMAT
+        = "size %d: cold solve %.3f ms (%d iterations), warm solve %.3f ms (%.1f iterations)";
+    private static final int[] DEFAULT_BOARD_SIZES = {5, 11, 19, 31, 51, 101};
+    private static final int FILLED_FRACTION = 3;
+    private static final int WARM_MOVES_COUNT = 20;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final long RANDOM_SEED = 42;
+    private static final double NANOS_PER_MILLISECOND = 1e6;
+
+    private ResistanceBenchmark() {
+        throw new UnsupportedOperationException(CLASS_NOT_INSTANTIATABLE);
+    }
+
+    /**
+     * Runs the benchmark.
+     * @param args the board sizes to benchmark, the default sizes are used if no size is given.
+     */
+    public static void main(final String[] args) {
+        int[] boardSizes = DEFAULT_BOARD_SIZES;
+        if (args.length > 0) {
+            boardSizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                boardSizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        for (int boardSize : boardSizes) {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                run(boardSize, false);
+            }
+            run(boardSize, true);
+        }
+    }
+
+    private static void run(final int boardSize, final boolean print) {
+        GameBoard gameBoard = new GameBoard(boardSize);
+        Random random = new Random(RANDOM_SEED);
+        GameTokens token = GameTokens.X_TOKEN;
+        int filledCount = boardSize * boardSize / FILLED_FRACTION;
+        for (int i = 0; i < filledCount; i++) {
+            token = placeRandomStone(gameBoard, random, token);
+        }
+        ResistanceEvaluator evaluator = new ResistanceEvaluator(boardSize);
+        long start = System.nanoTime();
+        evaluator.computeResistance(gameBoard, GameTokens.X_TOKEN);
+        long coldNanos = System.nanoTime() - start;
+        int coldIterations = evaluator.getLastIterations();
+        long warmNanos = 0;
+        long warmIterations = 0;
+        int warmMovesCount = Math.min(WARM_MOVES_COUNT, boardSize * boardSize - filledCount);
+        for (int i = 0; i < warmMovesCount; i++) {
+            token = placeRandomStone(gameBoard, random, token);
+            start = System.nanoTime();
+            evaluator.computeResistance(gameBoard, GameTokens.X_TOKEN);
+            warmNanos += System.nanoTime() - start;
+            warmIterations += evaluator.getLastIterations();
+        }
+        if (print) {
+            System.out.println(RESULT_FORMAT.formatted(boardSize, coldNanos / NANOS_PER_MILLISECOND, coldIterations,
+                warmNanos / NANOS_PER_MILLISECOND / warmMovesCount, (double) warmIterations / warmMovesCount));
+        }
+    }
+
+    private static GameTokens placeRandomStone(final GameBoard gameBoard, final Random random,
+                                               final GameTokens token) {
+        int cellsCount = gameBoard.getBoardSize() * gameBoard.getBoardSize();
+        int cell = random.nextInt(cellsCount);
+        while (gameBoard.getCellToken(cell) != GameTokens.EMPTY) {
+            cell = random.nextInt(cellsCount);
+        }
+        gameBoard.setCellToken(cell, token);
+        return token.getRivalToken();
+    }
+}
@@ -0,0 +1,163 @@
+package kastel.book;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import kastel.model.AlphaBetaAI;
+import kastel.model.Game;
+import kastel.model.GameBoard;
+import kastel.model.GameTokens;
+import kastel.model.Hexagon;
+import kastel.model.OpeningBook;
+import kastel.model.Player;
+import kastel.model.SearchPosition;
+import kastel.model.TranspositionTable;
+import kastel.model.searchalgorithms.AlphaBetaSearch;
+
+/**
+ * A program that generates an opening book offline.
+ * Every position up to a number of plies is searched with an alpha-beta search, its best move is stored in the book.
+ * After the first move the side to move may also swap the tokens, it does so if the search rates the position better
+ * for the first player, and the swapped positions are expanded like the others. Every board size is searched with
+ * its own transposition table. The book is written sorted by the position keys, see {@link OpeningBook}.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class OpeningBookGenerator {
+    private static final String CLASS_NOT_INSTANTIATABLE = "Utility class cannot be instantiated.";
+    private static final String USAGE = "usage: OpeningBookGenerator <book file> [plies] [milliseconds per position]"
+        + " [board sizes...]";
+    private static final String SIZE_FORMAT = "size %d: %d positions in %.1f s";
+    private static final String RESULT_FORMAT = "%d positions written to %s";
+    private static final int[] DEFAULT_BOARD_SIZES = {5, 7, 9, 11};
+    private static final int DEFAULT_PLIES = 2;
+    private static final long DEFAULT_MILLIS_PER_POSITION = 200;
+    private static final int TABLE_ENTRIES = 1 << 20;
+    private static final int OUTPUT_INDEX = 0;
+    private static final int PLIES_INDEX = 1;
+    private static final int MILLIS_INDEX = 2;
+    private static final int FIRST_SIZE_INDEX = 3;
+    private static final int SWAP_MOVE_COUNT = 1;
+    /**
+     * Marks a swap in the line of moves leading to a position.
+     */
+    private static final int SWAP_IN_LINE = OpeningBook.SWAP_MOVE;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private OpeningBookGenerator() {
+        throw new UnsupportedOperationException(CLASS_NOT_INSTANTIATABLE);
+    }
+
+    /**
+     * Runs the generator.
+     * @param args the path of the book file, the number of plies, the search time of a position in milliseconds and
+     *      the board sizes, all but the path have default values.
+     * @throws IOException if the book file can not be written.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println(USAGE);
+            return;
+        }
+        int plies = args.length > PLIES_INDEX ? Integer.parseInt(args[PLIES_INDEX]) : DEFAULT_PLIES;
+        long millisPerPosition = args.length > MILLIS_INDEX
+            ? Long.parseLong(args[MILLIS_INDEX]) : DEFAULT_MILLIS_PER_POSITION;
+        int[] boardSizes = DEFAULT_BOARD_SIZES;
+        if (args.length > FIRST_SIZE_INDEX) {
+            boardSizes = new int[args.length - FIRST_SIZE_INDEX];
+            for (int i = 0; i < boardSizes.length; i++) {
+                boardSizes[i] = Integer.parseInt(args[FIRST_SIZE_INDEX + i]);
+            }
+        }
+        Map<Long, Integer> bookMoves = new HashMap<>();
+        for (int boardSize : boardSizes) {
+            long start = System.nanoTime();
+            //Every size gets its own table, the results of the other sizes would only take its entries.
+            AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(TABLE_ENTRIES), millisPerPosition,
+                AlphaBetaAI.DEFAULT_MAXIMAL_DEPTH);
+            int sizeStart = bookMoves.size();
+            expand(search, boardSize, new int[0], plies, bookMoves);
+            System.out.println(SIZE_FORMAT.formatted(boardSize, bookMoves.size() - sizeStart,
+                (System.nanoTime() - start) / NANOS_PER_SECOND));
+        }
+        long[] keys = new long[bookMoves.size()];
+        int keysCount = 0;
+        for (long key : bookMoves.keySet()) {
+            keys[keysCount++] = key;
+        }
+        Arrays.sort(keys);
+        int[] moves = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            moves[i] = bookMoves.get(keys[i]);
+        }
+        Path output = Path.of(args[OUTPUT_INDEX]);
+        OpeningBook.write(output, keys, moves, keys.length);
+        System.out.println(RESULT_FORMAT.formatted(keys.length, output));
+    }
+
+    /**
+     * Stores the move of the position reached by a line of moves, and expands all its successors.
+     * @param search the search choosing the moves.
+     * @param boardSize the size of the board.
+     * @param line the cells of the moves leading to the position, a swap is marked by {@link #SWAP_IN_LINE}.
+     * @param plies the number of plies that are still stored.
+     * @param bookMoves the moves of the stored positions by their keys.
+     */
+    private static void expand(final AlphaBetaSearch search, final int boardSize, final int[] line, final int plies,
+                               final Map<Long, Integer> bookMoves) {
+        if (plies == 0) {
+            return;
+        }
+        Game game = replay(boardSize, line);
+        if (game.isGameOver(false)) {
+            return;
+        }
+        long key = OpeningBook.positionKey(game);
+        if (!bookMoves.containsKey(key)) {
+            GameTokens token = game.getPlayerToken(game.getCurrentPlayer());
+            int move = search.search(new SearchPosition(game), SearchPosition.findCandidateCells(game, token));
+            if (isSwapAllowed(line) && search.getLastScore() < 0) {
+                //The first move is worth more than any answer, so the tokens are swapped.
+                move = OpeningBook.SWAP_MOVE;
+            }
+            bookMoves.put(key, move);
+        }
+        int[] childLine = Arrays.copyOf(line, line.length + 1);
+        if (isSwapAllowed(line)) {
+            childLine[line.length] = SWAP_IN_LINE;
+            expand(search, boardSize, childLine, plies - 1, bookMoves);
+        }
+        GameBoard gameBoard = game.getGameBoard();
+        for (int cell = 0; cell < gameBoard.getTopology().getCellsCount(); cell++) {
+            if (gameBoard.getCellToken(cell) == GameTokens.EMPTY) {
+                childLine[line.length] = cell;
+                expand(search, boardSize, childLine, plies - 1, bookMoves);
+            }
+        }
+    }
+
+    private static boolean isSwapAllowed(final int[] line) {
+        return line.length == SWAP_MOVE_COUNT;
+    }
+
+    private static Game replay(final int boardSize, final int[] line) {
+        Player playerOne = new Player(GameTokens.X_TOKEN.getTokenRepresentation());
+        Player playerTwo = new Player(GameTokens.O_TOKEN.getTokenRepresentation());
+        playerOne.setEnemyPlayer(playerTwo);
+        playerTwo.setEnemyPlayer(playerOne);
+        Game game = new Game(playerOne.getName(), playerOne, playerTwo, new GameBoard(boardSize));
+        for (int move : line) {
+            if (move == SWAP_IN_LINE) {
+                game.swapMovement();
+                continue;
+            }
+            Hexagon hexagon = game.getGameBoard().getHexagon(move);
+            game.getGameBoard().setToken(hexagon, game.getPlayerToken(game.getCurrentPlayer()));
+            game.addMovement(hexagon);
+            game.addTurn();
+        }
+        return game;
+    }
+}
@@ -14,7 +14,15 @@ public enum AIPlayers {
     /**
      * HeroAI player Type.
      */
-    HeroAI("HeroAI");
+    HeroAI("HeroAI"),
+    /**
+     * MctsAI player Type.
+     */
+    MctsAI("MctsAI"),
+    /**
+     * AlphaBetaAI player Type.
+     */
+    AlphaBetaAI("AlphaBetaAI");
     private final String playerName;
 
     /**
@@ -32,4 +40,17 @@ public enum AIPlayers {
     public String getPlayerName() {
         return this.playerName;
     }
+
+    /**
+     * Creates a new player of the AI player type, every player has its own state and plays one game at a time.
+     * @return the new AI player.
+     */
+    public Player createPlayer() {
+        return switch (this) {
+            case BogoAI -> new kastel.model.BogoAI();
+            case HeroAI -> new kastel.model.HeroAI();
+            case MctsAI -> new kastel.model.MctsAI();
+            case AlphaBetaAI -> new kastel.model.AlphaBetaAI();
+        };
+    }
 }
@@ -0,0 +1,119 @@
+package kastel.model;
+
+import kastel.model.searchalgorithms.AlphaBetaSearch;
+
+/**
+ * This class represents the AI Player AlphaBetaAI that extends the class Player.
+ * The player takes winning and blocking moves directly, all the other moves are chosen by an alpha-beta search with
+ * iterative deepening that stops at a fixed deadline. The moves ruled out by the virtual connections of the game are
+ * not searched. The opening moves and the swap decision are taken from the shared {@link OpeningBook} if it holds
+ * the position.
+ * @author ucxug
+ * @version 1.0
+ */
+public class AlphaBetaAI extends Player {
+
+    /**
+     * The name of the system property with the time budget of a search in milliseconds.
+     */
+    public static final String TIME_BUDGET_PROPERTY = "kastel.alphabeta.timeMillis";
+    /**
+     * The name of the system property with the maximal depth of a search.
+     */
+    public static final String MAXIMAL_DEPTH_PROPERTY = "kastel.alphabeta.maxDepth";
+    /**
+     * The default time budget of a search in milliseconds.
+     */
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 1000;
+    /**
+     * The default maximal depth of a search.
+     */
+    public static final int DEFAULT_MAXIMAL_DEPTH = 64;
+
+    /**
+     * The current game that is being played.
+     */
+    private Game currentGame;
+    private final AlphaBetaSearch search;
+    /**
+     * The table caching the winning moves and the search results of the positions.
+     */
+    private final TranspositionTable transpositionTable;
+    /**
+     * The book holding the moves of the opening positions.
+     */
+    private final OpeningBook openingBook;
+
+    /**
+     * Constructs a new AlphaBetaAI player configured by the system properties, by default it searches for
+     * {@value #DEFAULT_TIME_BUDGET_MILLIS} milliseconds up to a depth of {@value #DEFAULT_MAXIMAL_DEPTH}.
+     */
+    public AlphaBetaAI() {
+        this(Long.getLong(TIME_BUDGET_PROPERTY, DEFAULT_TIME_BUDGET_MILLIS),
+            Integer.getInteger(MAXIMAL_DEPTH_PROPERTY, DEFAULT_MAXIMAL_DEPTH));
+    }
+
+    /**
+     * Constructs a new AlphaBetaAI player.
+     * @param timeBudgetMillis the time a search may take in milliseconds.
+     * @param maximalDepth the maximal depth of a search.
+     */
+    public AlphaBetaAI(final long timeBudgetMillis, final int maximalDepth) {
+        super(AIPlayers.AlphaBetaAI.getPlayerName());
+        this.transpositionTable = TranspositionTable.getShared();
+        this.openingBook = OpeningBook.getShared();
+        this.search = new AlphaBetaSearch(this.transpositionTable, timeBudgetMillis, maximalDepth);
+    }
+
+    @Override
+    public Hexagon getWinningMove(final GameTokens currentToken) {
+        return getWinningHexagon(currentToken);
+    }
+
+    @Override
+    public Hexagon getBlockingMove(final GameTokens currentToken) {
+        //The rival would win on the blocking hexagon.
+        return getWinningHexagon(currentToken);
+    }
+
+    @Override
+    public void setCurrentGame(final Game game) {
+        this.currentGame = game;
+    }
+
+    @Override
+    public boolean isSwap() {
+        return this.openingBook.findMove(this.currentGame) == OpeningBook.SWAP_MOVE;
+    }
+
+    @Override
+    public Hexagon getFourthMove() {
+        int bookMove = this.openingBook.findMove(this.currentGame);
+        if (bookMove >= 0) {
+            return this.currentGame.getGameBoard().getHexagon(bookMove);
+        }
+        GameTokens token = this.currentGame.getPlayerToken(this);
+        int cell = this.search.search(new SearchPosition(this.currentGame),
+            SearchPosition.findCandidateCells(this.currentGame, token), getCancellationToken());
+        if (cell == AlphaBetaSearch.NO_CELL) {
+            return null;
+        }
+        return this.currentGame.getGameBoard().getHexagon(cell);
+    }
+
+    /**
+     * Gets the depth of the last finished iteration of the last search.
+     * @return the depth, or 0 if no iteration was finished.
+     */
+    public int getSearchDepth() {
+        return this.search.getLastDepth();
+    }
+
+    private Hexagon getWinningHexagon(final GameTokens token) {
+        int winningCell = SearchPosition.findCachedWinningCell(this.currentGame, token, this.transpositionTable);
+        if (winningCell == SearchPosition.NO_CELL) {
+            return null;
+        }
+        return this.currentGame.getGameBoard().getHexagon(winningCell);
+    }
+}
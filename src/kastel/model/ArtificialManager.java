@@ -1,15 +1,32 @@
 package kastel.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * A manager class responsible for managing the interaction and desicions of an artificial player in a hexagon game.
+ * Every move can have a time budget: the player gets a cancellation token that runs out with the budget, and if its
+ * strategies give up without a move, the first free hexagon is placed instead. The time of every move and whether the
+ * fallback was taken are recorded.
  * @author ucxug
  * @version 1.0
  */
 public class ArtificialManager {
+    private static final int SWAP_MOVE_COUNT = 1;
+
     /**
      * The current artifial player of the ArtificialManager instance.
      */
     private final Player artificialPlayer;
+    /**
+     * The time budget of a move in milliseconds, or {@link CancellationToken#NO_TIME_LIMIT}.
+     */
+    private final long moveTimeMillis;
+    /**
+     * Stores the results of all the moves chosen by the artificial player, in the order they were chosen.
+     */
+    private final List<MoveResult> moveResults;
 
     /**
      * The current game that is being played.
@@ -21,14 +38,44 @@ public class ArtificialManager {
      * @param artificialPlayer the artificial player to manage.
      */
     public ArtificialManager(final Player artificialPlayer) {
+        this(artificialPlayer, CancellationToken.NO_TIME_LIMIT);
+    }
+
+    /**
+     * Constructs an ArtificialManager with the specified artificial player and time budget of a move.
+     * @param artificialPlayer the artificial player to manage.
+     * @param moveTimeMillis the time budget of a move in milliseconds, {@link CancellationToken#NO_TIME_LIMIT} or less
+     *      for no time limit.
+     */
+    public ArtificialManager(final Player artificialPlayer, final long moveTimeMillis) {
         this.artificialPlayer = artificialPlayer;
+        this.moveTimeMillis = moveTimeMillis;
+        this.moveResults = new ArrayList<>();
     }
 
     /**
      * Retrieves a move for the artificial player based on various strategies.
+     * If the time budget runs out before the strategies found a move, the first free hexagon is taken.
      * @return the move result, wich may include a move or a swap indication.
      */
     public MoveResult getArtificialMove() {
+        long start = System.nanoTime();
+        CancellationToken cancellationToken = CancellationToken.withBudget(this.moveTimeMillis);
+        this.artificialPlayer.setCancellationToken(cancellationToken);
+        MoveResult strategyResult = getStrategyMove(cancellationToken);
+        Hexagon hexagonToPlace = strategyResult.getMovement();
+        boolean fallback = false;
+        if (hexagonToPlace == null && !strategyResult.isSwap() && cancellationToken.isCancelled()) {
+            hexagonToPlace = getFirstFreeHexagon();
+            fallback = true;
+        }
+        MoveResult moveResult = new MoveResult(hexagonToPlace, strategyResult.isSwap(), System.nanoTime() - start,
+            fallback);
+        this.moveResults.add(moveResult);
+        return moveResult;
+    }
+
+    private MoveResult getStrategyMove(final CancellationToken cancellationToken) {
 
         Hexagon hexagonToPlace = this.artificialPlayer.getWinningMove(currentGame.getPlayerToken(artificialPlayer));
         //Checks if there is a posible winning move.
@@ -43,9 +90,8 @@ public class ArtificialManager {
         if (hexagonToPlace != null) {
             return new MoveResult(hexagonToPlace, false);
         }
-        if (this.artificialPlayer.getName().equals(AIPlayers.BogoAI.getPlayerName())
-            //Checks if the players swaps the game tokens.
-            && this.artificialPlayer.isSwap()) {
+        if (isSwapAllowed() && this.artificialPlayer.isSwap()) {
+            //The player swaps the game tokens.
             return new MoveResult(null, true);
         }
         hexagonToPlace = this.artificialPlayer.getThirdMove();
@@ -53,11 +99,45 @@ public class ArtificialManager {
         if (hexagonToPlace != null) {
             return new MoveResult(hexagonToPlace, false);
         }
+        if (cancellationToken.isCancelled()) {
+            //There is no time left for the fourth move search.
+            return new MoveResult(null, false);
+        }
         //If all of the above conditions were null, the fourth move condition will be returned.
         return new MoveResult(this.artificialPlayer.getFourthMove(), false);
 
     }
 
+    /**
+     * Checks whether the artificial player may swap the game tokens: only as the answer to the very first move.
+     * @return true if the player may swap, false otherwise.
+     */
+    private boolean isSwapAllowed() {
+        return this.currentGame.getMoveCount() == SWAP_MOVE_COUNT
+            && this.currentGame.getLastMovePlayer() != this.artificialPlayer;
+    }
+
+    private Hexagon getFirstFreeHexagon() {
+        GameBoard gameBoard = this.currentGame.getGameBoard();
+        //Searchs for the lowest x and y coordinate hexagon.
+        for (int i = 0; i < gameBoard.getBoardSize(); i++) {
+            for (int j = 0; j < gameBoard.getBoardSize(); j++) {
+                if (gameBoard.getCellToken(gameBoard.getTopology().getCell(i, j)) == GameTokens.EMPTY) {
+                    return gameBoard.getHexagon(i, j);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the results of all the moves chosen by the artificial player, with their times and fallback indications.
+     * @return the move results in the order the moves were chosen.
+     */
+    public List<MoveResult> getMoveResults() {
+        return Collections.unmodifiableList(this.moveResults);
+    }
+
     /**
      * Gets the artificial player managed by this Artificial manager.
      * @return the artificial player.
@@ -0,0 +1,332 @@
+package kastel.model;
+
+import java.util.Arrays;
+
+/**
+ * A disjoint-set structure that keeps track of the connected stone groups of a game board.
+ * Four virtual edge nodes (north and south for the X token, west and east for the O token) are part of the
+ * structure, so checking whether a token connects its two board sides only needs two root lookups.
+ * The structure uses union by rank without path compression, this way the unions of the last placed stone can be
+ * rolled back when the stone is removed again. Removing any other stone marks the structure as outdated and it will be
+ * rebuilt from the game board on the next query.
+ * The nodes are stored in pages that are only allocated once a stone is placed in their range, so sparsely played
+ * big boards only pay for the regions that contain stones.
+ * @author ucxug
+ * @version 1.0
+ */
+public class BoardConnectivity {
+    private static final int EDGE_NODES_COUNT = 4;
+    private static final int NORTH_EDGE = 0;
+    private static final int SOUTH_EDGE = 1;
+    private static final int WEST_EDGE = 2;
+    private static final int EAST_EDGE = 3;
+    private static final int INITIAL_LOG_CAPACITY = 16;
+    private static final int GROWTH_FACTOR = 2;
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    /**
+     * The game board whose stones are tracked.
+     */
+    private final GameBoard gameBoard;
+    private final HexTopology topology;
+    private final int boardSize;
+    private final int cellsCount;
+    /**
+     * Stores the parent node of each node, a node is a root if it is its own parent.
+     * The nodes of a page that is not allocated are all roots.
+     */
+    private final int[][] parentPages;
+    /**
+     * Stores the upper bound of the height of each root.
+     */
+    private final byte[][] rankPages;
+    /**
+     * Stores the merged roots of all unions in the order they were made. If the rank of the new root was increased the
+     * merged root is stored as a negative number.
+     */
+    private int[] unionLog;
+    private int unionLogSize;
+    /**
+     * Stores the cell of each placed stone in the order the stones were placed.
+     */
+    private int[] placedCells;
+    /**
+     * Stores for each placed stone the size of the union log before the stone was placed.
+     */
+    private int[] placementStarts;
+    private int placementsCount;
+    /**
+     * Indicates whether the structure does not match the game board anymore and needs to be rebuilt.
+     */
+    private boolean outdated;
+
+    /**
+     * Constructs the connectivity structure for an empty game board.
+     * @param gameBoard the game board whose stones are tracked.
+     */
+    public BoardConnectivity(final GameBoard gameBoard) {
+        this.gameBoard = gameBoard;
+        this.topology = gameBoard.getTopology();
+        this.boardSize = gameBoard.getBoardSize();
+        this.cellsCount = this.boardSize * this.boardSize;
+        int pagesCount = (this.cellsCount + EDGE_NODES_COUNT + PAGE_MASK) >>> PAGE_SHIFT;
+        this.parentPages = new int[pagesCount][];
+        this.rankPages = new byte[pagesCount][];
+        this.unionLog = new int[INITIAL_LOG_CAPACITY];
+        this.placedCells = new int[INITIAL_LOG_CAPACITY];
+        this.placementStarts = new int[INITIAL_LOG_CAPACITY];
+        reset();
+    }
+
+    /**
+     * Updates the structure after the content of a cell has changed.
+     * @param cell the index of the cell whose content has changed, the board must already hold the new content.
+     * @param previousToken the content of the cell before the change.
+     * @param newToken the content of the cell after the change.
+     */
+    public void update(final int cell, final GameTokens previousToken, final GameTokens newToken) {
+        if (isStone(previousToken)) {
+            removeStone(cell);
+        }
+        if (isStone(newToken)) {
+            addStone(cell, newToken);
+        }
+    }
+
+    /**
+     * Checks whether the stones of the given token connect the two board sides of the token.
+     * @param token the token to check.
+     * @return true if the board sides are connected, false otherwise.
+     */
+    public boolean isConnected(final GameTokens token) {
+        if (this.outdated) {
+            rebuild();
+        }
+        if (token == GameTokens.X_TOKEN) {
+            return find(edgeNode(NORTH_EDGE)) == find(edgeNode(SOUTH_EDGE));
+        }
+        if (token == GameTokens.O_TOKEN) {
+            return find(edgeNode(WEST_EDGE)) == find(edgeNode(EAST_EDGE));
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a stone of the given token on an empty cell would connect the two board sides of the token.
+     * The stone would join the groups of its neighbour stones, so only their roots are looked up and the structure is
+     * not changed. If the token already connects its sides, every cell is winning.
+     * @param cell the index of the empty cell, see {@link HexTopology#getCell(int, int)}.
+     * @param token the token of the stone.
+     * @return true if the stone would connect the board sides, false otherwise.
+     */
+    public boolean isWinningCell(final int cell, final GameTokens token) {
+        if (!isStone(token)) {
+            return false;
+        }
+        if (isConnected(token)) {
+            return true;
+        }
+        boolean xToken = token == GameTokens.X_TOKEN;
+        int coordinate = xToken ? this.topology.getyCoordinate(cell) : this.topology.getxCoordinate(cell);
+        int startRoot = find(edgeNode(xToken ? NORTH_EDGE : WEST_EDGE));
+        int endRoot = find(edgeNode(xToken ? SOUTH_EDGE : EAST_EDGE));
+        boolean startReached = coordinate == 0;
+        boolean endReached = coordinate == this.boardSize - 1;
+        for (int slot = 0; slot < HexTopology.NEIGHBOUR_SLOTS; slot++) {
+            int neighbour = this.topology.getNeighbour(cell, slot);
+            if (neighbour != HexTopology.NO_NEIGHBOUR && this.gameBoard.getCellToken(neighbour) == token) {
+                int root = find(neighbour);
+                startReached |= root == startRoot;
+                endReached |= root == endRoot;
+            }
+        }
+        return startReached && endReached;
+    }
+
+    private void addStone(final int cell, final GameTokens token) {
+        if (this.outdated) {
+            //The next query rebuilds the whole structure anyway.
+            return;
+        }
+        pushPlacement(cell);
+        connectStone(cell, token);
+    }
+
+    private void removeStone(final int cell) {
+        if (this.outdated || this.placementsCount == 0 || this.placedCells[this.placementsCount - 1] != cell) {
+            //Only the last placed stone can be rolled back, otherwise the structure has to be rebuilt.
+            this.outdated = true;
+            return;
+        }
+        this.placementsCount--;
+        int logStart = this.placementStarts[this.placementsCount];
+        while (this.unionLogSize > logStart) {
+            this.unionLogSize--;
+            int mergedRoot = this.unionLog[this.unionLogSize];
+            if (mergedRoot < 0) {
+                mergedRoot = -mergedRoot - 1;
+                int root = getParent(mergedRoot);
+                setRank(root, getRank(root) - 1);
+            }
+            setParent(mergedRoot, mergedRoot);
+        }
+    }
+
+    private void connectStone(final int cell, final GameTokens token) {
+        //Connects the stone with the board sides of its token.
+        if (token == GameTokens.X_TOKEN) {
+            int yCoordinate = this.topology.getyCoordinate(cell);
+            if (yCoordinate == 0) {
+                union(cell, edgeNode(NORTH_EDGE));
+            }
+            if (yCoordinate == this.boardSize - 1) {
+                union(cell, edgeNode(SOUTH_EDGE));
+            }
+        } else {
+            int xCoordinate = this.topology.getxCoordinate(cell);
+            if (xCoordinate == 0) {
+                union(cell, edgeNode(WEST_EDGE));
+            }
+            if (xCoordinate == this.boardSize - 1) {
+                union(cell, edgeNode(EAST_EDGE));
+            }
+        }
+        //Connects the stone with all neighbour stones of the same token.
+        for (int slot = 0; slot < HexTopology.NEIGHBOUR_SLOTS; slot++) {
+            int neighbour = this.topology.getNeighbour(cell, slot);
+            if (neighbour != HexTopology.NO_NEIGHBOUR && this.gameBoard.getCellToken(neighbour) == token) {
+                union(cell, neighbour);
+            }
+        }
+    }
+
+    /**
+     * Marks the structure as outdated, so it is built again from the stones of the game board on the next query.
+     */
+    void invalidate() {
+        this.outdated = true;
+    }
+
+    /**
+     * Builds the structure again from the stones of the game board, for example after the cells were copied into it
+     * without updating the structure.
+     */
+    void rebuild() {
+        reset();
+        for (int cell = 0; cell < this.cellsCount; cell++) {
+            GameTokens token = this.gameBoard.getCellToken(cell);
+            if (isStone(token)) {
+                connectStone(cell, token);
+            }
+        }
+        //The rebuilt unions can not be rolled back, so the log is cleared.
+        this.unionLogSize = 0;
+    }
+
+    private void reset() {
+        Arrays.fill(this.parentPages, null);
+        Arrays.fill(this.rankPages, null);
+        this.unionLogSize = 0;
+        this.placementsCount = 0;
+        this.outdated = false;
+    }
+
+    private int find(final int node) {
+        int root = node;
+        int parent = getParent(root);
+        while (parent != root) {
+            root = parent;
+            parent = getParent(root);
+        }
+        return root;
+    }
+
+    private void union(final int firstNode, final int secondNode) {
+        int firstRoot = find(firstNode);
+        int secondRoot = find(secondNode);
+        if (firstRoot == secondRoot) {
+            return;
+        }
+        //The root with the lower rank is merged into the other root.
+        if (getRank(firstRoot) < getRank(secondRoot)) {
+            int temporary = firstRoot;
+            firstRoot = secondRoot;
+            secondRoot = temporary;
+        }
+        setParent(secondRoot, firstRoot);
+        if (getRank(firstRoot) == getRank(secondRoot)) {
+            setRank(firstRoot, getRank(firstRoot) + 1);
+            logUnion(-secondRoot - 1);
+        } else {
+            logUnion(secondRoot);
+        }
+    }
+
+    private int getParent(final int node) {
+        int[] page = this.parentPages[node >>> PAGE_SHIFT];
+        if (page == null) {
+            return node;
+        }
+        return page[node & PAGE_MASK];
+    }
+
+    private void setParent(final int node, final int parent) {
+        allocatePage(node >>> PAGE_SHIFT);
+        this.parentPages[node >>> PAGE_SHIFT][node & PAGE_MASK] = parent;
+    }
+
+    private int getRank(final int node) {
+        byte[] page = this.rankPages[node >>> PAGE_SHIFT];
+        if (page == null) {
+            return 0;
+        }
+        return page[node & PAGE_MASK];
+    }
+
+    private void setRank(final int node, final int rank) {
+        allocatePage(node >>> PAGE_SHIFT);
+        this.rankPages[node >>> PAGE_SHIFT][node & PAGE_MASK] = (byte) rank;
+    }
+
+    private void allocatePage(final int pageIndex) {
+        if (this.parentPages[pageIndex] != null) {
+            return;
+        }
+        //A new page starts with every node being its own root.
+        int[] page = new int[PAGE_SIZE];
+        int firstNode = pageIndex << PAGE_SHIFT;
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page[i] = firstNode + i;
+        }
+        this.parentPages[pageIndex] = page;
+        this.rankPages[pageIndex] = new byte[PAGE_SIZE];
+    }
+
+    private void logUnion(final int mergedRoot) {
+        if (this.unionLogSize == this.unionLog.length) {
+            this.unionLog = Arrays.copyOf(this.unionLog, this.unionLog.length * GROWTH_FACTOR);
+        }
+        this.unionLog[this.unionLogSize++] = mergedRoot;
+    }
+
+    private void pushPlacement(final int cell) {
+        if (this.placementsCount == this.placedCells.length) {
+            this.placedCells = Arrays.copyOf(this.placedCells, this.placedCells.length * GROWTH_FACTOR);
+            this.placementStarts = Arrays.copyOf(this.placementStarts,
+                this.placementStarts.length * GROWTH_FACTOR);
+        }
+        this.placedCells[this.placementsCount] = cell;
+        this.placementStarts[this.placementsCount] = this.unionLogSize;
+        this.placementsCount++;
+    }
+
+    private int edgeNode(final int edge) {
+        return this.cellsCount + edge;
+    }
+
+    private boolean isStone(final GameTokens token) {
+        return token == GameTokens.X_TOKEN || token == GameTokens.O_TOKEN;
+    }
+}
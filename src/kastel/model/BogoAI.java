@@ -1,9 +1,5 @@
 package kastel.model;
 
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-
 /**
  * A class representing the BogoAI Artificial player that employes a basic strategy for the HexagonPrime game.
  * @author ucxug
@@ -12,80 +8,51 @@ import java.util.Map;
 
 public class BogoAI extends Player {
     private static final int EVEN_DIVISOR = 2;
-    private static final int FIRST_MOVEMENT_INDEX = 0;
     private static final int EVEN_COORDINATES = 0;
     private static final int EXPETEC_MOVEMENTS_SIZE = 1;
     /**
      * The current game that is being played.
      */
     private Game currentGame;
+    /**
+     * The table caching the winning moves of the searched positions.
+     */
+    private final TranspositionTable transpositionTable;
 
     /**
-     * Constructs a new instance of the BogoAI player.
+     * Constructs a new instance of the BogoAI player that uses the shared transposition table.
      */
     public BogoAI() {
+        this(TranspositionTable.getShared());
+    }
+
+    /**
+     * Constructs a new instance of the BogoAI player.
+     * @param transpositionTable the table caching the winning moves of the searched positions.
+     */
+    public BogoAI(final TranspositionTable transpositionTable) {
         super(AIPlayers.BogoAI.getPlayerName());
+        this.transpositionTable = transpositionTable;
     }
 
     @Override
     public Hexagon getWinningMove(GameTokens currentToken) {
-        for (Hexagon[] hexagons : currentGame.getGameBoard().getBoard()) {
-            for (Hexagon winningHexagon : hexagons) {
-                if (winningHexagon.getContent() == GameTokens.EMPTY) {
-                    //Places the hexagon and checks if the game is over.
-                    currentGame.getGameBoard().setToken(winningHexagon, currentToken);
-                    if (this.currentGame.isGameOver(false)) {
-                        currentGame.getGameBoard().setToken(winningHexagon, GameTokens.EMPTY);
-                        return winningHexagon;
-                    }
-                    //Sets the hexagons back to their basic content.
-                    currentGame.getGameBoard().setToken(winningHexagon, GameTokens.EMPTY);
-                }
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Determines a list of possible blocking moves.
-     * @param currentToken the current token to be checked.
-     * @return A list of hexagons representing the potential blocking moves.
-     */
-    private List<Hexagon> getMultipleBlockingMoves(final GameTokens currentToken) {
-        List<Hexagon> hexagons = new LinkedList<>();
-        for (Hexagon[] blocckingHexagon : currentGame.getGameBoard().getBoard()) {
-            for (Hexagon hexagon : blocckingHexagon) {
-                if (hexagon.getContent() == GameTokens.EMPTY) {
-                    currentGame.getGameBoard().setToken(hexagon, currentToken);
-                    //Places the hexagon and checks if the game is over.
-                    if (this.currentGame.isGameOver(false)) {
-                        currentGame.getGameBoard().setToken(hexagon, GameTokens.EMPTY);
-                        hexagons.add(hexagon);
-                    }
-                    //Sets the hexagon back to their basis content.
-                    currentGame.getGameBoard().setToken(hexagon, GameTokens.EMPTY);
-                }
-            }
-        }
-        return hexagons;
+        //Places the hexagon on a search position and checks if the game is over.
+        return getWinningHexagon(currentToken);
     }
 
     @Override
     public Hexagon getBlockingMove(final GameTokens currentToken) {
-        List<Hexagon> blockMoves = getMultipleBlockingMoves(currentToken);
-        if (blockMoves.isEmpty()) {
+        //The blocking hexagon is the hexagon with the lowest x and y coordinate on which the rival would win.
+        return getWinningHexagon(currentToken);
+    }
+
+    private Hexagon getWinningHexagon(final GameTokens token) {
+        int winningCell = SearchPosition.findCachedWinningCell(this.currentGame, token, this.transpositionTable);
+        if (winningCell == SearchPosition.NO_CELL) {
             return null;
         }
-        Hexagon hexagon = blockMoves.get(FIRST_MOVEMENT_INDEX);
-        //Returns the blocking hexagon following the given conditions.
-        for (Hexagon hexagonToPlace : blockMoves) {
-            if (hexagonToPlace.getxCoordinate() < hexagon.getxCoordinate()
-                || hexagonToPlace.getxCoordinate() == hexagon.getxCoordinate()
-                && hexagonToPlace.getyCoordinate() < hexagon.getyCoordinate()) {
-                hexagon = hexagonToPlace;
-            }
-        }
-        return hexagon;
+        return this.currentGame.getGameBoard().getHexagon(winningCell);
     }
 
     @Override
@@ -96,15 +63,15 @@ public class BogoAI extends Player {
 
     @Override
     public boolean isSwap() {
-        if (this.currentGame.getGameMoves().size() != EXPETEC_MOVEMENTS_SIZE) {
+        if (this.currentGame.getMoveCount() != EXPETEC_MOVEMENTS_SIZE) {
             return false;
         }
-        if (this.currentGame.getLastMove().containsKey(this)) {
+        if (this.currentGame.getLastMovePlayer() == this) {
             //If the player already placed a token, the swap is not possible.
             return false;
         }
         //The sum of the x and y coordinate must be a even number so that the GameTokens can be swapped.
-        Hexagon hexagon = this.currentGame.getLastMove().get(this.getEnemyPlayer());
+        Hexagon hexagon = this.currentGame.getLastMove();
         return (hexagon.getyCoordinate() + hexagon.getxCoordinate()) % EVEN_DIVISOR == EVEN_COORDINATES;
     }
 
@@ -136,8 +103,7 @@ public class BogoAI extends Player {
         if (this.currentGame.getLastMove() == null) {
             return null;
         }
-        Map<Player, Hexagon> gameLastMove = this.currentGame.getLastMove();
-        Hexagon lastPlacedHexagon = gameLastMove.get(gameLastMove.keySet().iterator().next());
+        Hexagon lastPlacedHexagon = this.currentGame.getLastMove();
         //Checks if the symetric Hexagon to the last placed Hexagon is free.
         int xCoordinate = midddleIndex + (midddleIndex - lastPlacedHexagon.getxCoordinate());
         int yCoordinate = midddleIndex + (midddleIndex - lastPlacedHexagon.getyCoordinate());
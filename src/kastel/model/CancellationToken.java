@@ -0,0 +1,66 @@
+package kastel.model;
+
+/**
+ * A class representing the cooperative cancellation of the search for a move.
+ * The token is cancelled once its deadline has passed or when it is cancelled explicitly. The AI players check the
+ * token between the steps of their searches and give up as soon as it is cancelled, the caller then falls back to a
+ * fast move. A token can be checked by several threads at the same time.
+ * @author ucxug
+ * @version 1.0
+ */
+public class CancellationToken {
+
+    /**
+     * The time budget of a token without a deadline.
+     */
+    public static final long NO_TIME_LIMIT = 0;
+
+    private static final long NANOS_PER_MILLISECOND = 1_000_000L;
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * The value of {@link System#nanoTime()} at which the token is cancelled, or {@link #NO_DEADLINE}.
+     */
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+
+    private CancellationToken(final long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a token that is cancelled after a time budget.
+     * @param budgetMillis the time budget in milliseconds, {@link #NO_TIME_LIMIT} or less for no time limit. A budget
+     *      too long to be counted in nanoseconds has no time limit either.
+     * @return the new token.
+     */
+    public static CancellationToken withBudget(final long budgetMillis) {
+        if (budgetMillis <= NO_TIME_LIMIT) {
+            return new CancellationToken(NO_DEADLINE);
+        }
+        long budgetNanos;
+        try {
+            budgetNanos = Math.multiplyExact(budgetMillis, NANOS_PER_MILLISECOND);
+        } catch (ArithmeticException e) {
+            //The budget lasts longer than the virtual machine can count.
+            return new CancellationToken(NO_DEADLINE);
+        }
+        //The deadline may wrap around, it is only compared by the difference to the current time.
+        return new CancellationToken(System.nanoTime() + budgetNanos);
+    }
+
+    /**
+     * Cancels the token before its deadline.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Checks whether the token is cancelled.
+     * @return true if the token was cancelled or its deadline has passed, false otherwise.
+     */
+    public boolean isCancelled() {
+        return this.cancelled || this.deadlineNanos != NO_DEADLINE && System.nanoTime() - this.deadlineNanos >= 0;
+    }
+}
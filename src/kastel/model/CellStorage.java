@@ -0,0 +1,75 @@
+package kastel.model;
+
+/**
+ * An interface for the storage of the cells of a game board.
+ * Every cell is stored as one byte and is adressed by its index {@code y * boardSize + x}.
+ * @author ucxug
+ * @version 1.0
+ */
+public interface CellStorage {
+
+    /**
+     * The name of the system property with the board size from which the cells are stored outside of the heap.
+     */
+    String OFF_HEAP_BOARD_SIZE_PROPERTY = "kastel.board.offHeapSize";
+    /**
+     * The name of the system property with the directory in which the off-heap boards are stored as files.
+     */
+    String BOARD_DIRECTORY_PROPERTY = "kastel.board.directory";
+    /**
+     * The default board size from which the cells are stored outside of the heap.
+     */
+    int DEFAULT_OFF_HEAP_BOARD_SIZE = 1001;
+
+    /**
+     * Gets the value of a cell.
+     * @param cell the index of the cell.
+     * @return the value of the cell.
+     */
+    byte get(int cell);
+
+    /**
+     * Sets the value of a cell.
+     * @param cell the index of the cell.
+     * @param value the new value of the cell.
+     */
+    void set(int cell, byte value);
+
+    /**
+     * Gets the number of cells of the storage.
+     * @return the number of cells.
+     */
+    int size();
+
+    /**
+     * Copies the values of all cells into a new array.
+     * @return the array holding the value of each cell.
+     */
+    default byte[] toArray() {
+        byte[] values = new byte[size()];
+        for (int cell = 0; cell < values.length; cell++) {
+            values[cell] = get(cell);
+        }
+        return values;
+    }
+
+    /**
+     * Creates the storage for a board of the given size.
+     * Boards with at least the size given by the {@value #OFF_HEAP_BOARD_SIZE_PROPERTY} system property are stored
+     * outside of the heap, mapped from a file if the {@value #BOARD_DIRECTORY_PROPERTY} system property is set.
+     * @param boardSize the size of the board.
+     * @return the storage for the cells of the board.
+     */
+    static CellStorage forBoardSize(final int boardSize) {
+        int offHeapBoardSize = Integer.getInteger(OFF_HEAP_BOARD_SIZE_PROPERTY, DEFAULT_OFF_HEAP_BOARD_SIZE);
+        int cellsCount = boardSize * boardSize;
+        if (boardSize < offHeapBoardSize) {
+            return new HeapCellStorage(cellsCount);
+        }
+        String directory = System.getProperty(BOARD_DIRECTORY_PROPERTY);
+        if (directory == null) {
+            return new OffHeapCellStorage(cellsCount);
+        }
+        return OffHeapCellStorage.mapFile(cellsCount, directory);
+    }
+}
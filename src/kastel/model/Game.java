@@ -1,10 +1,13 @@
 package kastel.model;
 
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
-import kastel.model.searchalgorithms.BreadthFirstSearch;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import kastel.model.searchalgorithms.FloodFill;
+import kastel.model.searchalgorithms.PathDistances;
+import kastel.model.searchalgorithms.VirtualConnections;
 
 /**
  * This class represents a HexagonPrime Game.
@@ -14,10 +17,18 @@ import kastel.model.searchalgorithms.BreadthFirstSearch;
  */
 
 public class Game {
+    private static final int PLAYERS_COUNT = 2;
+    private static final int EVEN_MOVE = 0;
+    private static final int X_INDEX = 0;
+    private static final int O_INDEX = 1;
+    private static final int EMPTY_INDEX = 2;
+    private static final int DISTANCE_TOKENS_COUNT = 3;
+
     /**
-     * Stores a list of game moves made by players.
+     * Stores the cells of the game moves made by players. The players alternate, so the player of a move is derived
+     * from its position in the journal.
      */
-    private final List<Map<Player, Hexagon>> gameMoves;
+    private final MoveJournal gameMoves;
 
     /**
      * Maps players to their corresponding game token used in this game.
@@ -44,11 +55,49 @@ public class Game {
      */
     private final GameBoard gameBoard;
     /**
-     * Stores a copy of the game board , so that when the game is over the copy will be returned.
+     * Stores the cells of the winning group once the game is over, they are shown as an overlay on the game board.
      */
-    private final GameBoard winningBoard;
+    private BitSet winningCells;
     private int turnsCount;
-    private Player currentPlayer;
+    private volatile Player currentPlayer;
+    /**
+     * Guards the swap of the game, the cached status with the winning group and the path distances, which are also
+     * read by the threads of other command sources. It is only ever taken after the session lock of
+     * {@link HexagonPrime}.
+     */
+    private final ReentrantLock lock;
+    /**
+     * Indicates whether the first move has been handed over to the second player by a swap.
+     */
+    private boolean swapped;
+    /**
+     * Stores the last computed status of the game.
+     */
+    private GameStatus cachedStatus;
+    /**
+     * Stores the board version the cached status was computed for.
+     */
+    private long cachedBoardVersion;
+    /**
+     * Stores the turns count the cached status was computed for.
+     */
+    private int cachedTurnsCount;
+    /**
+     * Stores the virtual connections of the X and the O token, they are created when they are first needed.
+     */
+    private VirtualConnections[] virtualConnections;
+    /**
+     * Stores the number of game moves the virtual connections have been updated with.
+     */
+    private int connectedMovesCount;
+    /**
+     * Stores the path distances of the X, the O and the empty token, each of them is created when it is first needed.
+     */
+    private final PathDistances[] pathDistances;
+    /**
+     * Stores the number of game moves the path distances have been updated with.
+     */
+    private int measuredMovesCount;
 
     /**
      * Constructs a new game instance.
@@ -63,10 +112,14 @@ public class Game {
         this.playerOne = playerOne;
         this.playerTwo = playerTwo;
         this.turnsCount = 0;
-        this.gameMoves = new LinkedList<>();
+        this.gameMoves = new MoveJournal();
         this.gameBoard = board;
-        this.winningBoard = new GameBoard(board.getBoardSize());
+        this.winningCells = new BitSet();
+        this.cachedStatus = GameStatus.IN_PROGRESS;
+        this.cachedBoardVersion = board.getVersion();
         this.currentPlayer = playerOne;
+        this.pathDistances = new PathDistances[DISTANCE_TOKENS_COUNT];
+        this.lock = new ReentrantLock();
         playerGameTokens.put(this.playerOne, GameTokens.X_TOKEN);
         playerGameTokens.put(this.playerTwo, GameTokens.O_TOKEN);
     }
@@ -91,88 +144,177 @@ public class Game {
      * Swaps thhe game tokens of the players.
      */
     public void swapMovement() {
-        this.playerGameTokens.clear();
-        this.playerGameTokens.put(this.playerOne, GameTokens.O_TOKEN);
-        this.playerGameTokens.put(this.playerTwo, GameTokens.X_TOKEN);
-        addTurn();
-        changeCurrentPlayer();
-
-        //Changes the firs placed moved for both players.
-        Map<Player, Hexagon> firstMove = getLastMove();
-        Map<Player, Hexagon> newFirstmove = new HashMap<>();
-        Player player = firstMove.keySet().iterator().next();
-        newFirstmove.put(player.getEnemyPlayer(), firstMove.get(player));
-        this.gameMoves.clear();
-        this.gameMoves.add(newFirstmove);
+        this.lock.lock();
+        try {
+            this.playerGameTokens.clear();
+            this.playerGameTokens.put(this.playerOne, GameTokens.O_TOKEN);
+            this.playerGameTokens.put(this.playerTwo, GameTokens.X_TOKEN);
+            addTurn();
+            changeCurrentPlayer();
+
+            //Changes the firs placed moved for both players.
+            this.swapped = !this.swapped;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
 
+
     /**
      * Checks if the game is over.
      * @param markWinningHexagons Indicates whether te winning path needs to be marked.
      * @return true if the game is over, false otherwise.
      */
     public boolean isGameOver(boolean markWinningHexagons) {
-        if (markWinningHexagons) {
-            didOWin(true);
-            didXWin(true);
-            return this.gameOver;
+        this.lock.lock();
+        try {
+            GameStatus status = getStatus();
+            if (markWinningHexagons) {
+                if (status != GameStatus.IN_PROGRESS && !this.gameOver) {
+                    //The winning group only needs to be searched once, when the game is over.
+                    markWinningGroup(status.getWinnerToken());
+                }
+                return this.gameOver;
+            }
+            return status != GameStatus.IN_PROGRESS;
+        } finally {
+            this.lock.unlock();
         }
-        return getTurnsCount() >= this.gameBoard.getBoardSize() && (didOWin(false)
-            || didXWin(false));
-
     }
 
+    /**
+     * Gets the status of the game.
+     * The status is only computed again if the game board or the turns count changed since the last call.
+     * @return the status of the game.
+     */
+    public GameStatus getStatus() {
+        this.lock.lock();
+        try {
+            if (this.cachedBoardVersion != this.gameBoard.getVersion() || this.cachedTurnsCount != this.turnsCount) {
+                this.cachedStatus = computeStatus();
+                this.cachedBoardVersion = this.gameBoard.getVersion();
+                this.cachedTurnsCount = this.turnsCount;
+            }
+            return this.cachedStatus;
+        } finally {
+            this.lock.unlock();
+        }
+    }
 
-    private boolean didOWin(boolean markWinningHexagons) {
+    private GameStatus computeStatus() {
         if (getTurnsCount() < this.gameBoard.getBoardSize()) {
-            return false;
+            //If the total movements are less than the game board size , no player has won.
+            return GameStatus.IN_PROGRESS;
         }
-        for (int i = 0; i < this.gameBoard.getBoardSize(); i++) {
-            for (int j = 0; j < this.gameBoard.getBoardSize(); j++) {
-                //Tries to connect the the west side to the east side.
-                boolean validateHexagons = matchesHexagonContent(this.gameBoard.getHexagon(0, i),
-                    GameTokens.O_TOKEN)
-                    && matchesHexagonContent(this.gameBoard.getHexagon(
-                        this.gameBoard.getBoardSize() - 1, j), GameTokens.O_TOKEN);
-                if (validateHexagons
-                    && getWinningPath(this.gameBoard.getHexagon(0, i),
-                    this.gameBoard.getHexagon(this.gameBoard.getBoardSize() - 1, j),
-                    GameTokens.O_TOKEN, markWinningHexagons)) {
-                    return true;
-                }
-            }
+        //Tries to connect the the west side to the east side.
+        if (this.gameBoard.getConnectivity().isConnected(GameTokens.O_TOKEN)) {
+            return GameStatus.O_WON;
+        }
+        //Tries to connect the north side with the south side.
+        if (this.gameBoard.getConnectivity().isConnected(GameTokens.X_TOKEN)) {
+            return GameStatus.X_WON;
         }
-        return false;
+        return GameStatus.IN_PROGRESS;
+    }
 
+    /**
+     * Gets the token that is sure to win the game, because its stones or its virtual connections join its board sides.
+     * The virtual connections are only searched on boards up to {@value VirtualConnections#MAXIMAL_BOARD_SIZE} cells
+     * wide, on bigger boards only a won game is reported.
+     * @return the token of the decided winner, or the empty token if the game is still open.
+     */
+    public GameTokens getDecidedWinner() {
+        GameStatus status = getStatus();
+        if (status != GameStatus.IN_PROGRESS || this.gameBoard.getBoardSize() > VirtualConnections.MAXIMAL_BOARD_SIZE) {
+            return status.getWinnerToken();
+        }
+        if (getVirtualConnections(GameTokens.X_TOKEN).isDecided()) {
+            return GameTokens.X_TOKEN;
+        }
+        if (getVirtualConnections(GameTokens.O_TOKEN).isDecided()) {
+            return GameTokens.O_TOKEN;
+        }
+        return GameTokens.EMPTY;
     }
 
-    private boolean didXWin(boolean markWinningHexagons) {
-        if (getTurnsCount() < this.gameBoard.getBoardSize()) {
-            //If the total movements are less than the game board size , no player has won and false will be returned.
-            return false;
+    /**
+     * Gets the virtual connections of a token in the current position.
+     * They are computed once and then updated with every new game move.
+     * @param token the token, the X or the O token.
+     * @return the virtual connections of the token.
+     */
+    public VirtualConnections getVirtualConnections(final GameTokens token) {
+        if (this.virtualConnections == null) {
+            this.virtualConnections = new VirtualConnections[] {
+                new VirtualConnections(this.gameBoard, GameTokens.X_TOKEN),
+                new VirtualConnections(this.gameBoard, GameTokens.O_TOKEN)
+            };
+            this.connectedMovesCount = this.gameMoves.size();
         }
-        for (int i = 0; i < this.gameBoard.getBoardSize(); i++) {
-            for (int j = 0; j < this.gameBoard.getBoardSize(); j++) {
-                //Tries to connect the north side with the south side.
-                boolean validateHexagons = matchesHexagonContent(this.gameBoard.getHexagon(i,
-                    0), GameTokens.X_TOKEN)
-                    && matchesHexagonContent(this.gameBoard.getHexagon(j,
-                    this.gameBoard.getBoardSize() - 1), GameTokens.X_TOKEN);
-                //Both Hexagons content must match the given content.
-                if (validateHexagons
-                    && getWinningPath(this.gameBoard.getHexagon(i, 0),
-                    this.gameBoard.getHexagon(j, this.gameBoard.getBoardSize() - 1),
-                    GameTokens.X_TOKEN, markWinningHexagons)) {
-                    return true;
+        for (; this.connectedMovesCount < this.gameMoves.size(); this.connectedMovesCount++) {
+            int cell = this.gameMoves.get(this.connectedMovesCount);
+            GameTokens cellToken = this.gameBoard.getCellToken(cell);
+            for (VirtualConnections connections : this.virtualConnections) {
+                connections.play(cell, cellToken);
+            }
+        }
+        return this.virtualConnections[token == GameTokens.X_TOKEN ? X_INDEX : O_INDEX];
+    }
+
+    /**
+     * Gets the path distances of a token in the current position.
+     * The distances of a token are computed when they are first needed and then repaired with every new game move.
+     * @param token the token, the X or the O token, or the empty token for the paths over the empty cells only.
+     * @return the path distances of the token.
+     */
+    public PathDistances getPathDistances(final GameTokens token) {
+        this.lock.lock();
+        try {
+            for (; this.measuredMovesCount < this.gameMoves.size(); this.measuredMovesCount++) {
+                int cell = this.gameMoves.get(this.measuredMovesCount);
+                GameTokens cellToken = this.gameBoard.getCellToken(cell);
+                for (PathDistances distances : this.pathDistances) {
+                    if (distances != null) {
+                        distances.setCellToken(cell, cellToken);
+                    }
                 }
             }
+            int index = switch (token) {
+                case X_TOKEN -> X_INDEX;
+                case O_TOKEN -> O_INDEX;
+                default -> EMPTY_INDEX;
+            };
+            if (this.pathDistances[index] == null) {
+                //The board already holds all the moves, so the new distances need no repair.
+                this.pathDistances[index] = new PathDistances(this.gameBoard, token);
+            }
+            return this.pathDistances[index];
+        } finally {
+            this.lock.unlock();
         }
-        return false;
     }
 
-    private boolean matchesHexagonContent(final Hexagon hexagon, final GameTokens token) {
-        return hexagon.getContent() == token;
+    /**
+     * Gets the number of empty hexagons a token still has to fill to connect its board sides.
+     * @param token the token, the X or the O token.
+     * @return the length of the shortest remaining path, 0 if the token has won, or
+     *      {@link PathDistances#NO_DISTANCE} if the rival has cut the sides of the token off.
+     */
+    public int getShortestPathLength(final GameTokens token) {
+        return getPathDistances(token).getShortestPathLength();
+    }
+
+    /**
+     * Gets the Zobrist hash of the game position, made of the stones on the board and whether the first move was
+     * swapped.
+     * @return the hash of the game position.
+     */
+    public long positionHash() {
+        if (this.swapped) {
+            return this.gameBoard.positionHash() ^ ZobristKeys.SWAP_KEY;
+        }
+        return this.gameBoard.positionHash();
     }
 
     /**
@@ -190,11 +332,32 @@ public class Game {
     }
 
     /**
-     * Retrieves a list of game moves, each containin player and hexagon information.
-     * @return a list of game moves.
+     * Retrieves the number of game moves made by the players.
+     * @return the number of game moves.
      */
-    public  List<Map<Player, Hexagon>> getGameMoves() {
-        return new LinkedList<>(this.gameMoves);
+    public int getMoveCount() {
+        return this.gameMoves.size();
+    }
+
+    /**
+     * Retrieves the hexagon of a game move.
+     * @param index the position of the move, the first move has the position 0.
+     * @return the hexagon of the move.
+     */
+    public Hexagon getMove(final int index) {
+        return this.gameBoard.getHexagon(this.gameMoves.get(index));
+    }
+
+    /**
+     * Retrieves the player that made a game move.
+     * @param index the position of the move, the first move has the position 0.
+     * @return the player of the move.
+     */
+    public Player getMovePlayer(final int index) {
+        Objects.checkIndex(index, this.gameMoves.size());
+        //The first player makes the even moves, unless the first move has been swapped.
+        boolean evenMove = index % PLAYERS_COUNT == EVEN_MOVE;
+        return evenMove != this.swapped ? this.playerOne : this.playerTwo;
     }
 
     /**
@@ -202,10 +365,8 @@ public class Game {
      * @param hexagon the hexagon representing the move.
      */
     public void addMovement(final Hexagon hexagon) {
-        //Adds a new movements to the game board and stores the movement information.
-        Map<Player, Hexagon> newMovement = new HashMap<>();
-        newMovement.put(this.currentPlayer, hexagon);
-        this.gameMoves.add(newMovement);
+        //Stores the movement information.
+        this.gameMoves.add(this.gameBoard.getTopology().getCell(hexagon.getxCoordinate(), hexagon.getyCoordinate()));
         //Changes the current player.
         changeCurrentPlayer();
     }
@@ -226,44 +387,44 @@ public class Game {
     }
 
 
-    private boolean getWinningPath(final Hexagon start, final Hexagon end, final GameTokens token,
-                                   final boolean markHexagons) {
-        List<Hexagon> winningPath =  BreadthFirstSearch.breadthFirstSearch(this, start, end, token);
-        //Gets the posible winning path with the help from breadth First Search algorithm.
-        if (winningPath.isEmpty()) {
-            //If an empty list is returned it knows that a posible path does not exist and returns false.
-            return false;
-        }
-        if (markHexagons) {
-            // If markHexagons,  all the winning path hexagons will be marked with the winning game token.
-            this.winningBoard.markWinningHexagons(winningPath);
-            this.winningBoard.markWinningPath(token);
-            //The game will be over.
-            this.gameOver = true;
-        }
-        return true;
+    private void markWinningGroup(final GameTokens token) {
+        //All the hexagons of the group connecting the board sides will be marked with the winning game token.
+        this.winningCells = FloodFill.findWinningGroup(this.gameBoard, token);
+        //The game will be over.
+        this.gameOver = true;
     }
 
 
     /**
-     * Returns a copy of the current game winning board.
-     * @return the winning board.
+     * Returns the String representation of the game board with the winning group marked by the winning token.
+     * @return the representation of the winning board.
      */
-    public GameBoard getWinningBoard() {
-        return winningBoard;
+    public String getWinningBoard() {
+        return this.gameBoard.toString(this.winningCells);
     }
 
     /**
      * Retrieves the last move of the game.
-     * @return the last move of the game if the movements count is not equal to 0,
+     * @return the hexagon of the last move if the movements count is not equal to 0,
      *      null otherwise.
      */
-    public Map<Player, Hexagon> getLastMove() {
-        if (this.gameMoves.isEmpty()) {
+    public Hexagon getLastMove() {
+        if (this.gameMoves.size() == 0) {
             return null;
-        } else  {
-            return new HashMap<>(this.gameMoves.get(this.gameMoves.size() - 1));
         }
+        return getMove(this.gameMoves.size() - 1);
+    }
+
+    /**
+     * Retrieves the player that made the last move of the game.
+     * @return the player of the last move if the movements count is not equal to 0,
+     *      null otherwise.
+     */
+    public Player getLastMovePlayer() {
+        if (this.gameMoves.size() == 0) {
+            return null;
+        }
+        return getMovePlayer(this.gameMoves.size() - 1);
     }
 
     /**
@@ -292,14 +453,13 @@ public class Game {
      * @return the last placed Hexagon if found, null otherwise.
      */
     public Hexagon getPlayerLastMove(final Player player) {
-        Hexagon lastMove = null;
-        for (int i = 0; i < getGameMoves().size(); i++) {
-            Map<Player, Hexagon> movement = getGameMoves().get(i);
-            if (movement.containsKey(player)) {
-                lastMove = movement.get(player);
+        //The players alternate, so the last move of a player is one of the last two moves.
+        for (int i = this.gameMoves.size() - 1; i >= Math.max(0, this.gameMoves.size() - PLAYERS_COUNT); i--) {
+            if (getMovePlayer(i) == player) {
+                return getMove(i);
             }
         }
-        return lastMove;
+        return null;
     }
 
 }
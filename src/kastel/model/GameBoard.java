@@ -1,13 +1,16 @@
 package kastel.model;
 
-import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.StringJoiner;
+import java.util.Objects;
 
 /**
  * A class representing the game board that consist of hexagons.
  * This class represents the board for a Hexagon Prime game.
+ * The content of the cells is stored packed in one byte per cell, indexed by {@code y * boardSize + x}, in a cell
+ * storage that is selected by the board size. The hexagons returned by the board are lightweight views on these
+ * cells.
  * @author ucxug
  * @version 1.0
  */
@@ -16,48 +19,126 @@ public class GameBoard {
 
 
     private static final String BOARD_INDENT = " ";
-    private static final int DIVISION_BY_MODULO = 2;
-    private static final int EVEN_COORDINATE = 0;
-    private static final int X_COORDINATE_INDEX = 0;
-    private static final int Y_COORDINATE_INDEX = 1;
+    private static final char CELL_DELIMITER = ' ';
     private static final String LINE_DELIMITER = System.lineSeparator();
+    private static final GameTokens[] GAME_TOKENS = GameTokens.values();
+    private static final byte EMPTY_VALUE = (byte) GameTokens.EMPTY.ordinal();
 
     /**
-     * Represents the board in the game.
+     * Stores the ordinal of the game token of each cell of the board.
      */
-    private final Hexagon[][] board;
+    private final CellStorage cells;
 
     /**
      * Represents the size/legth of the baord.
      */
     private final int boardSize;
 
+    /**
+     * The neighbourhood of the cells, shared by all boards of the same size.
+     */
+    private final HexTopology topology;
+
+    /**
+     * Keeps track of the connected stone groups on the board.
+     */
+    private final BoardConnectivity connectivity;
+
+    /**
+     * Counts the changes of the board content, so that results computed from the board can be cached.
+     */
+    private long version;
+
+    /**
+     * The Zobrist hash of the size of the board and of the stones on it.
+     */
+    private long positionHash;
+
     /**
      * Constructs a game board of the specified size.
      * @param boardSize the size of the game board.
      */
     public GameBoard(final int boardSize) {
-        this.board = new Hexagon[boardSize][boardSize];
+        this(boardSize, CellStorage.forBoardSize(boardSize));
+    }
+
+    /**
+     * Constructs a game board of the specified size that stores its cells in the given storage.
+     * @param boardSize the size of the game board.
+     * @param cells the empty storage for the cells of the board.
+     */
+    public GameBoard(final int boardSize, final CellStorage cells) {
         this.boardSize = boardSize;
-        buildBoard();
+        //All the cells start with the ordinal of the empty token.
+        this.cells = cells;
+        this.topology = HexTopology.forBoardSize(boardSize);
+        this.connectivity = new BoardConnectivity(this);
+        //The cell keys are the same for all sizes, so the empty boards of different sizes need different hashes.
+        this.positionHash = ZobristKeys.boardSizeKey(boardSize);
+    }
+
+    /**
+     * Creates a copy of the game board with the same tokens on its cells.
+     * The copy has its own cell storage and connectivity structure, so it can be changed without affecting this board.
+     * A copy is a scratch board of a search, so its cells are always stored on the heap and never in a file. The cells
+     * are copied as they are and the connectivity structure is built once from them.
+     * @return the copy of the game board.
+     */
+    public GameBoard copy() {
+        int cellsCount = this.topology.getCellsCount();
+        GameBoard copy = new GameBoard(this.boardSize, new HeapCellStorage(cellsCount));
+        for (int cell = 0; cell < cellsCount; cell++) {
+            byte value = this.cells.get(cell);
+            if (value != EMPTY_VALUE) {
+                copy.cells.set(cell, value);
+            }
+        }
+        copy.positionHash = this.positionHash;
+        copy.connectivity.rebuild();
+        return copy;
     }
 
+    /**
+     * Copies the cells of the game board into a new array, every cell is one byte holding the ordinal of its token.
+     * The array can be cloned cheaply and turned into a scratch board with {@link #fromCells(int, byte[])}.
+     * @return the array holding the cells, indexed like {@link HexTopology#getCell(int, int)}.
+     */
+    public byte[] copyCells() {
+        return this.cells.toArray();
+    }
 
-    private void buildBoard() {
-        for (int i = 0; i < this.boardSize; i++) {
-            for (int j = 0; j < this.boardSize; j++) {
-                Hexagon hexagon = new Hexagon(j, i);
-                this.board[j][i] = hexagon;
+    /**
+     * Creates a game board on the heap that keeps its cells in the given array, the array is not copied.
+     * The connectivity structure is only built once it is first queried, so a board that is only read by a path
+     * search costs no more than the hash of its stones.
+     * @param boardSize the size of the game board.
+     * @param cells the cells of the board, see {@link #copyCells()}.
+     * @return the game board.
+     */
+    public static GameBoard fromCells(final int boardSize, final byte[] cells) {
+        GameBoard gameBoard = new GameBoard(boardSize, new HeapCellStorage(cells));
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != EMPTY_VALUE) {
+                gameBoard.positionHash ^= ZobristKeys.cellKey(cell, GAME_TOKENS[cells[cell]]);
             }
         }
+        gameBoard.connectivity.invalidate();
+        return gameBoard;
     }
 
     /**
      * Gets the game board.
+     * The hexagons are created on demand, so this method should be avoided for big boards.
      * @return the graph representing the game board.
      */
     public Hexagon[][] getBoard() {
-        return Arrays.copyOf(this.board, this.board.length);
+        Hexagon[][] board = new Hexagon[this.boardSize][this.boardSize];
+        for (int i = 0; i < this.boardSize; i++) {
+            for (int j = 0; j < this.boardSize; j++) {
+                board[j][i] = new Hexagon(j, i, this);
+            }
+        }
+        return board;
     }
 
 
@@ -67,14 +148,31 @@ public class GameBoard {
      * @return the String representation of the game board.
      */
     public String toString() {
-        StringJoiner boardRepresentation = new StringJoiner(LINE_DELIMITER);
+        return toString(new BitSet());
+    }
+
+    /**
+     * Generates a String representation of the game board with the given cells shown as winning hexagons.
+     * @param winningCells the indices of the cells that are shown with the winning token.
+     * @return the String representation of the game board.
+     */
+    public String toString(final BitSet winningCells) {
+        StringBuilder boardRepresentation = new StringBuilder();
         for (int i = 0; i < this.boardSize; i++) {
-            String indent = BOARD_INDENT.repeat(i);
-            StringJoiner boardRow = new StringJoiner(BOARD_INDENT);
+            if (i > 0) {
+                boardRepresentation.append(LINE_DELIMITER);
+            }
+            boardRepresentation.append(BOARD_INDENT.repeat(i));
             for (int j = 0; j < this.boardSize; j++) {
-                boardRow.add(getHexagon(j, i).getContent().getTokenRepresentation());
+                if (j > 0) {
+                    boardRepresentation.append(CELL_DELIMITER);
+                }
+                GameTokens token = getToken(j, i);
+                if (winningCells.get(this.topology.getCell(j, i))) {
+                    token = GameTokens.WIN_TOKEN;
+                }
+                boardRepresentation.append(token.getTokenRepresentation());
             }
-            boardRepresentation.add(indent + boardRow);
         }
         return boardRepresentation.toString();
     }
@@ -86,7 +184,38 @@ public class GameBoard {
      * @return the hexagon at the corresponding coordinates.
      */
     public Hexagon getHexagon(final int xCoordinate, final int yCoordinate) {
-        return this.board[xCoordinate][yCoordinate];
+        Objects.checkIndex(xCoordinate, this.boardSize);
+        Objects.checkIndex(yCoordinate, this.boardSize);
+        return new Hexagon(xCoordinate, yCoordinate, this);
+    }
+
+    /**
+     * Gets the hexagon of the cell with the given index.
+     * @param cell the index of the cell, see {@link HexTopology#getCell(int, int)}.
+     * @return the hexagon of the cell.
+     */
+    public Hexagon getHexagon(final int cell) {
+        Objects.checkIndex(cell, this.topology.getCellsCount());
+        return new Hexagon(this.topology.getxCoordinate(cell), this.topology.getyCoordinate(cell), this);
+    }
+
+    /**
+     * Gets the token placed on the specified cell of the game board.
+     * @param xCoordinate the x coordinate of the cell.
+     * @param yCoordinate the y coordinate of the cell.
+     * @return the token placed on the cell.
+     */
+    public GameTokens getToken(final int xCoordinate, final int yCoordinate) {
+        return GAME_TOKENS[this.cells.get(yCoordinate * this.boardSize + xCoordinate)];
+    }
+
+    /**
+     * Gets the token placed on the cell with the given index.
+     * @param cell the index of the cell, see {@link HexTopology#getCell(int, int)}.
+     * @return the token placed on the cell.
+     */
+    public GameTokens getCellToken(final int cell) {
+        return GAME_TOKENS[this.cells.get(cell)];
     }
 
     /**
@@ -95,56 +224,61 @@ public class GameBoard {
      * @param gameToken the token to set on the hexagon.
      */
     public void setToken(final Hexagon hexagon, final GameTokens gameToken) {
-        //The hexagon will be seted in the board with the given token.
-        getHexagon(hexagon.getxCoordinate(), hexagon.getyCoordinate()).setContent(gameToken);
+        setCellToken(hexagon.getyCoordinate() * this.boardSize + hexagon.getxCoordinate(), gameToken);
     }
 
-
     /**
-     * Checks whether the given coordinates are valid on the game board.
-     * @param x The x-coordinate to check.
-     * @param y The y-coordinate to check.
-     * @return True if the coordinates are valid, false otherwise.
+     * Sets the token on the cell with the given index.
+     * @param cell the index of the cell, see {@link HexTopology#getCell(int, int)}.
+     * @param gameToken the token to set on the cell.
      */
-    private boolean isValidCoordinate(final int xCoordinate, final int yCoordinate) {
-        //The x and y coordinate must be less than the board size and bigger/equal to 0.
-        return xCoordinate >= 0 && xCoordinate < this.boardSize && yCoordinate >= 0 && yCoordinate < this.boardSize;
+    public void setCellToken(final int cell, final GameTokens gameToken) {
+        GameTokens previousToken = GAME_TOKENS[this.cells.get(cell)];
+        if (previousToken == gameToken) {
+            return;
+        }
+        //The hexagon will be seted in the board with the given token.
+        this.cells.set(cell, (byte) gameToken.ordinal());
+        this.version++;
+        this.positionHash ^= ZobristKeys.cellKey(cell, previousToken) ^ ZobristKeys.cellKey(cell, gameToken);
+        this.connectivity.update(cell, previousToken, gameToken);
     }
 
-
+    /**
+     * Gets the connectivity structure of the stones placed on the board.
+     * @return the connectivity structure of the board.
+     */
+    public BoardConnectivity getConnectivity() {
+        return this.connectivity;
+    }
 
     /**
-     * Marks the winning path for the specified token.
-     * @param currentToken The token for which the winning path needs to be marked.
+     * Gets the version of the board content, which changes every time a token is set on the board.
+     * @return the version of the board content.
      */
-    public void markWinningPath(final GameTokens currentToken) {
-        for (Hexagon[] hexagons : this.board) {
-            for (Hexagon winningHexagon : hexagons) {
-                if (winningHexagon.getContent() == GameTokens.WIN_TOKEN) {
-                    //If posibl the winning hexagon neigbours will be also marked.
-                    for (Hexagon neighbor : getHexagonNeighbours(winningHexagon)) {
-                        if (neighbor.getContent() == currentToken) {
-                            neighbor.setContent(GameTokens.WIN_TOKEN);
-                            markWinningPath(currentToken);
-                        }
-                    }
-                }
-            }
-        }
+    public long getVersion() {
+        return this.version;
     }
 
+    /**
+     * Gets the Zobrist hash of the board, which is updated every time a token is set on the board.
+     * Boards of the same size with the same stones have the same hash, the hash starts with the key of the size.
+     * @return the hash of the board position.
+     */
+    public long positionHash() {
+        return this.positionHash;
+    }
 
     /**
-     * Marks the hexagons forming the winning path.
-     * @param path the path to be marked.
+     * Gets the neighbourhood of the cells of the board.
+     * @return the topology of the board.
      */
-    public void markWinningHexagons(final List<Hexagon> path) {
-        for (Hexagon hexagon : path) {
-            getHexagon(hexagon.getxCoordinate(), hexagon.getyCoordinate()).setContent(GameTokens.WIN_TOKEN);
-        }
+    public HexTopology getTopology() {
+        return this.topology;
     }
 
 
+
     /**
      * Gets the size of the game board.
      * @return The size of the game board.
@@ -156,41 +290,22 @@ public class GameBoard {
 
     /**
      * Gets the Hexagon neighbors for the given hexagon.
+     * Allocation free code should iterate the neighbours with the topology of the board instead.
      * @param hexagon the hexagon to be checked.
      * @return the hexagon neighbours.
      */
     public List<Hexagon> getHexagonNeighbours(final Hexagon hexagon) {
-        if (hexagon.getyCoordinate() % DIVISION_BY_MODULO == EVEN_COORDINATE) {
-            return connectHexagonsEvenRow(hexagon.getxCoordinate(), hexagon.getyCoordinate());
-        }
-        return new LinkedList<>(connectHexagonOddRow(hexagon.getxCoordinate(), hexagon.getyCoordinate()));
-    }
-
-    private List<Hexagon> connectHexagons(final int xCoordinate, final int yCoordinate,
-                                          final int[][] neighborsCoordinates) {
-        List<Hexagon> hexagons = new LinkedList<>();
-        for (int[] coordinates : neighborsCoordinates) {
-            int neighborX = xCoordinate + coordinates[X_COORDINATE_INDEX];
-            int neighborY = yCoordinate + coordinates[Y_COORDINATE_INDEX];
-            if (isValidCoordinate(neighborX, neighborY)) {
-                Hexagon neighbor = getHexagon(neighborX, neighborY);
+        int cell = this.topology.getCell(hexagon.getxCoordinate(), hexagon.getyCoordinate());
+        List<Hexagon> hexagons = new ArrayList<>(HexTopology.NEIGHBOUR_SLOTS);
+        for (int slot = 0; slot < HexTopology.NEIGHBOUR_SLOTS; slot++) {
+            int neighbour = this.topology.getNeighbour(cell, slot);
+            if (neighbour != HexTopology.NO_NEIGHBOUR) {
                 //Searchs for the given hexagon neighbours.
-                if (neighbor != null) {
-                    hexagons.add(neighbor);
-                }
+                hexagons.add(new Hexagon(this.topology.getxCoordinate(neighbour),
+                    this.topology.getyCoordinate(neighbour), this));
             }
         }
         return hexagons;
     }
 
-    private List<Hexagon> connectHexagonsEvenRow(final int xCoordinate, final int yCoordinate) {
-        int[][] evenRowCoordinates = {{0, -1}, {1, -1}, {1, 0}, {0, 1}, {-1, 0}, {-1, 1}};
-        return connectHexagons(xCoordinate, yCoordinate, evenRowCoordinates);
-    }
-
-    private List<Hexagon> connectHexagonOddRow(final int xCoordinate, final int yCoordinate) {
-        int[][] oddRowCoordinates = {{0, -1}, {1, 0}, {0, 1}, {-1, 1}, {1, -1}, {-1, 0}};
-        return connectHexagons(xCoordinate, yCoordinate, oddRowCoordinates);
-    }
-
 }
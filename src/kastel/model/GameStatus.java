@@ -0,0 +1,39 @@
+package kastel.model;
+
+/**
+ * An enumeration representing the status of a game.
+ * @author ucxug
+ * @version 1.0
+ */
+public enum GameStatus {
+    /**
+     * The game is still being played.
+     */
+    IN_PROGRESS(GameTokens.EMPTY),
+    /**
+     * The player with the X token has connected the north and the south side.
+     */
+    X_WON(GameTokens.X_TOKEN),
+    /**
+     * The player with the O token has connected the west and the east side.
+     */
+    O_WON(GameTokens.O_TOKEN);
+
+    private final GameTokens winnerToken;
+
+    /**
+     * Constructs a GameStatus enum constant with the token of the winner.
+     * @param winnerToken the token of the winner, or the empty token if there is no winner.
+     */
+    GameStatus(final GameTokens winnerToken) {
+        this.winnerToken = winnerToken;
+    }
+
+    /**
+     * Gets the token of the winner.
+     * @return the token of the winner, or the empty token if there is no winner.
+     */
+    public GameTokens getWinnerToken() {
+        return this.winnerToken;
+    }
+}
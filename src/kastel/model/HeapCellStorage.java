@@ -0,0 +1,50 @@
+package kastel.model;
+
+/**
+ * A cell storage that keeps the cells in a byte array on the heap.
+ * @author ucxug
+ * @version 1.0
+ */
+public class HeapCellStorage implements CellStorage {
+
+    /**
+     * Stores the value of each cell.
+     */
+    private final byte[] cells;
+
+    /**
+     * Constructs a storage with the given number of cells, all cells start with the value 0.
+     * @param cellsCount the number of cells.
+     */
+    public HeapCellStorage(final int cellsCount) {
+        this.cells = new byte[cellsCount];
+    }
+
+    /**
+     * Constructs a storage that keeps its cells in the given array, the array is not copied.
+     * @param cells the values of the cells.
+     */
+    HeapCellStorage(final byte[] cells) {
+        this.cells = cells;
+    }
+
+    @Override
+    public byte get(final int cell) {
+        return this.cells[cell];
+    }
+
+    @Override
+    public void set(final int cell, final byte value) {
+        this.cells[cell] = value;
+    }
+
+    @Override
+    public int size() {
+        return this.cells.length;
+    }
+
+    @Override
+    public byte[] toArray() {
+        return this.cells.clone();
+    }
+}
@@ -1,10 +1,10 @@
 package kastel.model;
 
-import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import kastel.model.searchalgorithms.Dijkstra;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import kastel.model.searchalgorithms.EdgeDistanceField;
 /**
  * This class represents the AI Player HeroAI that extends the class Player.
  * This AI plyae is designed to make strategic moves in the game.
@@ -13,18 +13,61 @@ import kastel.model.searchalgorithms.Dijkstra;
  *
  */
 public class HeroAI extends Player {
-    private static final int FIRST_HEXAGON_INDEX = 0;
+    /**
+     * The name of the system property with the number of threads evaluating the path search candidates in parallel,
+     * the candidates are evaluated one after another if it is 1 or less.
+     */
+    public static final String PARALLELISM_PROPERTY = "kastel.hero.parallelism";
 
     /**
      * The current game that is being played.
      */
     private Game currentGame;
+    /**
+     * The table caching the winning moves of the searched positions.
+     */
+    private final TranspositionTable transpositionTable;
+    /**
+     * The pool evaluating the path search candidates in parallel, or null if they are evaluated one after another.
+     */
+    private final ForkJoinPool forkJoinPool;
 
     /**
-     * Constructs a new HeroAI player.
+     * Constructs a new HeroAI player that uses the shared transposition table. The path search candidates are
+     * evaluated in parallel by a pool shared by all players if the {@value #PARALLELISM_PROPERTY} system property is
+     * greater than 1, otherwise one after another.
      */
     public HeroAI() {
+        this(TranspositionTable.getShared(), Integer.getInteger(PARALLELISM_PROPERTY, 1) > 1 ? SharedPool.POOL : null);
+    }
+
+    /**
+     * Constructs a new HeroAI player.
+     * @param transpositionTable the table caching the winning moves of the searched positions.
+     */
+    public HeroAI(final TranspositionTable transpositionTable) {
+        this(transpositionTable, null);
+    }
+
+    /**
+     * Constructs a new HeroAI player that uses the shared transposition table and evaluates its path search candidates
+     * in parallel.
+     * @param forkJoinPool the pool evaluating the candidates.
+     */
+    public HeroAI(final ForkJoinPool forkJoinPool) {
+        this(TranspositionTable.getShared(), forkJoinPool);
+    }
+
+    /**
+     * Constructs a new HeroAI player.
+     * @param transpositionTable the table caching the winning moves of the searched positions.
+     * @param forkJoinPool the pool evaluating the path search candidates in parallel, or null to evaluate them one
+     *      after another.
+     */
+    public HeroAI(final TranspositionTable transpositionTable, final ForkJoinPool forkJoinPool) {
         super(AIPlayers.HeroAI.getPlayerName());
+        this.transpositionTable = transpositionTable;
+        this.forkJoinPool = forkJoinPool;
     }
 
     /**
@@ -33,59 +76,22 @@ public class HeroAI extends Player {
      */
     @Override
     public Hexagon getWinningMove(GameTokens currentToken) {
-        for (Hexagon[] boardRowHexagons : currentGame.getGameBoard().getBoard()) {
-            for (Hexagon hexagon : boardRowHexagons) {
-                if (hexagon.getContent() == GameTokens.EMPTY) {
-                    //Places the hexagon with the given token and checks if the game is over.
-                    currentGame.getGameBoard().setToken(hexagon, currentToken);
-                    if (this.currentGame.isGameOver(false)) {
-                        currentGame.getGameBoard().setToken(hexagon, GameTokens.EMPTY);
-                        return hexagon;
-                    }
-                    //Sets the hexagon content bakc to basic state.
-                    currentGame.getGameBoard().setToken(hexagon, GameTokens.EMPTY);
-                }
-            }
-        }
-        return null;
+        //Searchs the hexagon on which the token connects its board sides.
+        return getWinningHexagon(currentToken);
     }
 
     @Override
     public Hexagon getBlockingMove(final GameTokens currentToken) {
-        List<Hexagon> blockMoves = getMultipleBlockingMoves();
-        if (blockMoves.isEmpty()) {
-            return null;
-        }
-        Hexagon hexagonToBlock = blockMoves.get(FIRST_HEXAGON_INDEX);
-        for (Hexagon hexagon : blockMoves) {
-            //Searchs for the blocking hexagon with the given specifications.
-            if (hexagon.getxCoordinate() < hexagonToBlock.getxCoordinate()
-                || hexagon.getxCoordinate() == hexagonToBlock.getxCoordinate()
-                && hexagon.getyCoordinate() < hexagonToBlock.getyCoordinate()) {
-                hexagonToBlock = hexagon;
-            }
-        }
-        return hexagonToBlock;
+        //The blocking hexagon is the hexagon with the lowest x and y coordinate on which the X token would win.
+        return getWinningHexagon(GameTokens.X_TOKEN);
     }
 
-    private List<Hexagon> getMultipleBlockingMoves() {
-        List<Hexagon> blockingMoves = new LinkedList<>();
-        for (Hexagon[] boardRow : this.currentGame.getGameBoard().getBoard()) {
-            for (Hexagon blockingHexagon : boardRow) {
-                if (blockingHexagon.getContent() == GameTokens.EMPTY) {
-                    //Sets the hexagon with the given content and checks if the game is over.
-                    currentGame.getGameBoard().setToken(blockingHexagon, GameTokens.X_TOKEN);
-                    if (this.currentGame.isGameOver(false)) {
-                        currentGame.getGameBoard().setToken(blockingHexagon, GameTokens.EMPTY);
-                        //Adds the blocking hexagon to the list to be returned.
-                        blockingMoves.add(blockingHexagon);
-                    }
-                    //Sets the hexagon back to the basic state.
-                    currentGame.getGameBoard().setToken(blockingHexagon, GameTokens.EMPTY);
-                }
-            }
+    private Hexagon getWinningHexagon(final GameTokens token) {
+        int winningCell = SearchPosition.findCachedWinningCell(this.currentGame, token, this.transpositionTable);
+        if (winningCell == SearchPosition.NO_CELL) {
+            return null;
         }
-        return blockingMoves;
+        return this.currentGame.getGameBoard().getHexagon(winningCell);
     }
 
     /**
@@ -140,109 +146,200 @@ public class HeroAI extends Player {
     }
 
     /**
-     * Builds a posible token path to the east side of the game board.
-     * @param start the start hexagon from the path.
-     * @param end the end hexagon from the path.
-     * @param token the token so search for each hexagon of the path.
-     * @return a list of hexagons forming the path if found, or a empty list if no path is found.
+     * Builds the shortest path from a start hexagon to the east side, it follows the parents of the distances.
+     * @param gameBoard the game board to search the path on.
+     * @param start the start hexagon from the path, it can be connected to the east side.
+     * @param eastDistances the distances of the game board to the east side over the empty cells.
+     * @return a list of hexagons forming the path, from the start hexagon to the east side hexagon.
      */
-    private List<Hexagon> getPathToEastSide(final Hexagon start, final Hexagon end) {
-        /*Tries to find a posible path starting with the start hexagon and ending with the end hexagon.
-         Tries to connect the start hexagon with the east side. */
-
-        Map<Hexagon, Hexagon> parentMap
-            = Dijkstra.dijkstraWithPredecessors(this.currentGame.getGameBoard(), end, start, GameTokens.EMPTY);
-        List<Hexagon>  path = buildShortestPath(end, parentMap);
-        if (path.isEmpty() || !path.get(FIRST_HEXAGON_INDEX).equals(start) || !path.get(path.size() - 1).equals(end)) {
-            return new LinkedList<>();
-        }
-        return path;
-
-    }
-
-    private List<Hexagon> buildShortestPath(final Hexagon end, final Map<Hexagon, Hexagon> parentMap) {
+    private List<Hexagon> getPathToEastSide(final GameBoard gameBoard, final Hexagon start,
+                                            final EdgeDistanceField eastDistances) {
         List<Hexagon> path = new LinkedList<>();
-        Hexagon current = end;
-        while (current != null) {
-            path.add(current);
-            current = parentMap.get(current);
+        int current = getCell(gameBoard, start);
+        while (current != EdgeDistanceField.NO_CELL) {
+            path.add(gameBoard.getHexagon(current));
+            current = eastDistances.getParent(current);
         }
-        Collections.reverse(path);
         return path;
 
     }
 
     /**
      * Implements a strategic move for the AIs fourth move.
-     * @return the selected hexagon for the fourth move.
+     * The path search checks the cancellation token before every candidate and gives up once it is cancelled.
+     * The distances to the east side start from the ones the game keeps for the paths over the empty cells, and are
+     * only repaired for the hexagons the path search removes.
+     * @return the selected hexagon for the fourth move, or null if the search was cancelled.
      */
     @Override
     public Hexagon getFourthMove() {
-        List<Hexagon> pathToEastSide = generatePath(this.currentGame.getPlayerLastMove(this),
-            new LinkedList<>());
+        EdgeDistanceField eastDistances = this.currentGame.getPathDistances(GameTokens.EMPTY).copyEndDistances();
+        List<Hexagon> pathToEastSide = generatePath(this.currentGame.getGameBoard(),
+            this.currentGame.getPlayerLastMove(this), new LinkedList<>(), eastDistances);
         Hexagon hexagonToPlace  = getWestNorthHexagon(pathToEastSide);
         if (hexagonToPlace != null) {
             return hexagonToPlace;
         }
-        return searchRecursiveforPath();
+        if (getCancellationToken().isCancelled()) {
+            //The caller falls back to a fast move.
+            return null;
+        }
+        return searchRecursiveforPath(eastDistances);
 
     }
 
     private List<Hexagon> getAllPlacedHexagons() {
-        List<Map<Player, Hexagon>> moves = this.currentGame.getGameMoves();
         List<Hexagon> markedHexagons = new LinkedList<>();
         //Searchs for the hexagons placed by HeroAI in descending order.
-        for (int i = moves.size() - 1; i >= 0; i--) {
-            Map<Player, Hexagon> current = moves.get(i);
-            Hexagon hexagon = current.get(current.keySet().iterator().next());
-            if (current.keySet().iterator().next() != this) {
+        for (int i = this.currentGame.getMoveCount() - 1; i >= 0; i--) {
+            if (this.currentGame.getMovePlayer(i) != this) {
                 //If the hexagon was not placed by HeroAI it wont be added.
                 continue;
             }
-            markedHexagons.add(hexagon);
+            markedHexagons.add(this.currentGame.getMove(i));
         }
         return markedHexagons;
 
     }
 
-    private Hexagon searchRecursiveforPath() {
+    private Hexagon searchRecursiveforPath(final EdgeDistanceField eastDistances) {
         List<Hexagon> markedHexagons = getAllPlacedHexagons();
-        Hexagon hexagonToPlace = null;
-        for (Hexagon hexagon: markedHexagons) {
-            currentGame.getGameBoard().setToken(hexagon, GameTokens.EMPTY);
-            //Sets the last HeroAI placed Hexagon to empty and searchs a path to the east side.
-            Hexagon toReturn = selectHexagonFromPath(hexagon, markedHexagons);
-            if (toReturn != null && toReturn != hexagon && !isHexagonAlreadyPlaced(markedHexagons, toReturn)) {
-                currentGame.getGameBoard().setToken(hexagon, currentGame.getPlayerToken(this));
-                hexagonToPlace = toReturn;
-                //If a path is found the hexagon with the given conditions will be returned.
-                break;
-            }
-
+        //The hexagons are removed from copies of the cells, the real game board is never changed.
+        byte[] cells = this.currentGame.getGameBoard().copyCells();
+        Hexagon hexagonToPlace;
+        if (this.forkJoinPool == null) {
+            hexagonToPlace = searchPathSequentially(cells, markedHexagons, eastDistances);
+        } else {
+            hexagonToPlace = this.forkJoinPool.invoke(new PathSearchTask(cells, eastDistances, markedHexagons, 0,
+                markedHexagons.size()));
+        }
+        if (getCancellationToken().isCancelled()) {
+            //The search was cut short, so its result is not the result of the whole search.
+            return null;
         }
-        markPlacedHexagons(markedHexagons);
         if (hexagonToPlace == null) {
             //If no path is found the first free hexagon will be returned.
             return getFirstFreeHexagon();
         }
-        return hexagonToPlace;
+        return this.currentGame.getGameBoard().getHexagon(hexagonToPlace.getxCoordinate(),
+            hexagonToPlace.getyCoordinate());
+
+    }
+
+    private Hexagon searchPathSequentially(final byte[] cells, final List<Hexagon> markedHexagons,
+                                           final EdgeDistanceField eastDistances) {
+        GameBoard searchBoard = GameBoard.fromCells(getBoardSize(), cells);
+        for (int i = 0; i < markedHexagons.size() && !getCancellationToken().isCancelled(); i++) {
+            //Sets the last HeroAI placed Hexagon to empty and searchs a path to the east side.
+            removeHexagon(searchBoard, eastDistances, markedHexagons.get(i));
+            Hexagon toReturn = evaluatePathCandidate(searchBoard, eastDistances, markedHexagons, i);
+            if (toReturn != null) {
+                //If a path is found the hexagon with the given conditions will be returned.
+                return toReturn;
+            }
+        }
+        return null;
+    }
 
+    /**
+     * Searches the hexagon to place for one candidate of the path search.
+     * @param searchBoard the copy of the game board on which the candidate and all the hexagons before it are empty.
+     * @param eastDistances the distances of the search board to the east side over the empty cells.
+     * @param markedHexagons the hexagons placed by HeroAI, in descending order.
+     * @param candidateIndex the index of the candidate hexagon.
+     * @return the hexagon to place, or null if the candidate leads to no hexagon.
+     */
+    private Hexagon evaluatePathCandidate(final GameBoard searchBoard, final EdgeDistanceField eastDistances,
+                                          final List<Hexagon> markedHexagons, final int candidateIndex) {
+        Hexagon hexagon = markedHexagons.get(candidateIndex);
+        Hexagon toReturn = selectHexagonFromPath(searchBoard, eastDistances, hexagon, markedHexagons);
+        if (toReturn != null && !toReturn.equals(hexagon) && !isHexagonAlreadyPlaced(markedHexagons, toReturn)) {
+            return toReturn;
+        }
+        return null;
     }
 
+    /**
+     * Removes a hexagon of HeroAI from a search board and repairs the distances of the board.
+     * @param searchBoard the copy of the game board.
+     * @param eastDistances the distances of the search board to the east side over the empty cells.
+     * @param hexagon the hexagon to remove.
+     */
+    private void removeHexagon(final GameBoard searchBoard, final EdgeDistanceField eastDistances,
+                               final Hexagon hexagon) {
+        searchBoard.setToken(hexagon, GameTokens.EMPTY);
+        eastDistances.setCellToken(getCell(searchBoard, hexagon), GameTokens.EMPTY);
+    }
 
-    private void markPlacedHexagons(final List<Hexagon> placedHexagons) {
-        /*All the hexagons that were placed by HeroAI but in the recursive search for a path wew marked with the
-        empty game token , will be marked back to the HeroAI game token.
+    /**
+     * A task evaluating a range of the path search candidates in parallel.
+     * The candidate with the index k is evaluated on its own clone of the cells and of the distances without the
+     * hexagons 0 to k, which is the board the sequential search sees for that candidate. The result of the lowest
+     * successful candidate is returned, so the result matches the sequential search.
+     */
+    private final class PathSearchTask extends RecursiveTask<Hexagon> {
+        private static final long serialVersionUID = 1L;
+        /**
+         * The cells of the game board, they are shared by all tasks and only read.
          */
-        for (Hexagon hexagon : placedHexagons) {
-            currentGame.getGameBoard().setToken(hexagon, currentGame.getPlayerToken(this));
+        private final byte[] cells;
+        /**
+         * The distances of the game board to the east side, they are shared by all tasks and only copied.
+         */
+        private final transient EdgeDistanceField eastDistances;
+        private final transient List<Hexagon> markedHexagons;
+        private final int fromIndex;
+        private final int toIndex;
+
+        PathSearchTask(final byte[] cells, final EdgeDistanceField eastDistances, final List<Hexagon> markedHexagons,
+                       final int fromIndex, final int toIndex) {
+            this.cells = cells;
+            this.eastDistances = eastDistances;
+            this.markedHexagons = markedHexagons;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
         }
 
+        @Override
+        protected Hexagon compute() {
+            if (this.toIndex - this.fromIndex == 0 || getCancellationToken().isCancelled()) {
+                return null;
+            }
+            if (this.toIndex - this.fromIndex == 1) {
+                GameBoard searchBoard = GameBoard.fromCells(getBoardSize(), this.cells.clone());
+                EdgeDistanceField searchDistances = new EdgeDistanceField(this.eastDistances);
+                for (int i = 0; i <= this.fromIndex; i++) {
+                    removeHexagon(searchBoard, searchDistances, this.markedHexagons.get(i));
+                }
+                return evaluatePathCandidate(searchBoard, searchDistances, this.markedHexagons, this.fromIndex);
+            }
+            int middleIndex = (this.fromIndex + this.toIndex) >>> 1;
+            PathSearchTask higherCandidates = new PathSearchTask(this.cells, this.eastDistances, this.markedHexagons,
+                middleIndex, this.toIndex);
+            higherCandidates.fork();
+            Hexagon lowerResult = new PathSearchTask(this.cells, this.eastDistances, this.markedHexagons,
+                this.fromIndex, middleIndex).compute();
+            if (lowerResult != null) {
+                //A lower candidate always wins, so the higher candidates are not needed anymore.
+                higherCandidates.cancel(false);
+                return lowerResult;
+            }
+            return higherCandidates.join();
+        }
+    }
+
+    /**
+     * Holds the pool of the players created with the {@value #PARALLELISM_PROPERTY} system property, it is only
+     * created once such a player exists.
+     */
+    private static final class SharedPool {
+        private static final ForkJoinPool POOL = new ForkJoinPool(Integer.getInteger(PARALLELISM_PROPERTY));
     }
 
 
-    private Hexagon selectHexagonFromPath(final Hexagon hexagon, final List<Hexagon> unplacedHexagons) {
-        List<Hexagon> hexagonsToPlace = generatePath(hexagon, unplacedHexagons);
+    private Hexagon selectHexagonFromPath(final GameBoard gameBoard, final EdgeDistanceField eastDistances,
+                                          final Hexagon hexagon, final List<Hexagon> unplacedHexagons) {
+        List<Hexagon> hexagonsToPlace = generatePath(gameBoard, hexagon, unplacedHexagons, eastDistances);
         if (unplacedHexagons != null) {
             return getHexagonToPlace(hexagonsToPlace, unplacedHexagons);
         }
@@ -286,66 +383,71 @@ public class HeroAI extends Player {
 
     }
 
-    private List<Hexagon> generatePath(final Hexagon hexagonToCheck, final List<Hexagon> placedNodes) {
-        if (hexagonToCheck.getxCoordinate() == currentGame.getGameBoard().getBoardSize() - 1) {
+    private List<Hexagon> generatePath(final GameBoard gameBoard, final Hexagon hexagonToCheck,
+                                       final List<Hexagon> placedNodes, final EdgeDistanceField eastDistances) {
+        if (hexagonToCheck.getxCoordinate() == gameBoard.getBoardSize() - 1) {
             return new LinkedList<>();
         }
-        return connectToEastSide(hexagonToCheck, placedNodes);
+        return connectToEastSide(gameBoard, hexagonToCheck, placedNodes, eastDistances);
 
     }
 
 
-    private List<Hexagon> connectToEastSide(final Hexagon hexagonToCheck, final List<Hexagon> placedNodes) {
-        int pathSize = 0;
+    /**
+     * Collects the hexagons of the shortest paths from the empty neighbours of a hexagon to the east side.
+     * @param gameBoard the game board to search the paths on.
+     * @param hexagonToCheck the hexagon whose neighbours start the paths.
+     * @param placedNodes the hexagons placed by HeroAI, whose whole paths are collected.
+     * @param eastDistances the distances of the game board to the east side over the empty cells, a distance is the
+     *      number of hexagons on the path.
+     * @return the hexagons of the shortest paths.
+     */
+    private List<Hexagon> connectToEastSide(final GameBoard gameBoard, final Hexagon hexagonToCheck,
+                                            final List<Hexagon> placedNodes, final EdgeDistanceField eastDistances) {
+        List<Hexagon> emptyNeighbours = getEmptyNeighbours(gameBoard, hexagonToCheck);
+        int pathSize = Integer.MAX_VALUE;
+        for (Hexagon hexagonNeighbour : emptyNeighbours) {
+            int distance = eastDistances.getDistance(getCell(gameBoard, hexagonNeighbour));
+            if (distance != EdgeDistanceField.NO_DISTANCE) {
+                pathSize = Math.min(pathSize, distance);
+            }
+        }
         List<Hexagon> hexagonsToPlace = new LinkedList<>();
         boolean isFirstPath = true;
-        for (Hexagon hexagonNeighbour : getEmptyNeighbours(hexagonToCheck)) {
-            for (Hexagon eastHexagon : getEastSideHexagons()) {
-                boolean containsPath = false;
-                List<Hexagon> posiblePath = getPathToEastSide(hexagonNeighbour, eastHexagon);
-                if (isFirstPath && !posiblePath.isEmpty()) {
-                    pathSize = posiblePath.size();
-                    isFirstPath = false;
+        for (Hexagon hexagonNeighbour : emptyNeighbours) {
+            int distance = eastDistances.getDistance(getCell(gameBoard, hexagonNeighbour));
+            if (distance == EdgeDistanceField.NO_DISTANCE) {
+                continue;
+            }
+            if (!isHexagonAlreadyPlaced(placedNodes, hexagonNeighbour)) {
+                if (distance == pathSize) {
                     hexagonsToPlace.add(hexagonNeighbour);
-                } else if (pathSize > posiblePath.size()
-                    && !posiblePath.isEmpty()) {
-                    hexagonsToPlace.clear();
-                    containsPath = true;
-                    pathSize = posiblePath.size();
-                } else if (pathSize == posiblePath.size()
-                    && !posiblePath.isEmpty()) {
-                    containsPath = true;
                 }
-                if (containsPath) {
-                    if (isHexagonAlreadyPlaced(placedNodes, hexagonNeighbour)) {
-                        hexagonsToPlace.addAll(posiblePath);
-                    } else {
-                        hexagonsToPlace.add(hexagonNeighbour);
-                    }
+                isFirstPath = false;
+                continue;
+            }
+            //The whole shortest path of a placed neighbour is a candidate, except for the very first path found,
+            //which only adds the neighbour itself.
+            if (distance == pathSize) {
+                if (isFirstPath) {
+                    hexagonsToPlace.add(hexagonNeighbour);
+                } else {
+                    hexagonsToPlace.addAll(getPathToEastSide(gameBoard, hexagonNeighbour, eastDistances));
                 }
             }
-
+            isFirstPath = false;
         }
         return hexagonsToPlace;
 
     }
 
-    private List<Hexagon> getEastSideHexagons() {
-        List<Hexagon> eastSideHexagons = new LinkedList<>();
-        for (int i = 0; i < this.currentGame.getGameBoard().getBoardSize(); i++) {
-            Hexagon wallHexagon = this.currentGame.getGameBoard().getHexagon(
-                this.currentGame.getGameBoard().getBoardSize() - 1, i);
-            if (wallHexagon.getContent() == GameTokens.EMPTY) {
-                eastSideHexagons.add(wallHexagon);
-            }
-        }
-        return eastSideHexagons;
-
+    private int getCell(final GameBoard gameBoard, final Hexagon hexagon) {
+        return gameBoard.getTopology().getCell(hexagon.getxCoordinate(), hexagon.getyCoordinate());
     }
 
-    private List<Hexagon> getEmptyNeighbours(final Hexagon hexagon) {
+    private List<Hexagon> getEmptyNeighbours(final GameBoard gameBoard, final Hexagon hexagon) {
         List<Hexagon> emptyHexagons = new LinkedList<>();
-        for (Hexagon neighbour : this.currentGame.getGameBoard().getHexagonNeighbours(hexagon)) {
+        for (Hexagon neighbour : gameBoard.getHexagonNeighbours(hexagon)) {
             if (neighbour.getContent() == GameTokens.EMPTY) {
                 emptyHexagons.add(neighbour);
             }
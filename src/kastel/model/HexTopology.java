@@ -0,0 +1,185 @@
+package kastel.model;
+
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+/**
+ * A class representing the neighbourhood of the cells of a game board with a given size.
+ * The cells are adressed by their index {@code y * boardSize + x}. Every cell has up to six neighbours which are
+ * stored in fixed slots, a slot without neighbour holds {@link #NO_NEIGHBOUR}. The slots keep the order in which
+ * the neighbours of a hexagon have always been visited: the even and the odd rows use a different order.
+ * The topology of a board size is shared by all boards of that size. The shared topologies are only softly
+ * referenced, so the table of a size no board uses anymore can be reclaimed and is built again when it is needed.
+ * For board sizes whose table would be too big, the neighbours are computed from the coordinates instead.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class HexTopology {
+
+    /**
+     * The number of neighbour slots of a cell.
+     */
+    public static final int NEIGHBOUR_SLOTS = 6;
+    /**
+     * The value of a neighbour slot without neighbour.
+     */
+    public static final int NO_NEIGHBOUR = -1;
+
+    private static final int MAXIMAL_TABLE_CELLS = 1 << 20;
+    private static final int DIVISION_BY_MODULO = 2;
+    private static final int EVEN_COORDINATE = 0;
+    private static final int[] EVEN_ROW_X_OFFSETS = {0, 1, 1, 0, -1, -1};
+    private static final int[] EVEN_ROW_Y_OFFSETS = {-1, -1, 0, 1, 0, 1};
+    private static final int[] ODD_ROW_X_OFFSETS = {0, 1, 0, -1, 1, -1};
+    private static final int[] ODD_ROW_Y_OFFSETS = {-1, 0, 1, 1, -1, 0};
+    private static final Map<Integer, SoftReference<HexTopology>> TOPOLOGIES = new ConcurrentHashMap<>();
+
+    private final int boardSize;
+    private final int cellsCount;
+    /**
+     * Stores the neighbour slots of all cells one after another, or null if the neighbours are computed.
+     */
+    private final int[] neighbours;
+
+    private HexTopology(final int boardSize) {
+        this.boardSize = boardSize;
+        this.cellsCount = boardSize * boardSize;
+        if (this.cellsCount > MAXIMAL_TABLE_CELLS) {
+            this.neighbours = null;
+            return;
+        }
+        this.neighbours = new int[this.cellsCount * NEIGHBOUR_SLOTS];
+        for (int cell = 0; cell < this.cellsCount; cell++) {
+            for (int slot = 0; slot < NEIGHBOUR_SLOTS; slot++) {
+                this.neighbours[cell * NEIGHBOUR_SLOTS + slot] = computeNeighbour(cell, slot);
+            }
+        }
+    }
+
+    /**
+     * Gets the topology of the boards with the given size.
+     * @param boardSize the size of the boards.
+     * @return the shared topology of the board size.
+     */
+    public static HexTopology forBoardSize(final int boardSize) {
+        SoftReference<HexTopology> reference = TOPOLOGIES.get(boardSize);
+        HexTopology topology = reference == null ? null : reference.get();
+        if (topology != null) {
+            return topology;
+        }
+        //The created topology is held strongly until it is returned, so it can not be cleared in between.
+        HexTopology[] created = new HexTopology[1];
+        TOPOLOGIES.compute(boardSize, (size, current) -> {
+            HexTopology existing = current == null ? null : current.get();
+            if (existing != null) {
+                created[0] = existing;
+                return current;
+            }
+            created[0] = new HexTopology(size);
+            return new SoftReference<>(created[0]);
+        });
+        removeClearedTopologies();
+        return created[0];
+    }
+
+    private static void removeClearedTopologies() {
+        Iterator<SoftReference<HexTopology>> iterator = TOPOLOGIES.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().get() == null) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets the neighbour of a cell in the given slot.
+     * @param cell the index of the cell.
+     * @param slot the slot of the neighbour, between 0 and {@link #NEIGHBOUR_SLOTS} (exclusive).
+     * @return the index of the neighbour, or {@link #NO_NEIGHBOUR} if the slot is outside of the board.
+     */
+    public int getNeighbour(final int cell, final int slot) {
+        if (this.neighbours == null) {
+            return computeNeighbour(cell, slot);
+        }
+        return this.neighbours[cell * NEIGHBOUR_SLOTS + slot];
+    }
+
+    /**
+     * Performs the given action for every neighbour of a cell, in the order of the neighbour slots.
+     * @param cell the index of the cell.
+     * @param action the action to perform with the index of each neighbour.
+     */
+    public void forEachNeighbour(final int cell, final IntConsumer action) {
+        for (int slot = 0; slot < NEIGHBOUR_SLOTS; slot++) {
+            int neighbour = getNeighbour(cell, slot);
+            if (neighbour != NO_NEIGHBOUR) {
+                action.accept(neighbour);
+            }
+        }
+    }
+
+    /**
+     * Gets the index of the cell with the given coordinates.
+     * @param xCoordinate the x coordinate of the cell.
+     * @param yCoordinate the y coordinate of the cell.
+     * @return the index of the cell.
+     */
+    public int getCell(final int xCoordinate, final int yCoordinate) {
+        return yCoordinate * this.boardSize + xCoordinate;
+    }
+
+    /**
+     * Gets the x coordinate of a cell.
+     * @param cell the index of the cell.
+     * @return the x coordinate of the cell.
+     */
+    public int getxCoordinate(final int cell) {
+        return cell % this.boardSize;
+    }
+
+    /**
+     * Gets the y coordinate of a cell.
+     * @param cell the index of the cell.
+     * @return the y coordinate of the cell.
+     */
+    public int getyCoordinate(final int cell) {
+        return cell / this.boardSize;
+    }
+
+    /**
+     * Gets the size of the boards of this topology.
+     * @return the size of the boards.
+     */
+    public int getBoardSize() {
+        return this.boardSize;
+    }
+
+    /**
+     * Gets the number of cells of the boards of this topology.
+     * @return the number of cells.
+     */
+    public int getCellsCount() {
+        return this.cellsCount;
+    }
+
+    private int computeNeighbour(final int cell, final int slot) {
+        int xCoordinate = getxCoordinate(cell);
+        int yCoordinate = getyCoordinate(cell);
+        int neighbourX;
+        int neighbourY;
+        if (yCoordinate % DIVISION_BY_MODULO == EVEN_COORDINATE) {
+            neighbourX = xCoordinate + EVEN_ROW_X_OFFSETS[slot];
+            neighbourY = yCoordinate + EVEN_ROW_Y_OFFSETS[slot];
+        } else {
+            neighbourX = xCoordinate + ODD_ROW_X_OFFSETS[slot];
+            neighbourY = yCoordinate + ODD_ROW_Y_OFFSETS[slot];
+        }
+        if (neighbourX < 0 || neighbourX >= this.boardSize || neighbourY < 0 || neighbourY >= this.boardSize) {
+            return NO_NEIGHBOUR;
+        }
+        return getCell(neighbourX, neighbourY);
+    }
+}
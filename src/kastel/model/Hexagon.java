@@ -1,15 +1,17 @@
 package kastel.model;
 
-import java.util.Objects;
-
 /**
  * A class representing a Hexagon in the game board.
+ * The Hexagons of a game board are lightweight views on the board cells, their content is read from and written to
+ * the game board. Hexagons that were not retrieved from a game board store their content themselves.
  * @author ucxug
  * @version 1.0
  */
 
 public class Hexagon {
 
+    private static final int HASH_MULTIPLIER = 31;
+
     /**
      * The x coordinate of the Hexagon on the game board.
      */
@@ -19,7 +21,11 @@ public class Hexagon {
      */
     private final int yCoordinate;
     /**
-     * The GameToken present on the Hexagon.
+     * The game board the Hexagon belongs to, or null if the Hexagon is not part of a game board.
+     */
+    private final GameBoard gameBoard;
+    /**
+     * The GameToken present on the Hexagon, only used if the Hexagon is not part of a game board.
      */
     private GameTokens content;
 
@@ -31,17 +37,32 @@ public class Hexagon {
     public Hexagon(final int xCoordinate, final int yCoordinate) {
         this.xCoordinate = xCoordinate;
         this.yCoordinate = yCoordinate;
+        this.gameBoard = null;
         this.content = GameTokens.EMPTY;
     }
 
+    /**
+     * Constructs a Hexagon that views the cell with the specified coordinates of a game board.
+     * @param xCoordinate the x coordinate of the Hexagon.
+     * @param yCoordinate the y coordinate of the Hexagon.
+     * @param gameBoard the game board that stores the content of the Hexagon.
+     */
+    Hexagon(final int xCoordinate, final int yCoordinate, final GameBoard gameBoard) {
+        this.xCoordinate = xCoordinate;
+        this.yCoordinate = yCoordinate;
+        this.gameBoard = gameBoard;
+    }
+
     /**
      * Constructs a copy of this Hexagon.
+     * The copy is not part of a game board.
      * @param currentHexagon the Hexagon to be copied.
      */
     private Hexagon(final Hexagon currentHexagon) {
         this.xCoordinate = currentHexagon.xCoordinate;
         this.yCoordinate = currentHexagon.yCoordinate;
-        this.content = currentHexagon.content;
+        this.gameBoard = null;
+        this.content = currentHexagon.getContent();
     }
 
     /**
@@ -49,7 +70,11 @@ public class Hexagon {
      * @param newContent the new content to set for the Hexagon.
      */
     public void setContent(final GameTokens newContent) {
-        this.content = newContent;
+        if (this.gameBoard != null) {
+            this.gameBoard.setToken(this, newContent);
+        } else {
+            this.content = newContent;
+        }
     }
 
     /**
@@ -57,6 +82,9 @@ public class Hexagon {
      * @return the content of the Hexagon.
      */
     public GameTokens getContent() {
+        if (this.gameBoard != null) {
+            return this.gameBoard.getToken(this.xCoordinate, this.yCoordinate);
+        }
         return this.content;
     }
 
@@ -86,12 +114,12 @@ public class Hexagon {
 
 
     /**
-     * Computes the hash code for the Hexagon based on its coordinates and content.
+     * Computes the hash code for the Hexagon based on its coordinates, without boxing them.
      * @return the computed hash code.
      */
     @Override
     public int hashCode() {
-        return Objects.hash(this.xCoordinate, this.yCoordinate);
+        return HASH_MULTIPLIER * this.xCoordinate + this.yCoordinate;
     }
 
 
@@ -1,10 +1,20 @@
 package kastel.model;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A class representing the Hexagon Prime game.
+ * The games are kept in a concurrent hash index by their names and in a concurrent queue in the order they were
+ * added, so a game is found in constant time and the games can be listed without copying, while several command
+ * sources use the registry at the same time. The current game and the current player belong to the whole session, so
+ * every change of them and every move is made under the session lock, and a move is checked under the same lock it is
+ * made under, see {@link #tryPlace(int, int)}.
  * @author ucxug
  * @version 1.0
  */
@@ -12,9 +22,13 @@ import java.util.List;
 public class HexagonPrime {
 
     /**
-     * Stores a list of Hexagon game instances.
+     * Stores all the Hexagon game instances in the order they were added.
      */
-    private final List<Game> hexagonGames;
+    private final Queue<Game> hexagonGames;
+    /**
+     * Maps the game names to the first game added with that name.
+     */
+    private final Map<String, Game> gamesByName;
     /**
      * Specifies the board size used in the game instances.
      */
@@ -22,7 +36,7 @@ public class HexagonPrime {
     /**
      * Represents the current player taking their turn.
      */
-    private Player currentPlayer;
+    private volatile Player currentPlayer;
     /**
      * Represents the first player participating in the game.
      */
@@ -34,7 +48,11 @@ public class HexagonPrime {
     /**
      * Represents the current game being played.
      */
-    private Game currentGame;
+    private volatile Game currentGame;
+    /**
+     * Guards the changes of the current game and the current player.
+     */
+    private final ReentrantLock sessionLock;
 
 
     /**
@@ -47,13 +65,15 @@ public class HexagonPrime {
         this.currentGame = new Game("Prime", playerOne, playerTwo, new GameBoard(boardSize));
         //Sets the principal game name to Prime.
         this.boardSize = boardSize;
-        this.hexagonGames = new LinkedList<>();
+        this.hexagonGames = new ConcurrentLinkedQueue<>();
+        this.gamesByName = new ConcurrentHashMap<>();
         this.playerOne = playerOne;
         this.playerTwo = playerTwo;
         this.playerOne.setEnemyPlayer(this.playerTwo);
         this.playerTwo.setEnemyPlayer(this.playerOne);
         this.currentPlayer = this.playerOne;
-        this.hexagonGames.add(this.currentGame);
+        this.sessionLock = new ReentrantLock();
+        register(this.currentGame);
 
     }
 
@@ -62,7 +82,12 @@ public class HexagonPrime {
      * @param game the new current game.
      */
     public void changeGame(final Game game) {
-        this.currentGame = game;
+        this.sessionLock.lock();
+        try {
+            this.currentGame = game;
+        } finally {
+            this.sessionLock.unlock();
+        }
     }
 
     /**
@@ -71,41 +96,61 @@ public class HexagonPrime {
      * @return the game with the specified name, or null if the game name is not found.
      */
     public Game getGame(final String name) {
-        for (Game game : this.hexagonGames) {
-            if (game.getGameName().equals(name)) {
-                //If the game name matches the given name it will be returned.
-                return game;
-            }
-        }
-        return null;
+        return this.gamesByName.get(name);
     }
 
     /**
-     * Retrieves a list of all games.
-     * @return A list of all games.
+     * Retrieves all games in the order they were added.
+     * @return an unmodifiable view of all games, it also shows the games added later.
      */
-    public List<Game> getGames() {
-        return new LinkedList<>(this.hexagonGames);
+    public Collection<Game> getGames() {
+        return Collections.unmodifiableCollection(this.hexagonGames);
     }
 
     /**
-     * Add a new game with the given name.
+     * Add a new game with the given name, unless a game with that name exists already. Checking the name and adding
+     * the game is one atomic step, so two command sources can not add the same name.
      * @param gameName the name of the new game.
+     * @return true if the game was added, false if the name is already taken.
      */
-    public void addNewGame(final String gameName) {
+    public boolean addNewGame(final String gameName) {
+        this.sessionLock.lock();
+        try {
+            return addNewGameLocked(gameName);
+        } finally {
+            this.sessionLock.unlock();
+        }
+    }
+
+    private boolean addNewGameLocked(final String gameName) {
+        Game newGame;
         if (this.currentGame.isGameOver(true)) {
             //Adds a new game setting the winning player as the second player.
-            Game newGame = new Game(gameName, this.currentPlayer, this.currentPlayer.getEnemyPlayer(),
+            newGame = new Game(gameName, this.currentPlayer, this.currentPlayer.getEnemyPlayer(),
                 new GameBoard(this.boardSize));
-            this.currentGame = newGame;
+            if (!register(newGame)) {
+                return false;
+            }
+            //Adds a second game with the same name, the name keeps pointing to the first one.
+            newGame = new Game(gameName, this.playerOne, this.playerTwo, new GameBoard(this.boardSize));
             this.hexagonGames.add(newGame);
+        } else {
+            //Adds a new game and sets it as the current game.
+            newGame = new Game(gameName, this.playerOne, this.playerTwo, new GameBoard(this.boardSize));
+            if (!register(newGame)) {
+                return false;
+            }
         }
-        //Adds a new game and sets it as the current game.
-        Game newGame = new Game(gameName, this.playerOne, this.playerTwo,
-            new GameBoard(this.boardSize));
         this.currentGame = newGame;
-        this.hexagonGames.add(newGame);
+        return true;
+    }
 
+    private boolean register(final Game game) {
+        if (this.gamesByName.putIfAbsent(game.getGameName(), game) != null) {
+            return false;
+        }
+        this.hexagonGames.add(game);
+        return true;
     }
 
     /**
@@ -129,22 +174,77 @@ public class HexagonPrime {
      * @param hexagon the hexagon wheret the token will be seted.
      */
     public void setGameToken(final Hexagon hexagon) {
-        this.currentGame.getGameBoard().setToken(hexagon,
-            this.currentGame.getPlayerToken(currentGame.getCurrentPlayer()));
-        //The hexagon will also be seted in the copy of the game board.
-        this.currentGame.getWinningBoard().setToken(hexagon.getCopy(),
-            this.currentGame.getPlayerToken(currentGame.getCurrentPlayer()));
-        this.currentGame.addMovement(hexagon);
-        this.currentGame.addTurn();
-        changeCurrentPlayer();
+        this.sessionLock.lock();
+        try {
+            placeToken(this.currentGame, hexagon);
+        } finally {
+            this.sessionLock.unlock();
+        }
+    }
+
+    /**
+     * Places the token of the current player on a cell of the current game, if the game is not over and the cell is
+     * empty. The checks and the move are one atomic step, so two command sources can not both place a token on the
+     * same cell or after the game has ended.
+     * @param xCoordinate the x coordinate of the cell.
+     * @param yCoordinate the y coordinate of the cell.
+     * @return the outcome of the attempt.
+     */
+    public PlacementStatus tryPlace(final int xCoordinate, final int yCoordinate) {
+        this.sessionLock.lock();
+        try {
+            Game game = this.currentGame;
+            if (game.isGameOver(true)) {
+                //No token can be placed if the current game is over.
+                return PlacementStatus.GAME_OVER;
+            }
+            int gameBoardSize = game.getGameBoard().getBoardSize();
+            if (xCoordinate < 0 || xCoordinate >= gameBoardSize || yCoordinate < 0 || yCoordinate >= gameBoardSize) {
+                return PlacementStatus.INVALID_COORDINATES;
+            }
+            Hexagon hexagon = game.getGameBoard().getHexagon(xCoordinate, yCoordinate);
+            //The hexagon must hold the empty token, so that the game token can be placed on it.
+            if (hexagon.getContent() != GameTokens.EMPTY) {
+                return PlacementStatus.CELL_OCCUPIED;
+            }
+            placeToken(game, hexagon);
+            return game.isGameOver(true) ? PlacementStatus.WON : PlacementStatus.PLACED;
+        } finally {
+            this.sessionLock.unlock();
+        }
     }
 
     /**
      * Changes the current player to the enemy player.
      */
     public void changeCurrentPlayer() {
+        this.sessionLock.lock();
+        try {
+            changeCurrentPlayer(this.currentGame);
+        } finally {
+            this.sessionLock.unlock();
+        }
+    }
+
+    /**
+     * Makes a move in a game, the caller holds the session lock.
+     * @param game the current game.
+     * @param hexagon the hexagon the token of the current player is placed on.
+     */
+    private void placeToken(final Game game, final Hexagon hexagon) {
+        game.getGameBoard().setToken(hexagon, game.getPlayerToken(game.getCurrentPlayer()));
+        game.addMovement(hexagon);
+        game.addTurn();
+        changeCurrentPlayer(game);
+    }
+
+    /**
+     * Changes the current player, the caller holds the session lock.
+     * @param game the current game.
+     */
+    private void changeCurrentPlayer(final Game game) {
         this.currentPlayer = this.currentPlayer.getEnemyPlayer();
         //The current player will be set as the enemy player of the last current player.
-        this.currentGame.setCurrentPlayer(this.currentGame.getCurrentPlayer());
+        game.setCurrentPlayer(game.getCurrentPlayer());
     }
 }
@@ -0,0 +1,127 @@
+package kastel.model;
+
+import kastel.model.searchalgorithms.MonteCarloTreeSearch;
+
+/**
+ * This class represents the AI Player MctsAI that extends the class Player.
+ * The player takes winning and blocking moves directly, all the other moves are chosen by a Monte Carlo tree search
+ * running on several worker threads. The moves ruled out by the virtual connections of the game are not searched.
+ * The opening moves and the swap decision are taken from the shared {@link OpeningBook} if it holds the position.
+ * @author ucxug
+ * @version 1.0
+ */
+public class MctsAI extends Player {
+
+    /**
+     * The name of the system property with the number of worker threads of the search.
+     */
+    public static final String WORKERS_PROPERTY = "kastel.mcts.workers";
+    /**
+     * The name of the system property with the time budget of a search in milliseconds.
+     */
+    public static final String TIME_BUDGET_PROPERTY = "kastel.mcts.timeMillis";
+    /**
+     * The name of the system property with the playout budget of a search.
+     */
+    public static final String PLAYOUT_BUDGET_PROPERTY = "kastel.mcts.playouts";
+    /**
+     * The default time budget of a search in milliseconds.
+     */
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 1000;
+
+    /**
+     * The current game that is being played.
+     */
+    private Game currentGame;
+    private final MonteCarloTreeSearch search;
+    /**
+     * The table caching the winning moves of the searched positions.
+     */
+    private final TranspositionTable transpositionTable;
+    /**
+     * The book holding the moves of the opening positions.
+     */
+    private final OpeningBook openingBook;
+
+    /**
+     * Constructs a new MctsAI player configured by the system properties, by default it uses one worker per available
+     * processor and a time budget of {@value #DEFAULT_TIME_BUDGET_MILLIS} milliseconds.
+     */
+    public MctsAI() {
+        this(Integer.getInteger(WORKERS_PROPERTY, Runtime.getRuntime().availableProcessors()),
+            Long.getLong(TIME_BUDGET_PROPERTY, DEFAULT_TIME_BUDGET_MILLIS), Long.getLong(PLAYOUT_BUDGET_PROPERTY, 0));
+    }
+
+    /**
+     * Constructs a new MctsAI player.
+     * @param workersCount the number of worker threads of the search.
+     * @param timeBudgetMillis the time a search may take in milliseconds, 0 or less for no time limit.
+     * @param playoutBudget the number of playouts of a search, 0 or less for no playout limit.
+     */
+    public MctsAI(final int workersCount, final long timeBudgetMillis, final long playoutBudget) {
+        super(AIPlayers.MctsAI.getPlayerName());
+        this.search = new MonteCarloTreeSearch(workersCount, timeBudgetMillis, playoutBudget);
+        this.transpositionTable = TranspositionTable.getShared();
+        this.openingBook = OpeningBook.getShared();
+    }
+
+    @Override
+    public Hexagon getWinningMove(final GameTokens currentToken) {
+        return getWinningHexagon(currentToken);
+    }
+
+    @Override
+    public Hexagon getBlockingMove(final GameTokens currentToken) {
+        //The rival would win on the blocking hexagon.
+        return getWinningHexagon(currentToken);
+    }
+
+    @Override
+    public void setCurrentGame(final Game game) {
+        this.currentGame = game;
+    }
+
+    @Override
+    public boolean isSwap() {
+        return this.openingBook.findMove(this.currentGame) == OpeningBook.SWAP_MOVE;
+    }
+
+    @Override
+    public Hexagon getFourthMove() {
+        int bookMove = this.openingBook.findMove(this.currentGame);
+        if (bookMove >= 0) {
+            return this.currentGame.getGameBoard().getHexagon(bookMove);
+        }
+        GameTokens token = this.currentGame.getPlayerToken(this);
+        int cell = this.search.search(this.currentGame.getGameBoard(), token,
+            SearchPosition.findCandidateCells(this.currentGame, token), getCancellationToken());
+        if (cell == MonteCarloTreeSearch.NO_CELL) {
+            return null;
+        }
+        return this.currentGame.getGameBoard().getHexagon(cell);
+    }
+
+    /**
+     * Gets the number of playouts per second of the last search.
+     * @return the playouts per second.
+     */
+    public double getPlayoutsPerSecond() {
+        return this.search.getLastPlayoutsPerSecond();
+    }
+
+    /**
+     * Gets the number of playouts of the last search.
+     * @return the number of playouts.
+     */
+    public long getPlayouts() {
+        return this.search.getLastPlayouts();
+    }
+
+    private Hexagon getWinningHexagon(final GameTokens token) {
+        int winningCell = SearchPosition.findCachedWinningCell(this.currentGame, token, this.transpositionTable);
+        if (winningCell == SearchPosition.NO_CELL) {
+            return null;
+        }
+        return this.currentGame.getGameBoard().getHexagon(winningCell);
+    }
+}
@@ -0,0 +1,67 @@
+package kastel.model;
+
+import java.util.Arrays;
+
+/**
+ * A class representing the history of the moves of a game.
+ * Every move is stored as the index of the cell the token was placed on, in a growable int array. The players of the
+ * moves are not stored since they alternate and can be derived from the position of the move.
+ * @author ucxug
+ * @version 1.0
+ */
+public class MoveJournal {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int GROWTH_FACTOR = 2;
+
+    /**
+     * Stores the cell index of every move in the order the moves were made.
+     */
+    private int[] cells;
+    private int size;
+
+    /**
+     * Constructs an empty move journal.
+     */
+    public MoveJournal() {
+        this.cells = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds a move at the end of the journal.
+     * @param cell the index of the cell of the move.
+     */
+    public void add(final int cell) {
+        if (this.size == this.cells.length) {
+            this.cells = Arrays.copyOf(this.cells, this.cells.length * GROWTH_FACTOR);
+        }
+        this.cells[this.size++] = cell;
+    }
+
+    /**
+     * Removes the last move of the journal.
+     * @return the index of the cell of the removed move.
+     */
+    public int removeLast() {
+        return this.cells[--this.size];
+    }
+
+    /**
+     * Gets the cell index of a move.
+     * @param index the position of the move in the journal, the first move has the position 0.
+     * @return the index of the cell of the move.
+     */
+    public int get(final int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return this.cells[index];
+    }
+
+    /**
+     * Gets the number of moves in the journal.
+     * @return the number of moves.
+     */
+    public int size() {
+        return this.size;
+    }
+}
@@ -14,6 +14,14 @@ public class MoveResult {
      * Indicates whether the movements is a GameToken swap.
      */
     private final boolean swap;
+    /**
+     * The time the artificial player took to choose the move, in nanoseconds.
+     */
+    private final long elapsedNanos;
+    /**
+     * Indicates whether the time budget ran out and the fallback move was taken.
+     */
+    private final boolean fallback;
 
     /**
      * Constructs a MoveResult with the specified Hexagon and swap indication.
@@ -21,8 +29,21 @@ public class MoveResult {
      * @param swap indicates if a swap is to be performed.
      */
     public MoveResult(final Hexagon hexagon, final boolean swap) {
+        this(hexagon, swap, 0, false);
+    }
+
+    /**
+     * Constructs a MoveResult with the specified Hexagon, swap indication and timing.
+     * @param hexagon the Hexagon representing the movement.
+     * @param swap indicates if a swap is to be performed.
+     * @param elapsedNanos the time taken to choose the move, in nanoseconds.
+     * @param fallback indicates if the fallback move was taken because the time budget ran out.
+     */
+    public MoveResult(final Hexagon hexagon, final boolean swap, final long elapsedNanos, final boolean fallback) {
         this.swap = swap;
         this.movement = hexagon;
+        this.elapsedNanos = elapsedNanos;
+        this.fallback = fallback;
     }
 
     /**
@@ -41,4 +62,20 @@ public class MoveResult {
         return this.swap;
     }
 
+    /**
+     * Gets the time the artificial player took to choose the move.
+     * @return the time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * Checks if the fallback move was taken because the time budget ran out.
+     * @return true if the move is the fallback move, false otherwise.
+     */
+    public boolean isFallback() {
+        return this.fallback;
+    }
+
 }
@@ -0,0 +1,134 @@
+package kastel.model;
+
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cell storage that keeps the cells outside of the heap.
+ * The cells are either stored in direct memory or in a file that is mapped into memory. A mapped board can be paged
+ * out by the operating system, the file consists of one byte per cell holding the ordinal of the cell token.
+ * The file of a board is deleted once the board is garbage collected, and the files of the boards that are still live
+ * are deleted when the virtual machine shuts down. So only a crash that skips the shutdown hooks leaves files behind:
+ * the images of the boards that were live at the time of the crash, and of the boards that were not collected yet.
+ * @author ucxug
+ * @version 1.0
+ */
+public class OffHeapCellStorage implements CellStorage {
+    private static final String BOARD_FILE_PREFIX = "board-";
+    private static final String BOARD_FILE_SUFFIX = ".cells";
+
+    /**
+     * Stores the value of each cell.
+     */
+    private final ByteBuffer cells;
+
+    /**
+     * Constructs a storage in direct memory with the given number of cells, all cells start with the value 0.
+     * @param cellsCount the number of cells.
+     */
+    public OffHeapCellStorage(final int cellsCount) {
+        this(ByteBuffer.allocateDirect(cellsCount));
+    }
+
+    private OffHeapCellStorage(final ByteBuffer cells) {
+        this.cells = cells;
+    }
+
+    /**
+     * Creates a storage that is mapped from a new file in the given directory, the file is deleted again once the
+     * storage is no longer reachable. If the file can not be created or mapped the cells are stored in direct memory
+     * instead.
+     * @param cellsCount the number of cells.
+     * @param directory the directory in which the file is created.
+     * @return the created storage.
+     */
+    public static OffHeapCellStorage mapFile(final int cellsCount, final String directory) {
+        Path boardFile = null;
+        try {
+            Path boardDirectory = Files.createDirectories(Path.of(directory));
+            boardFile = Files.createTempFile(boardDirectory, BOARD_FILE_PREFIX, BOARD_FILE_SUFFIX);
+            try (FileChannel channel = FileChannel.open(boardFile, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+                //The mapping stays valid after the channel is closed.
+                OffHeapCellStorage storage = new OffHeapCellStorage(channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    cellsCount));
+                BoardFiles.register(storage, boardFile);
+                return storage;
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            if (boardFile != null) {
+                BoardFiles.delete(boardFile);
+            }
+            return new OffHeapCellStorage(cellsCount);
+        }
+    }
+
+    @Override
+    public byte get(final int cell) {
+        return this.cells.get(cell);
+    }
+
+    @Override
+    public void set(final int cell, final byte value) {
+        this.cells.put(cell, value);
+    }
+
+    @Override
+    public int size() {
+        return this.cells.capacity();
+    }
+
+    /**
+     * Keeps track of the files of the live mapped boards. The class is only initialized once a board is mapped from a
+     * file, so the shutdown hook is only installed then.
+     */
+    private static final class BoardFiles {
+        private static final Cleaner CLEANER = Cleaner.create();
+        private static final Set<Path> LIVE_FILES = ConcurrentHashMap.newKeySet();
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(BoardFiles::deleteLiveFiles));
+        }
+
+        private BoardFiles() {
+            throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+        }
+
+        /**
+         * Deletes the file of a storage once the storage is no longer reachable.
+         * @param storage the storage mapped from the file.
+         * @param boardFile the file.
+         */
+        static void register(final OffHeapCellStorage storage, final Path boardFile) {
+            LIVE_FILES.add(boardFile);
+            //The action must not reference the storage, otherwise the storage would always be reachable.
+            CLEANER.register(storage, () -> delete(boardFile));
+        }
+
+        /**
+         * Deletes a board file, a file that can not be deleted is left behind.
+         * @param boardFile the file.
+         */
+        static void delete(final Path boardFile) {
+            LIVE_FILES.remove(boardFile);
+            try {
+                Files.deleteIfExists(boardFile);
+            } catch (IOException e) {
+                //The file stays in the board directory, like the files of a crashed process.
+            }
+        }
+
+        private static void deleteLiveFiles() {
+            for (Path boardFile : LIVE_FILES) {
+                delete(boardFile);
+            }
+        }
+    }
+}
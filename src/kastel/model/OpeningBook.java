@@ -0,0 +1,185 @@
+package kastel.model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A class representing an opening book: the best moves of the first positions of a game, computed offline.
+ * The book is a file holding a header and a table of entries sorted by key, every entry is the key of a position and
+ * the cell of its move, or {@link #SWAP_MOVE} if the tokens should be swapped. The file is mapped into memory and
+ * searched with a binary search, so the book costs no heap and is shared by all players. The key of a position is its
+ * Zobrist hash, which includes the key of the board size, see {@link #positionKey(Game)}.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class OpeningBook {
+
+    /**
+     * The name of the system property with the path of the shared book file.
+     */
+    public static final String PATH_PROPERTY = "kastel.openingBook";
+    /**
+     * The path of the shared book file if the system property is not set.
+     */
+    public static final String DEFAULT_PATH = "opening-book.bin";
+    /**
+     * The move of a position in which the tokens should be swapped.
+     */
+    public static final int SWAP_MOVE = -2;
+    /**
+     * The value returned when the book holds no move for a position.
+     */
+    public static final int NO_MOVE = -1;
+
+    private static final int MAGIC = 0x48584F42;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES * 3;
+    private static final int ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = Integer.BYTES;
+    private static final int COUNT_OFFSET = Integer.BYTES * 2;
+    private static final OpeningBook SHARED_BOOK = loadShared();
+
+    /**
+     * The mapped file, or null if the book is empty.
+     */
+    private final ByteBuffer entries;
+    private final int entriesCount;
+
+    private OpeningBook(final ByteBuffer entries, final int entriesCount) {
+        this.entries = entries;
+        this.entriesCount = entriesCount;
+    }
+
+    /**
+     * Gets the book shared by all players of the process. It is mapped from the file given by the
+     * {@value #PATH_PROPERTY} system property, the book is empty if the file does not exist or can not be read.
+     * @return the shared opening book.
+     */
+    public static OpeningBook getShared() {
+        return SHARED_BOOK;
+    }
+
+    /**
+     * Maps a book file into memory.
+     * @param path the path of the book file.
+     * @return the opening book.
+     * @throws IOException if the file can not be read or is not a book file.
+     */
+    public static OpeningBook open(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            //The mapping stays valid after the channel is closed.
+            ByteBuffer entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (entries.capacity() < HEADER_SIZE || entries.getInt(MAGIC_OFFSET) != MAGIC
+                || entries.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("%s is not an opening book file.".formatted(path));
+            }
+            int entriesCount = entries.getInt(COUNT_OFFSET);
+            if (entriesCount < 0 || (long) HEADER_SIZE + (long) entriesCount * ENTRY_SIZE != entries.capacity()) {
+                throw new IOException("the opening book file %s is damaged.".formatted(path));
+            }
+            return new OpeningBook(entries, entriesCount);
+        }
+    }
+
+    /**
+     * Writes a book file.
+     * @param path the path of the book file, an existing file is replaced.
+     * @param keys the keys of the positions, sorted in increasing order and without duplicates.
+     * @param moves the moves of the positions, in the order of the keys.
+     * @param entriesCount the number of entries in the arrays.
+     * @throws IOException if the file can not be written.
+     */
+    public static void write(final Path path, final long[] keys, final int[] moves, final int entriesCount)
+        throws IOException {
+        for (int i = 1; i < entriesCount; i++) {
+            if (keys[i - 1] >= keys[i]) {
+                throw new IllegalArgumentException("the keys must be sorted and unique.");
+            }
+        }
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(entriesCount);
+            for (int i = 0; i < entriesCount; i++) {
+                output.writeLong(keys[i]);
+                output.writeInt(moves[i]);
+            }
+        }
+    }
+
+    /**
+     * Gets the key of the current position of a game. It is the Zobrist hash of the game, the hash already starts with
+     * the key of the board size, so the keys of the books written before the key was part of the hash stay the same.
+     * @param game the game.
+     * @return the key of the position in the book.
+     */
+    public static long positionKey(final Game game) {
+        return game.positionHash();
+    }
+
+    /**
+     * Searches the move of the current position of a game. A move on a cell that is not empty can only belong to
+     * another position with the same key, so it is not returned.
+     * @param game the game.
+     * @return the index of the cell of the move, {@link #SWAP_MOVE}, or {@link #NO_MOVE} if the book holds no move.
+     */
+    public int findMove(final Game game) {
+        int move = findMove(positionKey(game));
+        if (move >= 0 && (move >= game.getGameBoard().getTopology().getCellsCount()
+            || game.getGameBoard().getCellToken(move) != GameTokens.EMPTY)) {
+            return NO_MOVE;
+        }
+        return move;
+    }
+
+    /**
+     * Searches the move of a position key.
+     * @param key the key of the position.
+     * @return the stored move, or {@link #NO_MOVE} if the book holds no entry for the key.
+     */
+    public int findMove(final long key) {
+        int low = 0;
+        int high = this.entriesCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int offset = HEADER_SIZE + middle * ENTRY_SIZE;
+            long middleKey = this.entries.getLong(offset);
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return this.entries.getInt(offset + Long.BYTES);
+            }
+        }
+        return NO_MOVE;
+    }
+
+    /**
+     * Gets the number of positions in the book.
+     * @return the number of entries.
+     */
+    public int getEntriesCount() {
+        return this.entriesCount;
+    }
+
+    private static OpeningBook loadShared() {
+        Path path = Path.of(System.getProperty(PATH_PROPERTY, DEFAULT_PATH));
+        if (!Files.isRegularFile(path)) {
+            return new OpeningBook(null, 0);
+        }
+        try {
+            return open(path);
+        } catch (IOException | UnsupportedOperationException e) {
+            //The players still work without a book, they only search their opening moves.
+            return new OpeningBook(null, 0);
+        }
+    }
+}
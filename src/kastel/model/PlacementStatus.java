@@ -0,0 +1,30 @@
+package kastel.model;
+
+/**
+ * An enumeration representing the outcome of an attempt to place a token, see
+ * {@link HexagonPrime#tryPlace(int, int)}.
+ * @author ucxug
+ * @version 1.0
+ */
+public enum PlacementStatus {
+    /**
+     * The token was placed and the game goes on.
+     */
+    PLACED,
+    /**
+     * The token was placed and won the game.
+     */
+    WON,
+    /**
+     * The token was not placed because the game is already over.
+     */
+    GAME_OVER,
+    /**
+     * The token was not placed because the coordinates are outside of the board.
+     */
+    INVALID_COORDINATES,
+    /**
+     * The token was not placed because the cell already holds a token.
+     */
+    CELL_OCCUPIED
+}
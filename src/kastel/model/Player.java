@@ -17,6 +17,10 @@ public class Player {
      */
     private  Player enemyPlayer;
     private Game currentGame;
+    /**
+     * The token the searches for the next move check, it is replaced before every move of an artificial player.
+     */
+    private CancellationToken cancellationToken = CancellationToken.withBudget(CancellationToken.NO_TIME_LIMIT);
 
     /**
      * Constructs a player with the specified name.
@@ -84,6 +88,22 @@ public class Player {
         this.currentGame = game;
     }
 
+    /**
+     * Sets the token that cancels the search for the next move of the player.
+     * @param cancellationToken the cancellation token.
+     */
+    public void setCancellationToken(final CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * Gets the token that cancels the search for the next move of the player.
+     * @return the cancellation token.
+     */
+    protected CancellationToken getCancellationToken() {
+        return this.cancellationToken;
+    }
+
     /**
      * Gets the fourth move Hexagon for the player.
      * @return the fourth move Hexagon for the player.
@@ -0,0 +1,263 @@
+package kastel.model;
+
+import java.util.BitSet;
+import kastel.model.searchalgorithms.PathDistances;
+import kastel.model.searchalgorithms.VirtualConnections;
+import kastel.model.searchalgorithms.WinningCells;
+
+/**
+ * A class representing a position of a game that the AI players can search in.
+ * The position works on its own copy of the game board, so moves can be played and undone without touching the
+ * real game. Undoing a move always removes the last played stone, which lets the connectivity structure of the board
+ * roll the move back instead of being rebuilt. The path distances of both tokens are repaired with every played and
+ * undone move.
+ * @author ucxug
+ * @version 1.0
+ */
+public class SearchPosition {
+
+    /**
+     * The value returned when no cell matches a search.
+     */
+    public static final int NO_CELL = WinningCells.NO_CELL;
+
+    private static final GameTokens[] STONE_TOKENS = {GameTokens.X_TOKEN, GameTokens.O_TOKEN};
+
+    /**
+     * The private copy of the game board.
+     */
+    private final GameBoard gameBoard;
+    private final HexTopology topology;
+    /**
+     * Stores the cells of the moves played on the position, in the order they were played.
+     */
+    private final MoveJournal playedCells;
+    private GameTokens sideToMove;
+    /**
+     * The part of the position hash that does not depend on the stones of the board.
+     */
+    private final long swapKey;
+    private final PathDistances xDistances;
+    private final PathDistances oDistances;
+
+    /**
+     * Constructs a search position from the current state of a game.
+     * @param game the game to copy the position from.
+     */
+    public SearchPosition(final Game game) {
+        this.gameBoard = game.getGameBoard().copy();
+        this.topology = this.gameBoard.getTopology();
+        this.playedCells = new MoveJournal();
+        this.sideToMove = game.getPlayerToken(game.getCurrentPlayer());
+        this.swapKey = game.positionHash() ^ this.gameBoard.positionHash();
+        this.xDistances = new PathDistances(this.gameBoard, GameTokens.X_TOKEN);
+        this.oDistances = new PathDistances(this.gameBoard, GameTokens.O_TOKEN);
+    }
+
+    /**
+     * Plays a move for the side to move.
+     * @param cell the index of the empty cell to play on.
+     */
+    public void play(final int cell) {
+        play(cell, this.sideToMove);
+    }
+
+    /**
+     * Plays a move with the given token, the side to move changes as for every other move.
+     * @param cell the index of the empty cell to play on.
+     * @param token the token to place on the cell.
+     */
+    public void play(final int cell, final GameTokens token) {
+        if (this.gameBoard.getCellToken(cell) != GameTokens.EMPTY) {
+            throw new IllegalArgumentException("the cell %d is not empty.".formatted(cell));
+        }
+        this.gameBoard.setCellToken(cell, token);
+        this.xDistances.setCellToken(cell, token);
+        this.oDistances.setCellToken(cell, token);
+        this.playedCells.add(cell);
+        this.sideToMove = this.sideToMove.getRivalToken();
+    }
+
+    /**
+     * Undoes the last move played on the position.
+     */
+    public void undo() {
+        if (this.playedCells.size() == 0) {
+            throw new IllegalStateException("there is no move to undo.");
+        }
+        int cell = this.playedCells.removeLast();
+        this.gameBoard.setCellToken(cell, GameTokens.EMPTY);
+        this.xDistances.setCellToken(cell, GameTokens.EMPTY);
+        this.oDistances.setCellToken(cell, GameTokens.EMPTY);
+        this.sideToMove = this.sideToMove.getRivalToken();
+    }
+
+    /**
+     * Checks whether the stones of the given token connect the two board sides of the token.
+     * @param token the token to check.
+     * @return true if the token has won in this position, false otherwise.
+     */
+    public boolean isConnected(final GameTokens token) {
+        return this.gameBoard.getConnectivity().isConnected(token);
+    }
+
+    /**
+     * Searches the empty cell with the lowest x and then the lowest y coordinate on which the given token would win.
+     * All the winning cells are found with one pass over the board, see {@link WinningCells}.
+     * @param token the token to search the winning cell for.
+     * @return the index of the winning cell, or {@link #NO_CELL} if there is none.
+     */
+    public int findWinningCell(final GameTokens token) {
+        return WinningCells.findFirstWinningCell(this.gameBoard, token);
+    }
+
+    /**
+     * Searches the first empty cell of a game on which the given token would win, like
+     * {@link #findWinningCell(GameTokens)}. The result is cached in the transposition table by the size and the
+     * stones of the game board, and a cached result is checked against the board before it is returned. The game
+     * board is only read, so no search position has to be created.
+     * @param game the game to search in.
+     * @param token the token to search the winning cell for.
+     * @param transpositionTable the table caching the results.
+     * @return the index of the winning cell, or {@link #NO_CELL} if there is none.
+     */
+    public static int findCachedWinningCell(final Game game, final GameTokens token,
+                                            final TranspositionTable transpositionTable) {
+        GameBoard gameBoard = game.getGameBoard();
+        long key = gameBoard.positionHash() ^ ZobristKeys.tokenKey(token);
+        long entry = transpositionTable.probe(key);
+        if (entry != TranspositionTable.NO_ENTRY) {
+            int cell = TranspositionTable.getMove(entry);
+            //A cached result that does not hold on the board can only come from another position with the same hash.
+            if (isCachedWinningCell(gameBoard, cell, token)) {
+                return cell;
+            }
+        }
+        int cell = WinningCells.findFirstWinningCell(gameBoard, token);
+        transpositionTable.store(key, cell, 0, 0, TranspositionTable.EXACT_BOUND);
+        return cell;
+    }
+
+    /**
+     * Checks a winning cell read from the transposition table against the game board. A cached cell must be an empty
+     * cell on which the token wins. Proving that no cell is winning takes a pass over the board, so a cached
+     * {@link #NO_CELL} is only rejected if the token already connects its sides and every empty cell is winning.
+     * @param gameBoard the game board the cell was looked up for.
+     * @param cell the cached cell.
+     * @param token the token the cell was looked up for.
+     * @return true if the cached cell can be returned, false if it has to be searched again.
+     */
+    private static boolean isCachedWinningCell(final GameBoard gameBoard, final int cell, final GameTokens token) {
+        BoardConnectivity connectivity = gameBoard.getConnectivity();
+        if (cell == NO_CELL) {
+            return !connectivity.isConnected(token);
+        }
+        return cell >= 0 && cell < gameBoard.getTopology().getCellsCount()
+            && gameBoard.getCellToken(cell) == GameTokens.EMPTY && connectivity.isWinningCell(cell, token);
+    }
+
+    /**
+     * Finds the cells a token should choose its next move from, with the virtual connections of a game: the carrier
+     * of its connection between its sides if the token is sure to win, or else the cells it must play on to keep the
+     * rival from connecting its sides. The virtual connections are too expensive on the boards wider than
+     * {@value VirtualConnections#MAXIMAL_BOARD_SIZE} cells, there the candidates are the empty cells on a shortest
+     * remaining path of one of the tokens.
+     * @param game the game to search in.
+     * @param token the token that makes the next move.
+     * @return the candidate cells, or null if no empty cell is ruled out.
+     */
+    public static BitSet findCandidateCells(final Game game, final GameTokens token) {
+        if (game.getGameBoard().getBoardSize() > VirtualConnections.MAXIMAL_BOARD_SIZE) {
+            return findShortestPathCells(game);
+        }
+        BitSet winningCarrier = game.getVirtualConnections(token).getWinningCarrier();
+        if (winningCarrier != null && !winningCarrier.isEmpty()) {
+            return winningCarrier;
+        }
+        BitSet mustPlayCells = game.getVirtualConnections(token.getRivalToken()).getMustPlayCells();
+        if (mustPlayCells != null && !mustPlayCells.isEmpty()) {
+            return mustPlayCells;
+        }
+        //Without a must play cell the rival wins anyway, so no move is better than another.
+        return null;
+    }
+
+    private static BitSet findShortestPathCells(final Game game) {
+        GameBoard gameBoard = game.getGameBoard();
+        BitSet shortestPathCells = new BitSet(gameBoard.getTopology().getCellsCount());
+        for (GameTokens token : STONE_TOKENS) {
+            PathDistances distances = game.getPathDistances(token);
+            int shortestLength = distances.getShortestPathLength();
+            if (shortestLength == PathDistances.NO_DISTANCE) {
+                continue;
+            }
+            for (int cell = 0; cell < gameBoard.getTopology().getCellsCount(); cell++) {
+                if (gameBoard.getCellToken(cell) == GameTokens.EMPTY
+                    && distances.getPathLengthThrough(cell, GameTokens.EMPTY) == shortestLength) {
+                    shortestPathCells.set(cell);
+                }
+            }
+        }
+        return shortestPathCells.isEmpty() ? null : shortestPathCells;
+    }
+
+    /**
+     * Gets the path distances of a token in the position.
+     * @param token the token, the X or the O token.
+     * @return the path distances of the token.
+     */
+    public PathDistances getPathDistances(final GameTokens token) {
+        return token == GameTokens.X_TOKEN ? this.xDistances : this.oDistances;
+    }
+
+    /**
+     * Gets the Zobrist hash of the position, it matches the hash of a game with the same board size, stones and swap
+     * state.
+     * @return the hash of the position.
+     */
+    public long positionHash() {
+        return this.gameBoard.positionHash() ^ this.swapKey;
+    }
+
+    /**
+     * Gets the token placed on a cell of the position.
+     * @param cell the index of the cell.
+     * @return the token placed on the cell.
+     */
+    public GameTokens getCellToken(final int cell) {
+        return this.gameBoard.getCellToken(cell);
+    }
+
+    /**
+     * Gets the token of the side to move.
+     * @return the token of the side to move.
+     */
+    public GameTokens getSideToMove() {
+        return this.sideToMove;
+    }
+
+    /**
+     * Gets the number of moves played on the position that have not been undone.
+     * @return the number of played moves.
+     */
+    public int getPlayedCount() {
+        return this.playedCells.size();
+    }
+
+    /**
+     * Gets the private game board of the position, for the evaluators that read a whole board. The board must not be
+     * changed, the moves are played with {@link #play(int)} and {@link #undo()}.
+     * @return the game board of the position.
+     */
+    public GameBoard getGameBoard() {
+        return this.gameBoard;
+    }
+
+    /**
+     * Gets the neighbourhood of the cells of the position.
+     * @return the topology of the board.
+     */
+    public HexTopology getTopology() {
+        return this.topology;
+    }
+}
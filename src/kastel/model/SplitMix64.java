@@ -0,0 +1,36 @@
+package kastel.model;
+
+/**
+ * A utility class with the steps of the SplitMix64 generator, shared by the Zobrist keys and the random playouts.
+ * The generator adds the golden gamma to its state and mixes the state into the output with a finalizer.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class SplitMix64 {
+
+    /**
+     * The value the state of the generator grows by with every output.
+     */
+    public static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final long FIRST_MULTIPLIER = 0xBF58476D1CE4E5B9L;
+    private static final long SECOND_MULTIPLIER = 0x94D049BB133111EBL;
+    private static final int FIRST_SHIFT = 30;
+    private static final int SECOND_SHIFT = 27;
+    private static final int THIRD_SHIFT = 31;
+
+    private SplitMix64() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated.");
+    }
+
+    /**
+     * Mixes a state of the generator into its output, every bit of the state changes about half of the output bits.
+     * @param state the state of the generator.
+     * @return the output of the state.
+     */
+    public static long mix(final long state) {
+        long value = (state ^ (state >>> FIRST_SHIFT)) * FIRST_MULTIPLIER;
+        value = (value ^ (value >>> SECOND_SHIFT)) * SECOND_MULTIPLIER;
+        return value ^ (value >>> THIRD_SHIFT);
+    }
+}
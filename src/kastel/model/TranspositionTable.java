@@ -0,0 +1,247 @@
+package kastel.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size transposition table that caches search results by the 64-bit hash of a position.
+ * The table is lock-free and lossy: every slot consists of a check word and a data word, and the check word stores
+ * the key xor the data. A reader only accepts a slot whose check word matches the data it read, so a slot that is
+ * torn by concurrent writers reads as a miss instead of a wrong entry. Writers claim a slot by a compare-and-set on
+ * the data word. An entry replaces an entry of another key if the other entry is from an older search or was not
+ * searched deeper.
+ * The entries are returned packed in a long, which can be decoded with the static getters of this class.
+ * @author ucxug
+ * @version 1.0
+ */
+public class TranspositionTable {
+
+    /**
+     * The name of the system property with the number of entries of the shared table.
+     */
+    public static final String SHARED_ENTRIES_PROPERTY = "kastel.tt.entries";
+    /**
+     * The default number of entries of the shared table.
+     */
+    public static final int DEFAULT_SHARED_ENTRIES = 1 << 16;
+    /**
+     * The entry returned by a probe that found no entry for the key.
+     */
+    public static final long NO_ENTRY = 0;
+    /**
+     * The bound of an entry whose score is exact.
+     */
+    public static final int EXACT_BOUND = 1;
+    /**
+     * The bound of an entry whose score is a lower bound of the real score.
+     */
+    public static final int LOWER_BOUND = 2;
+    /**
+     * The bound of an entry whose score is an upper bound of the real score.
+     */
+    public static final int UPPER_BOUND = 3;
+    /**
+     * The maximal depth that can be stored, deeper searches are stored with this depth.
+     */
+    public static final int MAXIMAL_DEPTH = 0xFF;
+
+    private static final int WORDS_PER_SLOT = 2;
+    private static final int MAXIMAL_STORE_ATTEMPTS = 2;
+    private static final long MOVE_MASK = 0xFFFF_FFFFL;
+    private static final int SCORE_SHIFT = 32;
+    private static final long SCORE_MASK = 0xFFFF;
+    private static final int DEPTH_SHIFT = 48;
+    private static final long DEPTH_MASK = 0xFF;
+    private static final int BOUND_SHIFT = 56;
+    private static final long BOUND_MASK = 0x3;
+    private static final int AGE_SHIFT = 58;
+    private static final int AGE_MASK = 0x3F;
+    private static final TranspositionTable SHARED_TABLE
+        = new TranspositionTable(Integer.getInteger(SHARED_ENTRIES_PROPERTY, DEFAULT_SHARED_ENTRIES));
+
+    /**
+     * Stores the check word and the data word of every slot one after another.
+     */
+    private final AtomicLongArray slots;
+    private final int slotMask;
+    /**
+     * The age of the current search, entries of older searches are replaced first.
+     */
+    private final AtomicInteger age;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder collisions;
+
+    /**
+     * Constructs an empty transposition table.
+     * @param entries the minimal number of entries of the table, it is rounded up to a power of two.
+     */
+    public TranspositionTable(final int entries) {
+        if (entries <= 0) {
+            throw new IllegalArgumentException("the number of entries must be positive.");
+        }
+        int slotsCount = Integer.highestOneBit(entries);
+        if (slotsCount < entries) {
+            slotsCount <<= 1;
+        }
+        this.slots = new AtomicLongArray(slotsCount * WORDS_PER_SLOT);
+        this.slotMask = slotsCount - 1;
+        this.age = new AtomicInteger();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.collisions = new LongAdder();
+    }
+
+    /**
+     * Gets the table shared by all games and players of the process.
+     * Its size is given by the {@value #SHARED_ENTRIES_PROPERTY} system property.
+     * @return the shared transposition table.
+     */
+    public static TranspositionTable getShared() {
+        return SHARED_TABLE;
+    }
+
+    /**
+     * Searches the entry of a key.
+     * @param key the hash of the position.
+     * @return the packed entry of the key, or {@link #NO_ENTRY} if the table holds no entry for the key.
+     */
+    public long probe(final long key) {
+        int slot = slotIndex(key);
+        long data = this.slots.get(slot + 1);
+        long check = this.slots.get(slot);
+        if (data != NO_ENTRY && (check ^ data) == key) {
+            this.hits.increment();
+            return data;
+        }
+        if (data != NO_ENTRY) {
+            //The slot is used by another key or is being written.
+            this.collisions.increment();
+        }
+        this.misses.increment();
+        return NO_ENTRY;
+    }
+
+    /**
+     * Stores an entry for a key, it may be dropped if the slot holds a more valuable entry of another key.
+     * @param key the hash of the position.
+     * @param move the best move of the position, may be negative if there is none.
+     * @param score the score of the position, it is stored as a 16-bit value.
+     * @param depth the depth the position was searched with.
+     * @param bound the bound of the score, one of {@link #EXACT_BOUND}, {@link #LOWER_BOUND} and
+     *      {@link #UPPER_BOUND}.
+     */
+    public void store(final long key, final int move, final int score, final int depth, final int bound) {
+        int slot = slotIndex(key);
+        int currentAge = this.age.get() & AGE_MASK;
+        long newData = pack(move, score, Math.min(Math.max(depth, 0), MAXIMAL_DEPTH), bound, currentAge);
+        for (int attempt = 0; attempt < MAXIMAL_STORE_ATTEMPTS; attempt++) {
+            long oldData = this.slots.get(slot + 1);
+            long oldKey = this.slots.get(slot) ^ oldData;
+            if (oldData != NO_ENTRY && oldKey != key && getAge(oldData) == currentAge && getDepth(oldData) > depth) {
+                //The entry of the other key was searched deeper in the current search.
+                return;
+            }
+            if (this.slots.compareAndSet(slot + 1, oldData, newData)) {
+                this.slots.set(slot, key ^ newData);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Starts a new search, the entries of the previous searches are replaced before the entries of the new search.
+     */
+    public void newSearch() {
+        this.age.incrementAndGet();
+    }
+
+    /**
+     * Gets the number of entries of the table.
+     * @return the number of entries.
+     */
+    public int getCapacity() {
+        return this.slotMask + 1;
+    }
+
+    /**
+     * Gets the number of probes that found an entry for their key.
+     * @return the number of hits.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Gets the number of probes that found no entry for their key.
+     * @return the number of misses.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Gets the number of probes that missed because their slot held an entry of another key.
+     * @return the number of collisions.
+     */
+    public long getCollisions() {
+        return this.collisions.sum();
+    }
+
+    /**
+     * Gets the best move of a packed entry.
+     * @param entry the packed entry.
+     * @return the best move, or -1 if the entry has no move.
+     */
+    public static int getMove(final long entry) {
+        return (int) (entry & MOVE_MASK) - 1;
+    }
+
+    /**
+     * Gets the score of a packed entry.
+     * @param entry the packed entry.
+     * @return the score of the entry.
+     */
+    public static int getScore(final long entry) {
+        return (short) ((entry >>> SCORE_SHIFT) & SCORE_MASK);
+    }
+
+    /**
+     * Gets the depth of a packed entry.
+     * @param entry the packed entry.
+     * @return the depth the position of the entry was searched with.
+     */
+    public static int getDepth(final long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & DEPTH_MASK);
+    }
+
+    /**
+     * Gets the bound of a packed entry.
+     * @param entry the packed entry.
+     * @return the bound of the score of the entry.
+     */
+    public static int getBound(final long entry) {
+        return (int) ((entry >>> BOUND_SHIFT) & BOUND_MASK);
+    }
+
+    private static int getAge(final long entry) {
+        return (int) (entry >>> AGE_SHIFT);
+    }
+
+    private static long pack(final int move, final int score, final int depth, final int bound, final int age) {
+        //The move is stored increased by one, so a missing move is stored as 0.
+        //Every entry has a bound, so no entry is 0.
+        return ((move + 1) & MOVE_MASK)
+            | ((score & SCORE_MASK) << SCORE_SHIFT)
+            | ((long) depth << DEPTH_SHIFT)
+            | ((bound & BOUND_MASK) << BOUND_SHIFT)
+            | ((long) age << AGE_SHIFT);
+    }
+
+    private int slotIndex(final long key) {
+        //The upper half of the key is folded into the lower half, so all bits of the key select the slot.
+        int slot = (int) (key ^ (key >>> SCORE_SHIFT)) & this.slotMask;
+        return slot * WORDS_PER_SLOT;
+    }
+}
@@ -0,0 +1,70 @@
+package kastel.model;
+
+/**
+ * A utility class that provides the 64-bit Zobrist keys used to hash the positions of a game.
+ * The hash of a position is the exclusive or of the key of the board size, of the keys of all stones on the board and
+ * of the swap key if the first move was swapped. The keys are derived from the cell and the token with a SplitMix64
+ * mix instead of being stored in a table, so boards of every size share the same keys without allocating them.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class ZobristKeys {
+
+    /**
+     * The key that is added to the hash of a position once the first move has been swapped.
+     */
+    public static final long SWAP_KEY = mix(-1L);
+    /**
+     * The key combined with the hash of a position to key the results of a game tree search, it keeps them apart from
+     * the winning cells cached for the tokens.
+     */
+    public static final long SEARCH_KEY = mix(Long.MIN_VALUE);
+
+    private static final long SEED = 0x4B61737465724845L;
+    private static final int STONE_TOKENS_COUNT = 2;
+
+    private ZobristKeys() {
+        throw new UnsupportedOperationException("Utility class can not be initialized");
+    }
+
+    /**
+     * Gets the key of a stone placed on a cell.
+     * @param cell the index of the cell, see {@link HexTopology#getCell(int, int)}.
+     * @param token the token of the stone, the empty token has no key.
+     * @return the key of the stone, or 0 if the token is not a stone.
+     */
+    public static long cellKey(final int cell, final GameTokens token) {
+        if (token != GameTokens.X_TOKEN && token != GameTokens.O_TOKEN) {
+            return 0;
+        }
+        int stoneIndex = token == GameTokens.X_TOKEN ? 0 : 1;
+        return mix((long) cell * STONE_TOKENS_COUNT + stoneIndex);
+    }
+
+    /**
+     * Gets the key of a token independent of any cell. It can be combined with the hash of a position to key results
+     * that belong to one token in that position.
+     * @param token the token.
+     * @return the key of the token.
+     */
+    public static long tokenKey(final GameTokens token) {
+        //The negative indices are not used by the cells and by the swap key.
+        return mix(-token.ordinal() - 2L);
+    }
+
+    /**
+     * Gets the key of a board size. The hash of every board starts with the key of its size, because the cell keys do
+     * not depend on the size, so the results of the positions of different sizes are kept apart in shared tables.
+     * @param boardSize the number of cells of a board side.
+     * @return the key of the board size.
+     */
+    public static long boardSizeKey(final int boardSize) {
+        //The indices right above the search key are not used by the cells and the tokens.
+        return mix(Long.MIN_VALUE + boardSize);
+    }
+
+    private static long mix(final long index) {
+        //The SplitMix64 finalizer applied to the index-th value of the sequence of the seed.
+        return SplitMix64.mix(SEED + (index + 1) * SplitMix64.GOLDEN_GAMMA);
+    }
+}
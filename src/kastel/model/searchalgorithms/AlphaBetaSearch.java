@@ -0,0 +1,378 @@
+package kastel.model.searchalgorithms;
+
+import java.util.BitSet;
+import kastel.model.CancellationToken;
+import kastel.model.GameTokens;
+import kastel.model.SearchPosition;
+import kastel.model.TranspositionTable;
+import kastel.model.ZobristKeys;
+
+/**
+ * An alpha-beta search with iterative deepening and a hard deadline.
+ * The search is repeated with a growing depth until the time budget is spent, the result of an unfinished depth is
+ * thrown away and the best move of the last finished depth is returned. The moves of a position are ordered by the
+ * best move stored in the transposition table first, and then by the history heuristic: the moves that caused cutoffs
+ * in other positions are tried earlier, and among moves with the same history the moves closer to a shortest remaining
+ * path of one of the tokens come first, read from the {@link PathDistances} of the position. The leaves are rated by a
+ * {@link ResistanceEvaluator}.
+ * The search plays and undoes its moves on a {@link SearchPosition}, the real game is never changed.
+ * A search must not be used by several threads at the same time.
+ * @author ucxug
+ * @version 1.0
+ */
+public class AlphaBetaSearch {
+
+    /**
+     * The value returned when the searched position has no empty cell.
+     */
+    public static final int NO_CELL = SearchPosition.NO_CELL;
+    /**
+     * The score of a won position, a win that is reached after more moves scores lower by the number of moves.
+     */
+    public static final int WIN_SCORE = 30000;
+
+    /**
+     * The highest score of a position that is not won yet, the scores above it are wins.
+     */
+    private static final int MAXIMAL_EVALUATION = 20000;
+    private static final double EVALUATION_SCALE = 100;
+    private static final int INFINITE_SCORE = Short.MAX_VALUE;
+    private static final long NANOS_PER_MILLISECOND = 1_000_000L;
+    private static final int HISTORY_DECAY_SHIFT = 1;
+    private static final int ROOT_PLY = 0;
+    private static final int OFF_PATH_DETOUR = Integer.MAX_VALUE;
+
+    private final TranspositionTable transpositionTable;
+    /**
+     * The time a search may take in nanoseconds, a budget too long to be counted in nanoseconds is cut to the longest
+     * one that can.
+     */
+    private final long timeBudgetNanos;
+    private final int maximalDepth;
+    private ResistanceEvaluator evaluator;
+    /**
+     * Stores for every cell how often a move on it caused a cutoff, weighted by the remaining depth.
+     */
+    private int[] history;
+    /**
+     * Stores for every empty cell how much longer than the shortest remaining path the shortest path through it is,
+     * for the token it is closest for. The detours are computed again for every ordered position.
+     */
+    private int[] detours;
+    /**
+     * Stores the ordered moves of every ply of the current line, the buffers are created when a ply is first reached.
+     */
+    private int[][] moveBuffers;
+    private SearchPosition position;
+    /**
+     * The cells the moves of the root are chosen from, or null if every empty cell is a candidate.
+     */
+    private BitSet rootCandidates;
+    private CancellationToken cancellationToken;
+    /**
+     * The time the search stops at, it may wrap around and is only compared by the difference to the current time.
+     */
+    private long deadline;
+    private boolean aborted;
+    private int rootBestMove;
+    private long lastNodes;
+    private int lastDepth;
+    private int lastScore;
+
+    /**
+     * Constructs an alpha-beta search.
+     * @param transpositionTable the table storing the results of the searched positions, it may be shared with the
+     *      searches of other board sizes.
+     * @param timeBudgetMillis the time a search may take in milliseconds.
+     * @param maximalDepth the maximal depth of the iterative deepening.
+     */
+    public AlphaBetaSearch(final TranspositionTable transpositionTable, final long timeBudgetMillis,
+                           final int maximalDepth) {
+        if (timeBudgetMillis <= 0) {
+            throw new IllegalArgumentException("the time budget must be positive.");
+        }
+        if (maximalDepth <= 0 || maximalDepth > TranspositionTable.MAXIMAL_DEPTH) {
+            throw new IllegalArgumentException("the maximal depth must be between 1 and %d."
+                .formatted(TranspositionTable.MAXIMAL_DEPTH));
+        }
+        this.transpositionTable = transpositionTable;
+        long budgetNanos;
+        try {
+            budgetNanos = Math.multiplyExact(timeBudgetMillis, NANOS_PER_MILLISECOND);
+        } catch (ArithmeticException e) {
+            budgetNanos = Long.MAX_VALUE;
+        }
+        this.timeBudgetNanos = budgetNanos;
+        this.maximalDepth = maximalDepth;
+    }
+
+    /**
+     * Searches the best move of the side to move of a position.
+     * @param searchPosition the position to search, it has the same stones afterwards.
+     * @return the index of the cell of the best move, or {@link #NO_CELL} if the position has no empty cell.
+     */
+    public int search(final SearchPosition searchPosition) {
+        return search(searchPosition, null);
+    }
+
+    /**
+     * Searches the best move of the side to move of a position among some candidate cells, for example the must play
+     * cells found with the virtual connections.
+     * @param searchPosition the position to search, it has the same stones afterwards.
+     * @param candidateCells the cells the move is chosen from, or null to choose from all the empty cells.
+     * @return the index of the cell of the best move, or {@link #NO_CELL} if no candidate cell is empty.
+     */
+    public int search(final SearchPosition searchPosition, final BitSet candidateCells) {
+        return search(searchPosition, candidateCells, CancellationToken.withBudget(CancellationToken.NO_TIME_LIMIT));
+    }
+
+    /**
+     * Searches the best move among some candidate cells, like {@link #search(SearchPosition, BitSet)}, and also stops
+     * when a token is cancelled before the time budget is spent.
+     * @param searchPosition the position to search, it has the same stones afterwards.
+     * @param candidateCells the cells the move is chosen from, or null to choose from all the empty cells.
+     * @param cancellationToken the token that stops the search like the deadline.
+     * @return the index of the cell of the best move, or {@link #NO_CELL} if no candidate cell is empty.
+     */
+    public int search(final SearchPosition searchPosition, final BitSet candidateCells,
+                      final CancellationToken cancellationToken) {
+        this.rootCandidates = candidateCells;
+        this.cancellationToken = cancellationToken;
+        this.deadline = System.nanoTime() + this.timeBudgetNanos;
+        prepare(searchPosition);
+        this.transpositionTable.newSearch();
+        this.aborted = false;
+        this.lastNodes = 0;
+        this.lastDepth = 0;
+        this.lastScore = 0;
+        int emptyCount = 0;
+        for (int cell = 0; cell < this.history.length; cell++) {
+            if (searchPosition.getCellToken(cell) == GameTokens.EMPTY) {
+                emptyCount++;
+            }
+        }
+        int rootMovesCount = orderMoves(ROOT_PLY, NO_CELL);
+        int bestMove = NO_CELL;
+        int partialBestMove = NO_CELL;
+        for (int depth = 1; depth <= Math.min(this.maximalDepth, emptyCount); depth++) {
+            this.rootBestMove = NO_CELL;
+            int score = negamax(depth, ROOT_PLY, -INFINITE_SCORE, INFINITE_SCORE);
+            if (this.aborted) {
+                partialBestMove = this.rootBestMove;
+                break;
+            }
+            bestMove = this.rootBestMove;
+            this.lastDepth = depth;
+            this.lastScore = score;
+            if (Math.abs(score) > MAXIMAL_EVALUATION) {
+                //The game is decided, a deeper search can not change the result.
+                break;
+            }
+        }
+        if (bestMove == NO_CELL && rootMovesCount > 0) {
+            //Not even the first depth was finished in time.
+            bestMove = partialBestMove != NO_CELL ? partialBestMove : this.moveBuffers[ROOT_PLY][0];
+        }
+        this.position = null;
+        this.rootCandidates = null;
+        this.cancellationToken = null;
+        return bestMove;
+    }
+
+    /**
+     * Gets the depth of the last finished iteration of the last search.
+     * @return the depth, or 0 if no iteration was finished.
+     */
+    public int getLastDepth() {
+        return this.lastDepth;
+    }
+
+    /**
+     * Gets the score of the best move of the last finished iteration of the last search.
+     * @return the score from the view of the side to move.
+     */
+    public int getLastScore() {
+        return this.lastScore;
+    }
+
+    /**
+     * Gets the number of positions visited by the last search.
+     * @return the number of visited positions.
+     */
+    public long getLastNodes() {
+        return this.lastNodes;
+    }
+
+    private void prepare(final SearchPosition searchPosition) {
+        int boardSize = searchPosition.getTopology().getBoardSize();
+        int cellsCount = searchPosition.getTopology().getCellsCount();
+        if (this.history == null || this.history.length != cellsCount) {
+            this.evaluator = new ResistanceEvaluator(boardSize);
+            this.history = new int[cellsCount];
+            this.detours = new int[cellsCount];
+            this.moveBuffers = new int[this.maximalDepth + 1][];
+        } else {
+            //The history of the last search is still useful, but the new cutoffs should count more.
+            for (int cell = 0; cell < cellsCount; cell++) {
+                this.history[cell] >>= HISTORY_DECAY_SHIFT;
+            }
+        }
+        this.position = searchPosition;
+    }
+
+    private int negamax(final int depth, final int ply, final int alpha, final int beta) {
+        this.lastNodes++;
+        if (System.nanoTime() - this.deadline > 0 || this.cancellationToken.isCancelled()) {
+            this.aborted = true;
+            return 0;
+        }
+        GameTokens sideToMove = this.position.getSideToMove();
+        if (this.position.isConnected(sideToMove.getRivalToken())) {
+            //The last move won the game.
+            return -(WIN_SCORE - ply);
+        }
+        if (depth == 0) {
+            return evaluate(sideToMove);
+        }
+        //The hash includes the key of the board size, so a table shared by the games of all sizes never cuts off with
+        //the score of a position of another size that has the same stones.
+        long key = this.position.positionHash() ^ ZobristKeys.SEARCH_KEY;
+        long entry = this.transpositionTable.probe(key);
+        int tableMove = NO_CELL;
+        if (entry != TranspositionTable.NO_ENTRY) {
+            tableMove = TranspositionTable.getMove(entry);
+            if (tableMove != NO_CELL && (tableMove >= this.history.length
+                || this.position.getCellToken(tableMove) != GameTokens.EMPTY)) {
+                //The entry belongs to another position with the same hash.
+                tableMove = NO_CELL;
+                entry = TranspositionTable.NO_ENTRY;
+            }
+        }
+        if (entry != TranspositionTable.NO_ENTRY && ply > ROOT_PLY && TranspositionTable.getDepth(entry) >= depth) {
+            int tableScore = fromTableScore(TranspositionTable.getScore(entry), ply);
+            int bound = TranspositionTable.getBound(entry);
+            if (bound == TranspositionTable.EXACT_BOUND
+                || bound == TranspositionTable.LOWER_BOUND && tableScore >= beta
+                || bound == TranspositionTable.UPPER_BOUND && tableScore <= alpha) {
+                return tableScore;
+            }
+        }
+        int movesCount = orderMoves(ply, tableMove);
+        if (movesCount == 0) {
+            return evaluate(sideToMove);
+        }
+        int[] moves = this.moveBuffers[ply];
+        int currentAlpha = alpha;
+        int bestScore = -INFINITE_SCORE;
+        int bestMove = NO_CELL;
+        for (int i = 0; i < movesCount; i++) {
+            int cell = moves[i];
+            this.position.play(cell);
+            int score = -negamax(depth - 1, ply + 1, -beta, -currentAlpha);
+            this.position.undo();
+            if (this.aborted) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = cell;
+                if (ply == ROOT_PLY) {
+                    this.rootBestMove = cell;
+                }
+            }
+            currentAlpha = Math.max(currentAlpha, score);
+            if (currentAlpha >= beta) {
+                this.history[cell] += depth * depth;
+                break;
+            }
+        }
+        int bound = TranspositionTable.EXACT_BOUND;
+        if (bestScore <= alpha) {
+            bound = TranspositionTable.UPPER_BOUND;
+        } else if (bestScore >= beta) {
+            bound = TranspositionTable.LOWER_BOUND;
+        }
+        this.transpositionTable.store(key, bestMove, toTableScore(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    private int evaluate(final GameTokens sideToMove) {
+        double value = this.evaluator.evaluate(this.position.getGameBoard(), sideToMove) * EVALUATION_SCALE;
+        return (int) Math.max(-MAXIMAL_EVALUATION, Math.min(MAXIMAL_EVALUATION, Math.round(value)));
+    }
+
+    /**
+     * Collects the empty cells of the position into the move buffer of a ply: the move of the transposition table
+     * first, then the others by decreasing history, increasing detour and increasing cell index. At the root only the
+     * candidate cells are collected.
+     * @param ply the ply of the position.
+     * @param tableMove the move of the transposition table, or {@link #NO_CELL}.
+     * @return the number of moves.
+     */
+    private int orderMoves(final int ply, final int tableMove) {
+        if (this.moveBuffers[ply] == null) {
+            this.moveBuffers[ply] = new int[this.history.length];
+        }
+        int[] moves = this.moveBuffers[ply];
+        BitSet candidates = ply == ROOT_PLY ? this.rootCandidates : null;
+        PathDistances sideDistances = this.position.getPathDistances(this.position.getSideToMove());
+        PathDistances rivalDistances = this.position.getPathDistances(this.position.getSideToMove().getRivalToken());
+        int movesCount = 0;
+        if (tableMove != NO_CELL && (candidates == null || candidates.get(tableMove))) {
+            moves[movesCount++] = tableMove;
+        }
+        int sortedStart = movesCount;
+        for (int cell = 0; cell < this.history.length; cell++) {
+            if (cell == tableMove || this.position.getCellToken(cell) != GameTokens.EMPTY
+                || candidates != null && !candidates.get(cell)) {
+                continue;
+            }
+            this.detours[cell] = Math.min(getDetour(sideDistances, cell), getDetour(rivalDistances, cell));
+            //Insertion sort, the cells are visited in increasing order so equal keys keep that order.
+            int index = movesCount++;
+            while (index > sortedStart && isOrderedBefore(cell, moves[index - 1])) {
+                moves[index] = moves[index - 1];
+                index--;
+            }
+            moves[index] = cell;
+        }
+        return movesCount;
+    }
+
+    private boolean isOrderedBefore(final int cell, final int otherCell) {
+        if (this.history[cell] != this.history[otherCell]) {
+            return this.history[cell] > this.history[otherCell];
+        }
+        return this.detours[cell] < this.detours[otherCell];
+    }
+
+    private static int getDetour(final PathDistances distances, final int cell) {
+        int shortestLength = distances.getShortestPathLength();
+        int lengthThrough = distances.getPathLengthThrough(cell, GameTokens.EMPTY);
+        if (shortestLength == PathDistances.NO_DISTANCE || lengthThrough == PathDistances.NO_DISTANCE) {
+            return OFF_PATH_DETOUR;
+        }
+        return lengthThrough - shortestLength;
+    }
+
+    private static int toTableScore(final int score, final int ply) {
+        //The wins are stored relative to the stored position, so they can be used at any ply.
+        if (score > MAXIMAL_EVALUATION) {
+            return score + ply;
+        }
+        if (score < -MAXIMAL_EVALUATION) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTableScore(final int score, final int ply) {
+        if (score > MAXIMAL_EVALUATION) {
+            return score - ply;
+        }
+        if (score < -MAXIMAL_EVALUATION) {
+            return score + ply;
+        }
+        return score;
+    }
+}
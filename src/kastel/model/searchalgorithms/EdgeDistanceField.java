@@ -0,0 +1,343 @@
+package kastel.model.searchalgorithms;
+
+import java.util.Arrays;
+import kastel.model.GameBoard;
+import kastel.model.GameTokens;
+import kastel.model.HexTopology;
+
+/**
+ * A field of the distances of all cells to one board side of a token, kept up to date while stones are placed and
+ * removed. The distance of a cell is the number of empty cells on the shortest path from the cell to the side,
+ * the cell included: the empty cells cost 1, the stones of the token cost 0 and the stones of the rival block the way.
+ * The field of the {@link GameTokens#EMPTY} token only passes the empty cells, between the west and the east side.
+ * Every cell remembers the neighbour slot its distance was reached from, these parents form a shortest path tree. A
+ * changed cell only repairs the distances around it: a cheaper cell passes its new distance on to its neighbours, a
+ * more expensive cell resets its subtree of the shortest path tree and fills it again from the cells around it.
+ * A field keeps 6 bytes per cell, the costs and the parents are stored as bytes and the queues of a repair are shared
+ * by all the fields of a thread. A field must not be used by several threads at the same time.
+ * @author ucxug
+ * @version 1.0
+ */
+public class EdgeDistanceField {
+
+    /**
+     * The distance of a cell that can not be connected to the side.
+     */
+    public static final int NO_DISTANCE = -1;
+
+    /**
+     * The parent of a cell on the side and of a cell that can not be connected to the side.
+     */
+    public static final int NO_CELL = -1;
+
+    private static final byte NO_SLOT = -1;
+    private static final int UNREACHED = Integer.MAX_VALUE / 2;
+    private static final byte STONE_COST = 0;
+    private static final byte EMPTY_COST = 1;
+    /**
+     * The cost of a stone of the rival, it is greater than the other costs but never added to a distance.
+     */
+    private static final byte BLOCKED = 2;
+    private static final ThreadLocal<RepairQueues> REPAIR_QUEUES = new ThreadLocal<>();
+
+    private final HexTopology topology;
+    private final GameTokens token;
+    private final boolean endSide;
+    private final int cellsCount;
+    private final byte[] costs;
+    private final int[] distances;
+    /**
+     * The neighbour slot of the parent of every cell, or {@link #NO_SLOT} if the cell has no parent.
+     */
+    private final byte[] parentSlots;
+    /**
+     * The shortest distance of the cells on the other side, which is the length of the shortest path between the two
+     * sides.
+     */
+    private int pathLength;
+
+    /**
+     * Constructs the distance field of a board side of a token.
+     * @param gameBoard the game board to copy the stones from, it is only read.
+     * @param token the token, the X or the O token, or the empty token for the paths over the empty cells only.
+     * @param endSide true for the south side of the X token and the east side of the O and the empty token, false for
+     *      the north and the west side.
+     */
+    public EdgeDistanceField(final GameBoard gameBoard, final GameTokens token, final boolean endSide) {
+        this.topology = gameBoard.getTopology();
+        this.token = token;
+        this.endSide = endSide;
+        this.cellsCount = this.topology.getCellsCount();
+        this.costs = new byte[this.cellsCount];
+        this.distances = new int[this.cellsCount];
+        this.parentSlots = new byte[this.cellsCount];
+        Arrays.fill(this.distances, UNREACHED);
+        Arrays.fill(this.parentSlots, NO_SLOT);
+        for (int cell = 0; cell < this.cellsCount; cell++) {
+            this.costs[cell] = getCost(gameBoard.getCellToken(cell));
+        }
+        RepairQueues queues = getRepairQueues(this.cellsCount);
+        for (int cell = 0; cell < this.cellsCount; cell++) {
+            if (isOnSide(cell, this.endSide) && this.costs[cell] != BLOCKED) {
+                this.distances[cell] = this.costs[cell];
+                queues.enqueue(cell);
+            }
+        }
+        propagate(queues);
+        updatePathLength();
+    }
+
+    /**
+     * Constructs a copy of a field, the copy is repaired independently of the field.
+     * @param field the field to copy.
+     */
+    public EdgeDistanceField(final EdgeDistanceField field) {
+        this.topology = field.topology;
+        this.token = field.token;
+        this.endSide = field.endSide;
+        this.cellsCount = field.cellsCount;
+        this.costs = field.costs.clone();
+        this.distances = field.distances.clone();
+        this.parentSlots = field.parentSlots.clone();
+        this.pathLength = field.pathLength;
+    }
+
+    /**
+     * Updates the field after the token of a cell changed.
+     * @param cell the index of the cell.
+     * @param cellToken the new token of the cell, a stone or the empty token.
+     */
+    public void setCellToken(final int cell, final GameTokens cellToken) {
+        byte oldCost = this.costs[cell];
+        byte newCost = getCost(cellToken);
+        if (oldCost == newCost) {
+            return;
+        }
+        this.costs[cell] = newCost;
+        RepairQueues queues = getRepairQueues(this.cellsCount);
+        if (newCost < oldCost) {
+            decrease(cell, queues);
+        } else {
+            increase(cell, queues);
+        }
+        propagate(queues);
+        updatePathLength();
+    }
+
+    /**
+     * Gets the distance of a cell to the side.
+     * @param cell the index of the cell.
+     * @return the number of empty cells on the shortest path to the side, or {@link #NO_DISTANCE} if the cell can not
+     *      be connected to the side.
+     */
+    public int getDistance(final int cell) {
+        return this.distances[cell] >= UNREACHED ? NO_DISTANCE : this.distances[cell];
+    }
+
+    /**
+     * Gets the parent of a cell, the next cell on its shortest path to the side.
+     * @param cell the index of the cell.
+     * @return the index of the parent, or {@link #NO_CELL} for a cell on the side that needs no other cell, and for a
+     *      cell that can not be connected to the side.
+     */
+    public int getParent(final int cell) {
+        byte slot = this.parentSlots[cell];
+        return slot == NO_SLOT ? NO_CELL : this.topology.getNeighbour(cell, slot);
+    }
+
+    /**
+     * Gets the length of the shortest path between the two sides of the token.
+     * @return the number of empty cells the token still needs to connect its sides, or {@link #NO_DISTANCE} if the
+     *      rival has cut them off.
+     */
+    public int getPathLength() {
+        return this.pathLength;
+    }
+
+    /**
+     * Gets the token the field belongs to.
+     * @return the token.
+     */
+    public GameTokens getToken() {
+        return this.token;
+    }
+
+    private void decrease(final int cell, final RepairQueues queues) {
+        //The cell itself may now be reached cheaper, and passes its distance on.
+        int bestDistance = isOnSide(cell, this.endSide) ? this.costs[cell] : UNREACHED;
+        byte bestSlot = NO_SLOT;
+        for (byte slot = 0; slot < HexTopology.NEIGHBOUR_SLOTS; slot++) {
+            int neighbour = this.topology.getNeighbour(cell, slot);
+            if (neighbour != HexTopology.NO_NEIGHBOUR && this.distances[neighbour] < UNREACHED
+                && this.distances[neighbour] + this.costs[cell] < bestDistance) {
+                bestDistance = this.distances[neighbour] + this.costs[cell];
+                bestSlot = slot;
+            }
+        }
+        if (bestDistance < this.distances[cell]) {
+            this.distances[cell] = bestDistance;
+            this.parentSlots[cell] = bestSlot;
+        }
+        if (this.distances[cell] < UNREACHED) {
+            queues.enqueue(cell);
+        }
+    }
+
+    private void increase(final int cell, final RepairQueues queues) {
+        //Collects the subtree of the cell, only the distances of these cells can depend on the cell.
+        int[] subtreeCells = queues.subtreeCells;
+        boolean[] inSubtree = queues.inSubtree;
+        int subtreeSize = 0;
+        subtreeCells[subtreeSize++] = cell;
+        inSubtree[cell] = true;
+        for (int i = 0; i < subtreeSize; i++) {
+            int subtreeCell = subtreeCells[i];
+            for (int slot = 0; slot < HexTopology.NEIGHBOUR_SLOTS; slot++) {
+                int neighbour = this.topology.getNeighbour(subtreeCell, slot);
+                if (neighbour != HexTopology.NO_NEIGHBOUR && !inSubtree[neighbour]
+                    && this.distances[neighbour] < UNREACHED && getParent(neighbour) == subtreeCell) {
+                    inSubtree[neighbour] = true;
+                    subtreeCells[subtreeSize++] = neighbour;
+                }
+            }
+        }
+        for (int i = 0; i < subtreeSize; i++) {
+            this.distances[subtreeCells[i]] = UNREACHED;
+            this.parentSlots[subtreeCells[i]] = NO_SLOT;
+        }
+        //Every cell of the subtree starts again from its best neighbour outside of the subtree.
+        for (int i = 0; i < subtreeSize; i++) {
+            int subtreeCell = subtreeCells[i];
+            inSubtree[subtreeCell] = false;
+            if (this.costs[subtreeCell] == BLOCKED) {
+                continue;
+            }
+            int bestDistance = isOnSide(subtreeCell, this.endSide) ? this.costs[subtreeCell] : UNREACHED;
+            byte bestSlot = NO_SLOT;
+            for (byte slot = 0; slot < HexTopology.NEIGHBOUR_SLOTS; slot++) {
+                int neighbour = this.topology.getNeighbour(subtreeCell, slot);
+                if (neighbour != HexTopology.NO_NEIGHBOUR && this.distances[neighbour] < UNREACHED
+                    && this.distances[neighbour] + this.costs[subtreeCell] < bestDistance) {
+                    bestDistance = this.distances[neighbour] + this.costs[subtreeCell];
+                    bestSlot = slot;
+                }
+            }
+            if (bestDistance < UNREACHED) {
+                this.distances[subtreeCell] = bestDistance;
+                this.parentSlots[subtreeCell] = bestSlot;
+                queues.enqueue(subtreeCell);
+            }
+        }
+    }
+
+    /**
+     * Passes the distances of the queued cells on to their neighbours until no distance gets shorter.
+     * @param queues the queues of the thread, holding the cells whose distance changed.
+     */
+    private void propagate(final RepairQueues queues) {
+        while (queues.queueSize > 0) {
+            int cell = queues.dequeue();
+            for (int slot = 0; slot < HexTopology.NEIGHBOUR_SLOTS; slot++) {
+                int neighbour = this.topology.getNeighbour(cell, slot);
+                if (neighbour == HexTopology.NO_NEIGHBOUR || this.costs[neighbour] == BLOCKED) {
+                    continue;
+                }
+                int distance = this.distances[cell] + this.costs[neighbour];
+                if (distance < this.distances[neighbour]) {
+                    this.distances[neighbour] = distance;
+                    this.parentSlots[neighbour] = findSlot(neighbour, cell);
+                    queues.enqueue(neighbour);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the slot in which a cell keeps one of its neighbours.
+     * @param cell the index of the cell.
+     * @param neighbour the index of the neighbour.
+     * @return the slot of the neighbour.
+     */
+    private byte findSlot(final int cell, final int neighbour) {
+        byte slot = 0;
+        while (this.topology.getNeighbour(cell, slot) != neighbour) {
+            slot++;
+        }
+        return slot;
+    }
+
+    private static RepairQueues getRepairQueues(final int cellsCount) {
+        RepairQueues queues = REPAIR_QUEUES.get();
+        if (queues == null || queues.queue.length < cellsCount) {
+            queues = new RepairQueues(cellsCount);
+            REPAIR_QUEUES.set(queues);
+        }
+        return queues;
+    }
+
+    private void updatePathLength() {
+        int shortest = UNREACHED;
+        int boardSize = this.topology.getBoardSize();
+        for (int i = 0; i < boardSize; i++) {
+            //The cells of the other side are the first row or column, or the last one.
+            int sideCoordinate = this.endSide ? 0 : boardSize - 1;
+            int cell = this.token == GameTokens.X_TOKEN
+                ? this.topology.getCell(i, sideCoordinate) : this.topology.getCell(sideCoordinate, i);
+            shortest = Math.min(shortest, this.distances[cell]);
+        }
+        this.pathLength = shortest >= UNREACHED ? NO_DISTANCE : shortest;
+    }
+
+    private byte getCost(final GameTokens cellToken) {
+        if (cellToken == GameTokens.EMPTY) {
+            return EMPTY_COST;
+        }
+        return cellToken == this.token ? STONE_COST : BLOCKED;
+    }
+
+    private boolean isOnSide(final int cell, final boolean end) {
+        int coordinate = this.token == GameTokens.X_TOKEN
+            ? this.topology.getyCoordinate(cell) : this.topology.getxCoordinate(cell);
+        return coordinate == (end ? this.topology.getBoardSize() - 1 : 0);
+    }
+
+    /**
+     * The queues of the repairs of a thread, they are shared by all of its fields, since a field only needs them while
+     * it is repaired. Both queues are empty and no cell is marked between two repairs.
+     */
+    private static final class RepairQueues {
+        /**
+         * The circular queue of the cells whose distance changed, every cell is at most once in the queue.
+         */
+        private final int[] queue;
+        private final boolean[] queued;
+        private final int[] subtreeCells;
+        private final boolean[] inSubtree;
+        private int queueHead;
+        private int queueSize;
+
+        RepairQueues(final int cellsCount) {
+            this.queue = new int[cellsCount];
+            this.queued = new boolean[cellsCount];
+            this.subtreeCells = new int[cellsCount];
+            this.inSubtree = new boolean[cellsCount];
+        }
+
+        void enqueue(final int cell) {
+            if (this.queued[cell]) {
+                return;
+            }
+            this.queued[cell] = true;
+            this.queue[(this.queueHead + this.queueSize) % this.queue.length] = cell;
+            this.queueSize++;
+        }
+
+        int dequeue() {
+            int cell = this.queue[this.queueHead];
+            this.queueHead = (this.queueHead + 1) % this.queue.length;
+            this.queueSize--;
+            this.queued[cell] = false;
+            return cell;
+        }
+    }
+}
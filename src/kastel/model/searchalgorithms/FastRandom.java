@@ -0,0 +1,43 @@
+package kastel.model.searchalgorithms;
+
+import kastel.model.SplitMix64;
+
+/**
+ * A fast pseudo random number generator for the random playouts, based on the {@link SplitMix64} generator.
+ * It is not synchronized, every thread needs its own instance, and it is not suited for security relevant use.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class FastRandom {
+    private static final int INT_BITS = 32;
+
+    private long state;
+
+    /**
+     * Constructs a generator with the given seed.
+     * @param seed the seed of the generator.
+     */
+    public FastRandom(final long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Gets the next random long value.
+     * @return the next random value.
+     */
+    public long nextLong() {
+        this.state += SplitMix64.GOLDEN_GAMMA;
+        return SplitMix64.mix(this.state);
+    }
+
+    /**
+     * Gets a random int value between 0 (inclusive) and the bound (exclusive).
+     * The value is computed with a multiplication instead of a division, its bias is negligible for the bounds of a
+     * board.
+     * @param bound the upper bound, must be positive.
+     * @return the random value.
+     */
+    public int nextInt(final int bound) {
+        return (int) (((nextLong() >>> INT_BITS) * bound) >>> INT_BITS);
+    }
+}
@@ -0,0 +1,81 @@
+package kastel.model.searchalgorithms;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import kastel.model.GameBoard;
+import kastel.model.GameTokens;
+import kastel.model.HexTopology;
+
+/**
+ * A utility class that finds the winning group of a token with an iterative flood fill over the cells of a board.
+ * A group is a set of connected cells holding the same token.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class FloodFill {
+    private static final int INITIAL_STACK_CAPACITY = 64;
+    private static final int GROWTH_FACTOR = 2;
+
+    private FloodFill() {
+        throw new UnsupportedOperationException("Utility class can not be initialized");
+    }
+
+    /**
+     * Finds the group of the given token that connects the two board sides of the token.
+     * The X token connects the north and the south side, the O token the west and the east side. If several groups
+     * connect the sides, the group containing the first cell of the starting side (north or west) is returned.
+     * Every cell is visited at most once.
+     * @param gameBoard the game board to search in.
+     * @param token the token whose winning group is searched.
+     * @return the cells of the winning group, or an empty set if the token has not won.
+     */
+    public static BitSet findWinningGroup(final GameBoard gameBoard, final GameTokens token) {
+        HexTopology topology = gameBoard.getTopology();
+        int boardSize = gameBoard.getBoardSize();
+        BitSet visitedCells = new BitSet(topology.getCellsCount());
+        int[] group = new int[INITIAL_STACK_CAPACITY];
+        for (int i = 0; i < boardSize; i++) {
+            //Starts from the north side for the X token and from the west side for the O token.
+            int startCell = token == GameTokens.X_TOKEN ? topology.getCell(i, 0) : topology.getCell(0, i);
+            if (gameBoard.getCellToken(startCell) != token || visitedCells.get(startCell)) {
+                continue;
+            }
+            //The group array doubles as the stack of the fill, every cell before the cursor has been expanded.
+            group[0] = startCell;
+            visitedCells.set(startCell);
+            int groupSize = 1;
+            int cursor = 0;
+            boolean reachesTargetSide = false;
+            while (cursor < groupSize) {
+                int cell = group[cursor++];
+                reachesTargetSide |= isOnTargetSide(topology, cell, token);
+                for (int slot = 0; slot < HexTopology.NEIGHBOUR_SLOTS; slot++) {
+                    int neighbour = topology.getNeighbour(cell, slot);
+                    if (neighbour != HexTopology.NO_NEIGHBOUR && !visitedCells.get(neighbour)
+                        && gameBoard.getCellToken(neighbour) == token) {
+                        visitedCells.set(neighbour);
+                        if (groupSize == group.length) {
+                            group = Arrays.copyOf(group, group.length * GROWTH_FACTOR);
+                        }
+                        group[groupSize++] = neighbour;
+                    }
+                }
+            }
+            if (reachesTargetSide) {
+                BitSet winningGroup = new BitSet(topology.getCellsCount());
+                for (int j = 0; j < groupSize; j++) {
+                    winningGroup.set(group[j]);
+                }
+                return winningGroup;
+            }
+        }
+        return new BitSet();
+    }
+
+    private static boolean isOnTargetSide(final HexTopology topology, final int cell, final GameTokens token) {
+        if (token == GameTokens.X_TOKEN) {
+            return topology.getyCoordinate(cell) == topology.getBoardSize() - 1;
+        }
+        return topology.getxCoordinate(cell) == topology.getBoardSize() - 1;
+    }
+}
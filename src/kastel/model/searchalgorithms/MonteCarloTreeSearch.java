@@ -0,0 +1,344 @@
+package kastel.model.searchalgorithms;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import kastel.model.CancellationToken;
+import kastel.model.GameBoard;
+import kastel.model.GameTokens;
+
+/**
+ * A Monte Carlo tree search that selects the moves of the tree with the UCT formula.
+ * The search uses root parallelism: every worker thread grows its own tree from the searched position on its own
+ * {@link RandomPlayout} kernel, and the visits of the moves of the root are added up once the budget is spent. The
+ * move with the most visits is chosen.
+ * The nodes of a tree are stored in primitive arrays, the children of a node are stored next to each other. A tree
+ * stops growing once it holds its maximal number of nodes, the playouts then start from its leaves. A random
+ * playout fills the whole board, which always leaves exactly one of the tokens connected, so the tree never has to
+ * check whether a game is already won.
+ * @author ucxug
+ * @version 1.0
+ */
+public class MonteCarloTreeSearch {
+
+    /**
+     * The value returned when the searched position has no empty cell.
+     */
+    public static final int NO_CELL = -1;
+
+    private static final double EXPLORATION_FACTOR = 1.0;
+    private static final double NANOS_PER_MILLISECOND = 1e6;
+    private static final double NANOS_PER_SECOND = 1e9;
+    /**
+     * The number of visits after which a node gets its children, this keeps the trees small.
+     */
+    private static final int EXPANSION_VISITS = 8;
+    private static final int INITIAL_NODES_CAPACITY = 1 << 12;
+    /**
+     * The default maximal number of nodes of a tree, a node takes 20 bytes.
+     */
+    private static final int DEFAULT_MAXIMAL_NODES = 1 << 20;
+    private static final int GROWTH_FACTOR = 2;
+    private static final int NOT_EXPANDED = -1;
+    private static final int ROOT_NODE = 0;
+
+    private final int workersCount;
+    private final long timeBudgetMillis;
+    private final long playoutBudget;
+    private final int maximalNodes;
+    private final SplittableRandom seedRandom;
+    private long lastPlayouts;
+    private double lastPlayoutsPerSecond;
+
+    /**
+     * Constructs a Monte Carlo tree search.
+     * @param workersCount the number of worker threads, each of them grows its own tree.
+     * @param timeBudgetMillis the time a search may take in milliseconds, 0 or less for no time limit.
+     * @param playoutBudget the number of playouts of a search over all workers, 0 or less for no playout limit.
+     */
+    public MonteCarloTreeSearch(final int workersCount, final long timeBudgetMillis, final long playoutBudget) {
+        this(workersCount, timeBudgetMillis, playoutBudget, DEFAULT_MAXIMAL_NODES);
+    }
+
+    /**
+     * Constructs a Monte Carlo tree search whose trees hold at most the given number of nodes.
+     * @param workersCount the number of worker threads, each of them grows its own tree.
+     * @param timeBudgetMillis the time a search may take in milliseconds, 0 or less for no time limit.
+     * @param playoutBudget the number of playouts of a search over all workers, 0 or less for no playout limit.
+     * @param maximalNodes the number of nodes after which a tree stops growing, the children of the root are always
+     *      created.
+     */
+    public MonteCarloTreeSearch(final int workersCount, final long timeBudgetMillis, final long playoutBudget,
+                                final int maximalNodes) {
+        if (workersCount <= 0) {
+            throw new IllegalArgumentException("the number of workers must be positive.");
+        }
+        if (timeBudgetMillis <= 0 && playoutBudget <= 0) {
+            throw new IllegalArgumentException("the search needs a time or a playout budget.");
+        }
+        if (maximalNodes <= 0) {
+            throw new IllegalArgumentException("the maximal number of nodes must be positive.");
+        }
+        this.workersCount = workersCount;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.playoutBudget = playoutBudget;
+        this.maximalNodes = maximalNodes;
+        this.seedRandom = new SplittableRandom();
+    }
+
+    /**
+     * Searches the best move of a position.
+     * @param gameBoard the game board holding the position, it is not changed by the search.
+     * @param sideToMove the token that makes the next move.
+     * @return the index of the cell of the best move, or {@link #NO_CELL} if the board is full.
+     */
+    public int search(final GameBoard gameBoard, final GameTokens sideToMove) {
+        return search(gameBoard, sideToMove, null);
+    }
+
+    /**
+     * Searches the best move of a position among some candidate cells, for example the must play cells found with the
+     * virtual connections. Only the moves of the root are restricted, the playouts still use every empty cell.
+     * @param gameBoard the game board holding the position, it is not changed by the search.
+     * @param sideToMove the token that makes the next move.
+     * @param candidateCells the cells the move is chosen from, or null to choose from all the empty cells.
+     * @return the index of the cell of the best move, or {@link #NO_CELL} if no candidate cell is empty.
+     */
+    public int search(final GameBoard gameBoard, final GameTokens sideToMove, final BitSet candidateCells) {
+        return search(gameBoard, sideToMove, candidateCells,
+            CancellationToken.withBudget(CancellationToken.NO_TIME_LIMIT));
+    }
+
+    /**
+     * Searches the best move of a position among some candidate cells, like
+     * {@link #search(GameBoard, GameTokens, BitSet)}, and stops the workers early once a token is cancelled. The best
+     * move of the playouts made so far is returned. If the calling thread is interrupted, the workers are stopped as
+     * well, the best move of their playouts is returned and the thread keeps its interrupt status.
+     * @param gameBoard the game board holding the position, it is not changed by the search.
+     * @param sideToMove the token that makes the next move.
+     * @param candidateCells the cells the move is chosen from, or null to choose from all the empty cells.
+     * @param cancellationToken the token that stops the search.
+     * @return the index of the cell of the best move, or {@link #NO_CELL} if no candidate cell is empty.
+     */
+    public int search(final GameBoard gameBoard, final GameTokens sideToMove, final BitSet candidateCells,
+                      final CancellationToken cancellationToken) {
+        long start = System.nanoTime();
+        long deadline = this.timeBudgetMillis > 0
+            ? start + (long) (this.timeBudgetMillis * NANOS_PER_MILLISECOND) : Long.MAX_VALUE;
+        long workerPlayouts = this.playoutBudget > 0
+            ? Math.max(1, this.playoutBudget / this.workersCount) : Long.MAX_VALUE;
+        //Stops the workers when the calling thread is interrupted, without cancelling the token of the caller.
+        CancellationToken interruption = CancellationToken.withBudget(CancellationToken.NO_TIME_LIMIT);
+        SearchTree[] trees = new SearchTree[this.workersCount];
+        Thread[] workers = new Thread[this.workersCount];
+        for (int i = 0; i < this.workersCount; i++) {
+            SearchTree tree = new SearchTree(new RandomPlayout(gameBoard, this.seedRandom.nextLong()), sideToMove,
+                candidateCells, this.maximalNodes);
+            trees[i] = tree;
+            workers[i] = new Thread(() -> tree.run(deadline, workerPlayouts, cancellationToken, interruption));
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        boolean interrupted = false;
+        for (Thread worker : workers) {
+            //The trees are only read once every worker has finished writing them.
+            while (worker.isAlive()) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    interruption.cancel();
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        this.lastPlayouts = 0;
+        for (SearchTree tree : trees) {
+            this.lastPlayouts += tree.playouts;
+        }
+        this.lastPlayoutsPerSecond = this.lastPlayouts * NANOS_PER_SECOND / Math.max(1, elapsedNanos);
+        return selectBestMove(trees);
+    }
+
+    /**
+     * Gets the number of playouts of the last search.
+     * @return the number of playouts.
+     */
+    public long getLastPlayouts() {
+        return this.lastPlayouts;
+    }
+
+    /**
+     * Gets the number of playouts per second of the last search, over all workers.
+     * @return the playouts per second.
+     */
+    public double getLastPlayoutsPerSecond() {
+        return this.lastPlayoutsPerSecond;
+    }
+
+    private int selectBestMove(final SearchTree[] trees) {
+        SearchTree firstTree = trees[0];
+        int rootChildren = firstTree.childCounts[ROOT_NODE];
+        if (rootChildren <= 0) {
+            return NO_CELL;
+        }
+        //The children of the root are created in the same order by every worker, before its first playout.
+        int bestChild = NO_CELL;
+        long bestVisits = -1;
+        for (int i = 0; i < rootChildren; i++) {
+            long visits = 0;
+            for (SearchTree tree : trees) {
+                if (tree.childCounts[ROOT_NODE] > 0) {
+                    visits += tree.visits[tree.childStarts[ROOT_NODE] + i];
+                }
+            }
+            if (visits > bestVisits) {
+                bestVisits = visits;
+                bestChild = i;
+            }
+        }
+        return firstTree.moves[firstTree.childStarts[ROOT_NODE] + bestChild];
+    }
+
+    /**
+     * The tree grown by one worker.
+     */
+    private static final class SearchTree {
+        private final RandomPlayout playout;
+        private final GameTokens sideToMove;
+        private final BitSet rootCandidates;
+        private int[] moves;
+        private int[] childStarts;
+        private int[] childCounts;
+        private int[] visits;
+        private int[] wins;
+        private int nodesCount;
+        private final int maximalNodes;
+        private final int[] pathNodes;
+        private final int[] placedCells;
+        private long playouts;
+
+        SearchTree(final RandomPlayout playout, final GameTokens sideToMove, final BitSet rootCandidates,
+                   final int maximalNodes) {
+            this.playout = playout;
+            this.sideToMove = sideToMove;
+            this.rootCandidates = rootCandidates;
+            this.maximalNodes = maximalNodes;
+            this.moves = new int[INITIAL_NODES_CAPACITY];
+            this.childStarts = new int[INITIAL_NODES_CAPACITY];
+            this.childCounts = new int[INITIAL_NODES_CAPACITY];
+            this.visits = new int[INITIAL_NODES_CAPACITY];
+            this.wins = new int[INITIAL_NODES_CAPACITY];
+            int emptyCount = playout.getEmptyCount();
+            this.pathNodes = new int[emptyCount + 1];
+            this.placedCells = new int[emptyCount];
+            this.moves[ROOT_NODE] = NO_CELL;
+            this.childCounts[ROOT_NODE] = NOT_EXPANDED;
+            this.nodesCount = 1;
+        }
+
+        void run(final long deadline, final long maximalPlayouts, final CancellationToken cancellationToken,
+                 final CancellationToken interruption) {
+            expand(ROOT_NODE);
+            if (this.childCounts[ROOT_NODE] == 0) {
+                return;
+            }
+            while (this.playouts < maximalPlayouts && System.nanoTime() < deadline
+                && !cancellationToken.isCancelled() && !interruption.isCancelled()) {
+                iterate();
+                this.playouts++;
+            }
+        }
+
+        private void iterate() {
+            int node = ROOT_NODE;
+            int depth = 0;
+            int placedCount = 0;
+            GameTokens token = this.sideToMove;
+            this.pathNodes[0] = ROOT_NODE;
+            //Selects the moves of the tree until a node without children is reached.
+            while (true) {
+                if (this.childCounts[node] == NOT_EXPANDED && this.visits[node] >= EXPANSION_VISITS
+                    && this.nodesCount + this.playout.getEmptyCount() <= this.maximalNodes) {
+                    expand(node);
+                }
+                if (this.childCounts[node] <= 0) {
+                    break;
+                }
+                node = selectChild(node);
+                this.playout.play(this.moves[node], token);
+                this.placedCells[placedCount++] = this.moves[node];
+                this.pathNodes[++depth] = node;
+                token = token.getRivalToken();
+            }
+            //Fills the rest of the board at random, the token connecting its sides is the winner.
+            GameTokens winner = this.playout.run(token);
+            for (int i = placedCount - 1; i >= 0; i--) {
+                this.playout.undo(this.placedCells[i]);
+            }
+            for (int i = depth; i >= 0; i--) {
+                int pathNode = this.pathNodes[i];
+                this.visits[pathNode]++;
+                //The node at an odd depth was reached by a move of the side to move of the root.
+                GameTokens mover = i % 2 == 1 ? this.sideToMove : this.sideToMove.getRivalToken();
+                if (i > 0 && mover == winner) {
+                    this.wins[pathNode]++;
+                }
+            }
+        }
+
+        private int selectChild(final int node) {
+            int start = this.childStarts[node];
+            int end = start + this.childCounts[node];
+            double parentLogarithm = Math.log(this.visits[node]);
+            int bestChild = start;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int child = start; child < end; child++) {
+                if (this.visits[child] == 0) {
+                    return child;
+                }
+                double value = (double) this.wins[child] / this.visits[child]
+                    + EXPLORATION_FACTOR * Math.sqrt(parentLogarithm / this.visits[child]);
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestChild = child;
+                }
+            }
+            return bestChild;
+        }
+
+        private void expand(final int node) {
+            int emptyCount = this.playout.getEmptyCount();
+            ensureCapacity(this.nodesCount + emptyCount);
+            this.childStarts[node] = this.nodesCount;
+            BitSet candidates = node == ROOT_NODE ? this.rootCandidates : null;
+            for (int i = 0; i < emptyCount; i++) {
+                int cell = this.playout.getEmptyCell(i);
+                if (candidates != null && !candidates.get(cell)) {
+                    continue;
+                }
+                int child = this.nodesCount++;
+                this.moves[child] = cell;
+                this.childCounts[child] = NOT_EXPANDED;
+                this.visits[child] = 0;
+                this.wins[child] = 0;
+            }
+            this.childCounts[node] = this.nodesCount - this.childStarts[node];
+        }
+
+        private void ensureCapacity(final int capacity) {
+            if (capacity <= this.moves.length) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, this.moves.length * GROWTH_FACTOR);
+            this.moves = Arrays.copyOf(this.moves, newCapacity);
+            this.childStarts = Arrays.copyOf(this.childStarts, newCapacity);
+            this.childCounts = Arrays.copyOf(this.childCounts, newCapacity);
+            this.visits = Arrays.copyOf(this.visits, newCapacity);
+            this.wins = Arrays.copyOf(this.wins, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package kastel.model.searchalgorithms;
+
+import kastel.model.GameBoard;
+import kastel.model.GameTokens;
+
+/**
+ * The distances of the cells to both board sides of a token, see {@link EdgeDistanceField}. Together they tell the
+ * length of the shortest path the token still has to fill to connect its sides, and how long the shortest such path
+ * through a given cell is. Both fields are repaired with every changed cell instead of being computed again.
+ * The distances of the {@link GameTokens#EMPTY} token measure the paths over the empty cells only, between the west and
+ * the east side.
+ * @author ucxug
+ * @version 1.0
+ */
+public class PathDistances {
+
+    /**
+     * The length of a path that can not be completed, because the rival has cut it off.
+     */
+    public static final int NO_DISTANCE = EdgeDistanceField.NO_DISTANCE;
+
+    private static final int EMPTY_CELL_LENGTH = 1;
+
+    private final GameTokens token;
+    /**
+     * The distances to the north side of the X token or the west side of the O token.
+     */
+    private final EdgeDistanceField startDistances;
+    /**
+     * The distances to the south side of the X token or the east side of the O token.
+     */
+    private final EdgeDistanceField endDistances;
+
+    /**
+     * Constructs the distances of a token on a game board.
+     * @param gameBoard the game board to copy the stones from, it is only read.
+     * @param token the token, the X or the O token, or the empty token for the paths over the empty cells only.
+     */
+    public PathDistances(final GameBoard gameBoard, final GameTokens token) {
+        this.token = token;
+        this.startDistances = new EdgeDistanceField(gameBoard, token, false);
+        this.endDistances = new EdgeDistanceField(gameBoard, token, true);
+    }
+
+    /**
+     * Updates the distances after the token of a cell changed.
+     * @param cell the index of the cell.
+     * @param cellToken the new token of the cell, a stone or the empty token.
+     */
+    public void setCellToken(final int cell, final GameTokens cellToken) {
+        this.startDistances.setCellToken(cell, cellToken);
+        this.endDistances.setCellToken(cell, cellToken);
+    }
+
+    /**
+     * Gets the number of empty cells the token still has to fill to connect its board sides.
+     * @return the length of the shortest remaining path, 0 if the sides are connected, or {@link #NO_DISTANCE} if
+     *      they can not be connected anymore.
+     */
+    public int getShortestPathLength() {
+        return this.startDistances.getPathLength();
+    }
+
+    /**
+     * Gets the length of the shortest remaining path that passes a cell.
+     * @param cell the index of the cell.
+     * @param cellToken the token placed on the cell.
+     * @return the number of empty cells on the path, or {@link #NO_DISTANCE} if no path can pass the cell.
+     */
+    public int getPathLengthThrough(final int cell, final GameTokens cellToken) {
+        int startDistance = this.startDistances.getDistance(cell);
+        int endDistance = this.endDistances.getDistance(cell);
+        if (startDistance == NO_DISTANCE || endDistance == NO_DISTANCE) {
+            return NO_DISTANCE;
+        }
+        //Both distances count the cell itself.
+        return cellToken == GameTokens.EMPTY ? startDistance + endDistance - EMPTY_CELL_LENGTH
+            : startDistance + endDistance;
+    }
+
+    /**
+     * Copies the distances to the south side of the X token or the east side of the O and the empty token, so they can
+     * be repaired for another position without changing these distances.
+     * @return the copy of the distances.
+     */
+    public EdgeDistanceField copyEndDistances() {
+        return new EdgeDistanceField(this.endDistances);
+    }
+
+    /**
+     * Gets the token the distances belong to.
+     * @return the token.
+     */
+    public GameTokens getToken() {
+        return this.token;
+    }
+}
@@ -0,0 +1,178 @@
+package kastel.model.searchalgorithms;
+
+import java.util.Arrays;
+import kastel.model.GameBoard;
+import kastel.model.GameTokens;
+import kastel.model.HexTopology;
+
+/**
+ * A kernel that plays random games from a position until the board is full.
+ * A full board always has exactly one token connecting its sides, so a playout only shuffles the empty cells, fills
+ * them with alternating stones and checks the winner with one flood fill at the end.
+ * The position is kept in primitive arrays that are allocated once, a playout does not allocate any objects.
+ * Moves can be played and undone on the position of the kernel, which lets a tree search descend before a playout.
+ * A kernel must not be used by several threads at the same time.
+ * @author ucxug
+ * @version 1.0
+ */
+public class RandomPlayout {
+
+    private static final byte EMPTY_CELL = 0;
+    private static final byte X_CELL = 1;
+    private static final byte O_CELL = 2;
+    private static final int NOT_EMPTY = -1;
+
+    private final HexTopology topology;
+    private final int cellsCount;
+    private final int boardSize;
+    private final byte[] cells;
+    /**
+     * Stores the empty cells of the position in any order, the first {@link #emptyCount} entries are valid.
+     */
+    private final int[] emptyCells;
+    /**
+     * Stores the index of every empty cell in {@link #emptyCells}, or {@link #NOT_EMPTY} for the stones.
+     */
+    private final int[] emptyIndices;
+    private final int[] stack;
+    /**
+     * Stores the number of the flood fill that last reached each cell, so the marks never have to be cleared.
+     */
+    private final int[] visitMarks;
+    private final FastRandom random;
+    private int emptyCount;
+    private int visitMark;
+
+    /**
+     * Constructs a kernel holding the position of a game board.
+     * @param gameBoard the game board to copy the position from, it is not changed by the kernel.
+     * @param seed the seed of the random number generator of the kernel.
+     */
+    public RandomPlayout(final GameBoard gameBoard, final long seed) {
+        this.topology = gameBoard.getTopology();
+        this.cellsCount = this.topology.getCellsCount();
+        this.boardSize = this.topology.getBoardSize();
+        this.cells = new byte[this.cellsCount];
+        this.emptyCells = new int[this.cellsCount];
+        this.emptyIndices = new int[this.cellsCount];
+        this.stack = new int[this.cellsCount];
+        this.visitMarks = new int[this.cellsCount];
+        this.random = new FastRandom(seed);
+        for (int cell = 0; cell < this.cellsCount; cell++) {
+            GameTokens token = gameBoard.getCellToken(cell);
+            if (token == GameTokens.EMPTY) {
+                this.cells[cell] = EMPTY_CELL;
+                this.emptyIndices[cell] = this.emptyCount;
+                this.emptyCells[this.emptyCount++] = cell;
+            } else {
+                this.cells[cell] = token == GameTokens.X_TOKEN ? X_CELL : O_CELL;
+                this.emptyIndices[cell] = NOT_EMPTY;
+            }
+        }
+    }
+
+    /**
+     * Places a stone on an empty cell of the position.
+     * @param cell the index of the cell.
+     * @param token the token of the stone, the X or the O token.
+     */
+    public void play(final int cell, final GameTokens token) {
+        int index = this.emptyIndices[cell];
+        if (index == NOT_EMPTY) {
+            throw new IllegalArgumentException("the cell is not empty.");
+        }
+        //The last empty cell takes the place of the removed one.
+        int lastCell = this.emptyCells[--this.emptyCount];
+        this.emptyCells[index] = lastCell;
+        this.emptyIndices[lastCell] = index;
+        this.emptyIndices[cell] = NOT_EMPTY;
+        this.cells[cell] = token == GameTokens.X_TOKEN ? X_CELL : O_CELL;
+    }
+
+    /**
+     * Removes a stone that was placed with {@link #play(int, GameTokens)}.
+     * @param cell the index of the cell.
+     */
+    public void undo(final int cell) {
+        if (this.emptyIndices[cell] != NOT_EMPTY) {
+            throw new IllegalArgumentException("the cell is already empty.");
+        }
+        this.cells[cell] = EMPTY_CELL;
+        this.emptyIndices[cell] = this.emptyCount;
+        this.emptyCells[this.emptyCount++] = cell;
+    }
+
+    /**
+     * Gets the number of empty cells of the position.
+     * @return the number of empty cells.
+     */
+    public int getEmptyCount() {
+        return this.emptyCount;
+    }
+
+    /**
+     * Gets an empty cell of the position, the order of the empty cells changes with every played or undone move.
+     * @param index the index between 0 (inclusive) and {@link #getEmptyCount()} (exclusive).
+     * @return the index of the empty cell.
+     */
+    public int getEmptyCell(final int index) {
+        return this.emptyCells[index];
+    }
+
+    /**
+     * Plays one random game from the position, the position is unchanged afterwards.
+     * @param sideToMove the token that makes the first move of the game.
+     * @return the token that connects its sides on the full board.
+     */
+    public GameTokens run(final GameTokens sideToMove) {
+        byte moverCell = sideToMove == GameTokens.X_TOKEN ? X_CELL : O_CELL;
+        byte rivalCell = moverCell == X_CELL ? O_CELL : X_CELL;
+        //The shuffled empty cells are filled in order, the side to move gets the cells at the even positions.
+        for (int i = 0; i < this.emptyCount; i++) {
+            int swapIndex = i + this.random.nextInt(this.emptyCount - i);
+            int cell = this.emptyCells[swapIndex];
+            this.emptyCells[swapIndex] = this.emptyCells[i];
+            this.emptyCells[i] = cell;
+            this.emptyIndices[cell] = i;
+            this.emptyIndices[this.emptyCells[swapIndex]] = swapIndex;
+            this.cells[cell] = i % 2 == 0 ? moverCell : rivalCell;
+        }
+        GameTokens winner = isXConnected() ? GameTokens.X_TOKEN : GameTokens.O_TOKEN;
+        for (int i = 0; i < this.emptyCount; i++) {
+            this.cells[this.emptyCells[i]] = EMPTY_CELL;
+        }
+        return winner;
+    }
+
+    private boolean isXConnected() {
+        if (++this.visitMark == 0) {
+            //The marks start over once the counter overflows.
+            Arrays.fill(this.visitMarks, 0);
+            this.visitMark = 1;
+        }
+        int stackSize = 0;
+        //The flood fill starts from the X stones of the north side, the cells of the first row.
+        for (int cell = 0; cell < this.boardSize; cell++) {
+            if (this.cells[cell] == X_CELL) {
+                this.visitMarks[cell] = this.visitMark;
+                this.stack[stackSize++] = cell;
+            }
+        }
+        int southSideStart = this.cellsCount - this.boardSize;
+        while (stackSize > 0) {
+            int cell = this.stack[--stackSize];
+            if (cell >= southSideStart) {
+                return true;
+            }
+            for (int slot = 0; slot < HexTopology.NEIGHBOUR_SLOTS; slot++) {
+                int neighbour = this.topology.getNeighbour(cell, slot);
+                if (neighbour != HexTopology.NO_NEIGHBOUR && this.cells[neighbour] == X_CELL
+                    && this.visitMarks[neighbour] != this.visitMark) {
+                    this.visitMarks[neighbour] = this.visitMark;
+                    this.stack[stackSize++] = neighbour;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,227 @@
+package kastel.model.searchalgorithms;
+
+import java.util.Arrays;
+import kastel.model.GameBoard;
+import kastel.model.GameTokens;
+import kastel.model.HexTopology;
+
+/**
+ * An evaluator that rates a position by modelling the board as an electrical resistor network for each token.
+ * The cells of the token have almost no resistance, the empty cells a resistance of 1 and the cells of the rival are
+ * not part of the network. The two board sides of the token are connected to a voltage of 1 and 0, the resistance
+ * between them is computed by solving the potentials of the cells with a preconditioned conjugate gradient method.
+ * A token whose sides have a lower resistance than the sides of its rival has the better position.
+ * The arrays of the solver are reused between the evaluations, and the last potentials of each token are used as the
+ * starting point of the next solve, so evaluating a position after one more move only needs a few iterations.
+ * An evaluator must not be used by several threads at the same time.
+ * @author ucxug
+ * @version 1.0
+ */
+public class ResistanceEvaluator {
+
+    /**
+     * The score of a position in which the rival can not connect its sides anymore, or the negated score if the token
+     * can not connect its sides anymore.
+     */
+    public static final double WINNING_SCORE = 1000;
+
+    private static final double STONE_RESISTANCE = 0.01;
+    private static final double EMPTY_RESISTANCE = 1;
+    /**
+     * A small conductance from every cell to the potential 0, it keeps the system solvable for cells that are cut off
+     * from both sides.
+     */
+    private static final double LEAK_CONDUCTANCE = 1e-9;
+    private static final double TOLERANCE = 1e-8;
+    private static final double START_POTENTIAL = 1;
+    private static final int STONE_TOKENS_COUNT = 2;
+
+    private final HexTopology topology;
+    private final int cellsCount;
+    /**
+     * Stores the conductance between every cell and the neighbour of each of its slots.
+     */
+    private final double[] conductances;
+    private final double[] diagonal;
+    private final double[] sourceConductances;
+    private final double[] rightHandSide;
+    private final double[] residual;
+    private final double[] preconditioned;
+    private final double[] direction;
+    private final double[] product;
+    /**
+     * Stores the last potentials of the cells for the X and the O token.
+     */
+    private final double[][] potentials;
+    private int lastIterations;
+
+    /**
+     * Constructs an evaluator for the boards of the given size.
+     * @param boardSize the size of the boards to evaluate.
+     */
+    public ResistanceEvaluator(final int boardSize) {
+        this.topology = HexTopology.forBoardSize(boardSize);
+        this.cellsCount = this.topology.getCellsCount();
+        this.conductances = new double[this.cellsCount * HexTopology.NEIGHBOUR_SLOTS];
+        this.diagonal = new double[this.cellsCount];
+        this.sourceConductances = new double[this.cellsCount];
+        this.rightHandSide = new double[this.cellsCount];
+        this.residual = new double[this.cellsCount];
+        this.preconditioned = new double[this.cellsCount];
+        this.direction = new double[this.cellsCount];
+        this.product = new double[this.cellsCount];
+        this.potentials = new double[STONE_TOKENS_COUNT][this.cellsCount];
+    }
+
+    /**
+     * Evaluates a position for the given token.
+     * @param gameBoard the game board holding the position, it must have the size of the evaluator.
+     * @param token the token to evaluate the position for.
+     * @return the logarithm of the ratio between the resistance of the rival and the resistance of the token, or
+     *      plus or minus {@link #WINNING_SCORE} if one of the tokens can not connect its sides anymore.
+     */
+    public double evaluate(final GameBoard gameBoard, final GameTokens token) {
+        double ownResistance = computeResistance(gameBoard, token);
+        double rivalResistance = computeResistance(gameBoard, token.getRivalToken());
+        if (Double.isInfinite(ownResistance)) {
+            return Double.isInfinite(rivalResistance) ? 0 : -WINNING_SCORE;
+        }
+        if (Double.isInfinite(rivalResistance)) {
+            return WINNING_SCORE;
+        }
+        return Math.log(rivalResistance) - Math.log(ownResistance);
+    }
+
+    /**
+     * Computes the resistance between the two board sides of a token.
+     * @param gameBoard the game board holding the position, it must have the size of the evaluator.
+     * @param token the token whose sides are connected, the X or the O token.
+     * @return the resistance between the sides, or {@link Double#POSITIVE_INFINITY} if the rival cut them off.
+     */
+    public double computeResistance(final GameBoard gameBoard, final GameTokens token) {
+        if (gameBoard.getBoardSize() != this.topology.getBoardSize()) {
+            throw new IllegalArgumentException("the board size does not match the evaluator.");
+        }
+        if (gameBoard.getConnectivity().isConnected(token.getRivalToken())) {
+            //A rival connecting its own sides always separates the sides of the token.
+            return Double.POSITIVE_INFINITY;
+        }
+        buildNetwork(gameBoard, token);
+        double[] cellPotentials = this.potentials[token == GameTokens.X_TOKEN ? 0 : 1];
+        solve(cellPotentials);
+        //The current leaving the source side through every connected cell.
+        double current = 0;
+        for (int cell = 0; cell < this.cellsCount; cell++) {
+            current += this.sourceConductances[cell] * (1 - cellPotentials[cell]);
+        }
+        return 1 / current;
+    }
+
+    /**
+     * Gets the number of iterations the last solve needed.
+     * @return the number of iterations.
+     */
+    public int getLastIterations() {
+        return this.lastIterations;
+    }
+
+    private void buildNetwork(final GameBoard gameBoard, final GameTokens token) {
+        int boardSize = this.topology.getBoardSize();
+        Arrays.fill(this.conductances, 0);
+        Arrays.fill(this.sourceConductances, 0);
+        Arrays.fill(this.rightHandSide, 0);
+        for (int cell = 0; cell < this.cellsCount; cell++) {
+            double resistance = getResistance(gameBoard.getCellToken(cell), token);
+            double diagonalValue = LEAK_CONDUCTANCE;
+            if (resistance > 0) {
+                for (int slot = 0; slot < HexTopology.NEIGHBOUR_SLOTS; slot++) {
+                    int neighbour = this.topology.getNeighbour(cell, slot);
+                    if (neighbour == HexTopology.NO_NEIGHBOUR) {
+                        continue;
+                    }
+                    double neighbourResistance = getResistance(gameBoard.getCellToken(neighbour), token);
+                    if (neighbourResistance > 0) {
+                        double conductance = 1 / (resistance + neighbourResistance);
+                        this.conductances[cell * HexTopology.NEIGHBOUR_SLOTS + slot] = conductance;
+                        diagonalValue += conductance;
+                    }
+                }
+                //The cells on the board sides are connected to the sides with their own resistance.
+                int sideCoordinate = token == GameTokens.X_TOKEN
+                    ? this.topology.getyCoordinate(cell) : this.topology.getxCoordinate(cell);
+                if (sideCoordinate == 0) {
+                    this.sourceConductances[cell] = 1 / resistance;
+                    this.rightHandSide[cell] = 1 / resistance;
+                    diagonalValue += 1 / resistance;
+                }
+                if (sideCoordinate == boardSize - 1) {
+                    diagonalValue += 1 / resistance;
+                }
+            }
+            this.diagonal[cell] = diagonalValue;
+        }
+    }
+
+    private double getResistance(final GameTokens cellToken, final GameTokens token) {
+        if (cellToken == token) {
+            return STONE_RESISTANCE;
+        }
+        if (cellToken == GameTokens.EMPTY) {
+            return EMPTY_RESISTANCE;
+        }
+        //The cells of the rival are not part of the network.
+        return 0;
+    }
+
+    private void solve(final double[] cellPotentials) {
+        multiply(cellPotentials, this.product);
+        double rightHandSideNorm = 0;
+        for (int cell = 0; cell < this.cellsCount; cell++) {
+            this.residual[cell] = this.rightHandSide[cell] - this.product[cell];
+            this.preconditioned[cell] = this.residual[cell] / this.diagonal[cell];
+            this.direction[cell] = this.preconditioned[cell];
+            rightHandSideNorm += this.rightHandSide[cell] * this.rightHandSide[cell];
+        }
+        double residualProduct = dot(this.residual, this.preconditioned);
+        double threshold = TOLERANCE * TOLERANCE * Math.max(rightHandSideNorm, START_POTENTIAL);
+        this.lastIterations = 0;
+        while (this.lastIterations < this.cellsCount && dot(this.residual, this.residual) > threshold) {
+            multiply(this.direction, this.product);
+            double step = residualProduct / dot(this.direction, this.product);
+            for (int cell = 0; cell < this.cellsCount; cell++) {
+                cellPotentials[cell] += step * this.direction[cell];
+                this.residual[cell] -= step * this.product[cell];
+                this.preconditioned[cell] = this.residual[cell] / this.diagonal[cell];
+            }
+            double nextResidualProduct = dot(this.residual, this.preconditioned);
+            double directionFactor = nextResidualProduct / residualProduct;
+            for (int cell = 0; cell < this.cellsCount; cell++) {
+                this.direction[cell] = this.preconditioned[cell] + directionFactor * this.direction[cell];
+            }
+            residualProduct = nextResidualProduct;
+            this.lastIterations++;
+        }
+    }
+
+    private void multiply(final double[] vector, final double[] result) {
+        for (int cell = 0; cell < this.cellsCount; cell++) {
+            double value = this.diagonal[cell] * vector[cell];
+            int slotsStart = cell * HexTopology.NEIGHBOUR_SLOTS;
+            for (int slot = 0; slot < HexTopology.NEIGHBOUR_SLOTS; slot++) {
+                double conductance = this.conductances[slotsStart + slot];
+                if (conductance != 0) {
+                    value -= conductance * vector[this.topology.getNeighbour(cell, slot)];
+                }
+            }
+            result[cell] = value;
+        }
+    }
+
+    private double dot(final double[] first, final double[] second) {
+        double sum = 0;
+        for (int cell = 0; cell < this.cellsCount; cell++) {
+            sum += first[cell] * second[cell];
+        }
+        return sum;
+    }
+}
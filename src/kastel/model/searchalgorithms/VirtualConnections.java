@@ -0,0 +1,494 @@
+package kastel.model.searchalgorithms;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import kastel.model.GameBoard;
+import kastel.model.GameTokens;
+import kastel.model.HexTopology;
+
+/**
+ * A calculator of the virtual connections of one token, found with the AND and OR rules of the H-search.
+ * The points of the search are the empty cells, the groups of the token and its two board sides, a group touching a
+ * side is part of that side. A full connection between two points can not be broken by the rival, even if the rival
+ * moves first, as long as the token answers inside the carrier of the connection. A semi connection becomes a full
+ * connection with one more move of the token inside its carrier.
+ * Two full connections sharing a point and having disjoint carriers are combined by the AND rule: into a full
+ * connection if the shared point is a group, into a semi connection if it is an empty cell. Semi connections between
+ * the same points whose carriers have no common cell are combined into a full connection by the OR rule. The bridges
+ * and the edge templates of the second row are found this way, and bigger patterns as far as the carriers stay below
+ * {@link #MAXIMAL_CARRIER_SIZE} cells.
+ * The connections are updated after every move instead of being computed again: a move of the rival removes the
+ * connections using its cell, a move of the token merges the points it joins and combines the merged point again.
+ * The incremental result can miss a few connections a full computation would find, but it never contains a
+ * connection that does not hold.
+ * @author ucxug
+ * @version 1.0
+ */
+public class VirtualConnections {
+
+    /**
+     * The maximal number of cells of the carrier of a connection.
+     */
+    public static final int MAXIMAL_CARRIER_SIZE = 12;
+    /**
+     * The size of the biggest boards the connections should be searched on, the search gets too slow beyond it.
+     */
+    public static final int MAXIMAL_BOARD_SIZE = 19;
+
+    private static final int MAXIMAL_FULL_CONNECTIONS = 6;
+    private static final int MAXIMAL_SEMI_CONNECTIONS = 12;
+    /**
+     * The maximal number of semi connections the OR rule combines at once.
+     */
+    private static final int MAXIMAL_OR_SIZE = 4;
+    private static final int SIDES_COUNT = 2;
+
+    private final HexTopology topology;
+    private final GameTokens token;
+    private final int cellsCount;
+    private final int startSide;
+    private final int endSide;
+    /**
+     * The union-find parents of the points, the groups of the token and its sides are merged into one point each.
+     */
+    private final int[] parents;
+    private final GameTokens[] cellTokens;
+    /**
+     * Stores for every point the points it has a full connection to.
+     */
+    private final BitSet[] fullPartners;
+    private final Map<Long, List<BitSet>> fullConnections;
+    private final Map<Long, List<BitSet>> semiConnections;
+    private final Deque<Connection> pendingConnections;
+
+    /**
+     * Computes the virtual connections of a token on a game board.
+     * @param gameBoard the game board, it is only read.
+     * @param token the token to connect, the X or the O token.
+     */
+    public VirtualConnections(final GameBoard gameBoard, final GameTokens token) {
+        this.topology = gameBoard.getTopology();
+        this.token = token;
+        this.cellsCount = this.topology.getCellsCount();
+        this.startSide = this.cellsCount;
+        this.endSide = this.cellsCount + 1;
+        int pointsCount = this.cellsCount + SIDES_COUNT;
+        this.parents = new int[pointsCount];
+        this.cellTokens = new GameTokens[this.cellsCount];
+        this.fullPartners = new BitSet[pointsCount];
+        for (int point = 0; point < pointsCount; point++) {
+            this.parents[point] = point;
+            this.fullPartners[point] = new BitSet(pointsCount);
+        }
+        this.fullConnections = new HashMap<>();
+        this.semiConnections = new HashMap<>();
+        this.pendingConnections = new ArrayDeque<>();
+        for (int cell = 0; cell < this.cellsCount; cell++) {
+            this.cellTokens[cell] = gameBoard.getCellToken(cell);
+        }
+        for (int cell = 0; cell < this.cellsCount; cell++) {
+            if (this.cellTokens[cell] == token) {
+                joinStone(cell);
+            }
+        }
+        for (int cell = 0; cell < this.cellsCount; cell++) {
+            if (this.cellTokens[cell] == GameTokens.EMPTY) {
+                addAdjacentConnections(cell);
+            }
+        }
+        combinePending();
+    }
+
+    /**
+     * Updates the connections after a stone has been placed on an empty cell.
+     * @param cell the index of the cell.
+     * @param stoneToken the token of the stone, the token of the calculator or its rival.
+     */
+    public void play(final int cell, final GameTokens stoneToken) {
+        if (this.cellTokens[cell] != GameTokens.EMPTY) {
+            throw new IllegalArgumentException("the cell %d is not empty.".formatted(cell));
+        }
+        this.cellTokens[cell] = stoneToken;
+        if (stoneToken != this.token) {
+            //The rival cell can not be an endpoint or a part of a carrier anymore.
+            removeConnections(point -> point == cell, cell);
+            return;
+        }
+        int mergedPoint = joinStone(cell);
+        //The connections of the points that became one are moved to the merged point, a semi connection using the
+        //cell can not be trusted anymore, but a full connection stays full without the cell.
+        List<Connection> movedConnections = new ArrayList<>();
+        for (Map.Entry<Long, List<BitSet>> entry : this.fullConnections.entrySet()) {
+            int first = getFirstPoint(entry.getKey());
+            int second = getSecondPoint(entry.getKey());
+            boolean moved = isMerged(first, mergedPoint) || isMerged(second, mergedPoint);
+            for (BitSet carrier : entry.getValue()) {
+                if (moved || carrier.get(cell)) {
+                    BitSet newCarrier = (BitSet) carrier.clone();
+                    newCarrier.clear(cell);
+                    movedConnections.add(new Connection(find(first), find(second), newCarrier, true));
+                }
+            }
+        }
+        for (Map.Entry<Long, List<BitSet>> entry : this.semiConnections.entrySet()) {
+            int first = getFirstPoint(entry.getKey());
+            int second = getSecondPoint(entry.getKey());
+            if (!isMerged(first, mergedPoint) && !isMerged(second, mergedPoint)) {
+                continue;
+            }
+            for (BitSet carrier : entry.getValue()) {
+                if (!carrier.get(cell)) {
+                    movedConnections.add(new Connection(find(first), find(second), carrier, false));
+                }
+            }
+        }
+        removeConnections(point -> isMerged(point, mergedPoint), cell);
+        for (Connection connection : movedConnections) {
+            addConnection(connection.first, connection.second, connection.carrier, connection.full);
+        }
+        //The merged point may take part in new combinations.
+        for (int partner = this.fullPartners[mergedPoint].nextSetBit(0); partner >= 0;
+             partner = this.fullPartners[mergedPoint].nextSetBit(partner + 1)) {
+            for (BitSet carrier : getConnections(this.fullConnections, mergedPoint, partner)) {
+                this.pendingConnections.add(new Connection(mergedPoint, partner, carrier, true));
+            }
+        }
+        combinePending();
+    }
+
+    /**
+     * Checks whether the token can connect its sides, even if the rival moves next.
+     * @return true if the sides are connected by stones or by a full connection, false otherwise.
+     */
+    public boolean isDecided() {
+        int start = find(this.startSide);
+        int end = find(this.endSide);
+        return start == end || !getConnections(this.fullConnections, start, end).isEmpty();
+    }
+
+    /**
+     * Checks whether the stones of the token connect its sides.
+     * @return true if the sides are connected, false otherwise.
+     */
+    public boolean isConnected() {
+        return find(this.startSide) == find(this.endSide);
+    }
+
+    /**
+     * Gets the cells the rival must play on to keep the token from connecting its sides: the cells that are part of
+     * the carrier of every full and every semi connection between the sides.
+     * @return the must play cells, or null if the token has no connection between its sides.
+     */
+    public BitSet getMustPlayCells() {
+        int start = find(this.startSide);
+        int end = find(this.endSide);
+        if (start == end) {
+            return new BitSet();
+        }
+        BitSet mustPlayCells = null;
+        for (Map<Long, List<BitSet>> connections : List.of(this.fullConnections, this.semiConnections)) {
+            for (BitSet carrier : getConnections(connections, start, end)) {
+                if (mustPlayCells == null) {
+                    mustPlayCells = (BitSet) carrier.clone();
+                } else {
+                    mustPlayCells.and(carrier);
+                }
+            }
+        }
+        return mustPlayCells;
+    }
+
+    /**
+     * Gets the smallest carrier of the full connections between the sides of the token.
+     * @return a copy of the carrier, or null if the sides have no full connection.
+     */
+    public BitSet getWinningCarrier() {
+        int start = find(this.startSide);
+        int end = find(this.endSide);
+        if (start == end) {
+            return new BitSet();
+        }
+        BitSet smallestCarrier = null;
+        for (BitSet carrier : getConnections(this.fullConnections, start, end)) {
+            if (smallestCarrier == null || carrier.cardinality() < smallestCarrier.cardinality()) {
+                smallestCarrier = carrier;
+            }
+        }
+        return smallestCarrier == null ? null : (BitSet) smallestCarrier.clone();
+    }
+
+    /**
+     * Gets the token whose connections are calculated.
+     * @return the token.
+     */
+    public GameTokens getToken() {
+        return this.token;
+    }
+
+    private int joinStone(final int cell) {
+        int sideCoordinate = this.token == GameTokens.X_TOKEN
+            ? this.topology.getyCoordinate(cell) : this.topology.getxCoordinate(cell);
+        if (sideCoordinate == 0) {
+            union(cell, this.startSide);
+        }
+        if (sideCoordinate == this.topology.getBoardSize() - 1) {
+            union(cell, this.endSide);
+        }
+        for (int slot = 0; slot < HexTopology.NEIGHBOUR_SLOTS; slot++) {
+            int neighbour = this.topology.getNeighbour(cell, slot);
+            if (neighbour != HexTopology.NO_NEIGHBOUR && this.cellTokens[neighbour] == this.token) {
+                union(cell, neighbour);
+            }
+        }
+        return find(cell);
+    }
+
+    private void addAdjacentConnections(final int cell) {
+        BitSet emptyCarrier = new BitSet();
+        for (int slot = 0; slot < HexTopology.NEIGHBOUR_SLOTS; slot++) {
+            int neighbour = this.topology.getNeighbour(cell, slot);
+            if (neighbour != HexTopology.NO_NEIGHBOUR && this.cellTokens[neighbour] != this.token.getRivalToken()) {
+                addConnection(cell, find(neighbour), emptyCarrier, true);
+            }
+        }
+        int sideCoordinate = this.token == GameTokens.X_TOKEN
+            ? this.topology.getyCoordinate(cell) : this.topology.getxCoordinate(cell);
+        if (sideCoordinate == 0) {
+            addConnection(cell, find(this.startSide), emptyCarrier, true);
+        }
+        if (sideCoordinate == this.topology.getBoardSize() - 1) {
+            addConnection(cell, find(this.endSide), emptyCarrier, true);
+        }
+    }
+
+    private void combinePending() {
+        while (!this.pendingConnections.isEmpty()) {
+            Connection connection = this.pendingConnections.poll();
+            //The connection may have been replaced by a smaller one meanwhile.
+            if (!getConnections(this.fullConnections, connection.first, connection.second)
+                .contains(connection.carrier)) {
+                continue;
+            }
+            combineThrough(connection.second, connection.first, connection.carrier);
+            combineThrough(connection.first, connection.second, connection.carrier);
+        }
+    }
+
+    /**
+     * Applies the AND rule to a new full connection and every other full connection of one of its points.
+     * @param middle the shared point.
+     * @param end the other point of the new connection.
+     * @param carrier the carrier of the new connection.
+     */
+    private void combineThrough(final int middle, final int end, final BitSet carrier) {
+        if (isSide(middle)) {
+            //A side can not pass a connection on.
+            return;
+        }
+        boolean emptyMiddle = middle < this.cellsCount && this.cellTokens[middle] == GameTokens.EMPTY;
+        BitSet partners = (BitSet) this.fullPartners[middle].clone();
+        for (int partner = partners.nextSetBit(0); partner >= 0; partner = partners.nextSetBit(partner + 1)) {
+            if (partner == end || isEmptyCellIn(partner, carrier)) {
+                continue;
+            }
+            for (BitSet otherCarrier : List.copyOf(getConnections(this.fullConnections, middle, partner))) {
+                if (carrier.intersects(otherCarrier) || isEmptyCellIn(end, otherCarrier)) {
+                    continue;
+                }
+                BitSet newCarrier = (BitSet) carrier.clone();
+                newCarrier.or(otherCarrier);
+                if (emptyMiddle) {
+                    newCarrier.set(middle);
+                    addSemiConnection(end, partner, newCarrier);
+                } else {
+                    addConnection(end, partner, newCarrier, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a semi connection and applies the OR rule to it and the other semi connections between its points.
+     */
+    private void addSemiConnection(final int first, final int second, final BitSet carrier) {
+        if (!addConnection(first, second, carrier, false)) {
+            return;
+        }
+        List<BitSet> semis = List.copyOf(getConnections(this.semiConnections, first, second));
+        BitSet intersection = (BitSet) carrier.clone();
+        BitSet union = (BitSet) carrier.clone();
+        int combinedCount = 1;
+        for (BitSet other : semis) {
+            if (other.equals(carrier)) {
+                continue;
+            }
+            if (!other.intersects(carrier)) {
+                BitSet newCarrier = (BitSet) carrier.clone();
+                newCarrier.or(other);
+                addConnection(first, second, newCarrier, true);
+            }
+            //The greedy combination of more than two semi connections.
+            BitSet narrowed = (BitSet) intersection.clone();
+            narrowed.and(other);
+            if (combinedCount < MAXIMAL_OR_SIZE && narrowed.cardinality() < intersection.cardinality()) {
+                intersection = narrowed;
+                union.or(other);
+                combinedCount++;
+                if (intersection.isEmpty()) {
+                    addConnection(first, second, union, true);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a connection unless a connection with a smaller carrier already exists, the connections with a bigger
+     * carrier are removed. A new full connection is queued for the AND rule.
+     * @return true if the connection was added, false otherwise.
+     */
+    private boolean addConnection(final int first, final int second, final BitSet carrier, final boolean full) {
+        if (first == second || carrier.cardinality() > MAXIMAL_CARRIER_SIZE
+            || isEmptyCellIn(first, carrier) || isEmptyCellIn(second, carrier)) {
+            return false;
+        }
+        Map<Long, List<BitSet>> connections = full ? this.fullConnections : this.semiConnections;
+        long key = getPairKey(first, second);
+        List<BitSet> carriers = connections.computeIfAbsent(key, pairKey -> new ArrayList<>());
+        for (BitSet existing : carriers) {
+            if (isSubset(existing, carrier)) {
+                return false;
+            }
+        }
+        if (full) {
+            //A semi connection containing a full connection is useless.
+            List<BitSet> semis = this.semiConnections.get(key);
+            if (semis != null) {
+                semis.removeIf(semi -> isSubset(carrier, semi));
+            }
+        } else if (getConnections(this.fullConnections, first, second).stream()
+            .anyMatch(existing -> isSubset(existing, carrier))) {
+            return false;
+        }
+        carriers.removeIf(existing -> isSubset(carrier, existing));
+        if (carriers.size() >= (full ? MAXIMAL_FULL_CONNECTIONS : MAXIMAL_SEMI_CONNECTIONS)) {
+            return false;
+        }
+        carriers.add(carrier);
+        if (full) {
+            this.fullPartners[first].set(second);
+            this.fullPartners[second].set(first);
+            this.pendingConnections.add(new Connection(first, second, carrier, true));
+        }
+        return true;
+    }
+
+    /**
+     * Removes the connections with a matching endpoint and the connections whose carrier contains the cell.
+     */
+    private void removeConnections(final IntPredicate endpoint, final int cell) {
+        for (Map<Long, List<BitSet>> connections : List.of(this.fullConnections, this.semiConnections)) {
+            Iterator<Map.Entry<Long, List<BitSet>>> iterator = connections.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, List<BitSet>> entry = iterator.next();
+                int first = getFirstPoint(entry.getKey());
+                int second = getSecondPoint(entry.getKey());
+                if (endpoint.test(first) || endpoint.test(second)) {
+                    entry.getValue().clear();
+                } else {
+                    entry.getValue().removeIf(carrier -> carrier.get(cell));
+                }
+                if (entry.getValue().isEmpty()) {
+                    iterator.remove();
+                    if (connections == this.fullConnections) {
+                        this.fullPartners[first].clear(second);
+                        this.fullPartners[second].clear(first);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<BitSet> getConnections(final Map<Long, List<BitSet>> connections, final int first,
+                                        final int second) {
+        List<BitSet> carriers = connections.get(getPairKey(first, second));
+        return carriers == null ? List.of() : carriers;
+    }
+
+    private boolean isMerged(final int point, final int mergedPoint) {
+        return find(point) != point || point == mergedPoint;
+    }
+
+    private boolean isEmptyCellIn(final int point, final BitSet carrier) {
+        return point < this.cellsCount && carrier.get(point);
+    }
+
+    private boolean isSide(final int point) {
+        return find(point) == find(this.startSide) || find(point) == find(this.endSide);
+    }
+
+    private long getPairKey(final int first, final int second) {
+        long pointsCount = this.parents.length;
+        return Math.min(first, second) * pointsCount + Math.max(first, second);
+    }
+
+    private int getFirstPoint(final long key) {
+        return (int) (key / this.parents.length);
+    }
+
+    private int getSecondPoint(final long key) {
+        return (int) (key % this.parents.length);
+    }
+
+    private int find(final int point) {
+        int root = point;
+        while (this.parents[root] != root) {
+            root = this.parents[root];
+        }
+        return root;
+    }
+
+    private void union(final int first, final int second) {
+        int firstRoot = find(first);
+        int secondRoot = find(second);
+        if (firstRoot == secondRoot) {
+            return;
+        }
+        //The sides stay the roots of their sets, so they keep their point.
+        if (secondRoot >= this.cellsCount) {
+            this.parents[firstRoot] = secondRoot;
+        } else {
+            this.parents[secondRoot] = firstRoot;
+        }
+    }
+
+    private static boolean isSubset(final BitSet subset, final BitSet set) {
+        BitSet difference = (BitSet) subset.clone();
+        difference.andNot(set);
+        return difference.isEmpty();
+    }
+
+    /**
+     * A connection waiting for the AND rule, or a connection moved to a merged point.
+     */
+    private static final class Connection {
+        private final int first;
+        private final int second;
+        private final BitSet carrier;
+        private final boolean full;
+
+        Connection(final int first, final int second, final BitSet carrier, final boolean full) {
+            this.first = first;
+            this.second = second;
+            this.carrier = carrier;
+            this.full = full;
+        }
+    }
+}
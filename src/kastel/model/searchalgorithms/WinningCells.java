@@ -0,0 +1,132 @@
+package kastel.model.searchalgorithms;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import kastel.model.GameBoard;
+import kastel.model.GameTokens;
+import kastel.model.HexTopology;
+
+/**
+ * A utility class that finds the empty cells on which a token would win with one linear pass over a board.
+ * The groups of the token are labelled first, each group remembers which of the two board sides of the token it
+ * touches. An empty cell is winning if the cell itself and its neighbour groups touch both sides together.
+ * The X token connects the north and the south side, the O token the west and the east side.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class WinningCells {
+
+    /**
+     * The value returned when there is no winning cell.
+     */
+    public static final int NO_CELL = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int GROWTH_FACTOR = 2;
+    private static final int NO_GROUP = 0;
+    private static final byte START_SIDE = 1;
+    private static final byte END_SIDE = 2;
+    private static final byte BOTH_SIDES = START_SIDE | END_SIDE;
+
+    private WinningCells() {
+        throw new UnsupportedOperationException("Utility class can not be initialized");
+    }
+
+    /**
+     * Finds all the empty cells on which the given token would connect its two board sides.
+     * If the token already connects its sides, every empty cell is winning.
+     * @param gameBoard the game board to search in.
+     * @param token the token to place.
+     * @return the indices of the winning cells, see {@link HexTopology#getCell(int, int)}.
+     */
+    public static BitSet findWinningCells(final GameBoard gameBoard, final GameTokens token) {
+        HexTopology topology = gameBoard.getTopology();
+        int cellsCount = topology.getCellsCount();
+        //Stores the group number of every stone of the token, the groups are numbered from 1.
+        int[] groupLabels = new int[cellsCount];
+        byte[] groupSides = new byte[INITIAL_CAPACITY];
+        int groupsCount = 0;
+        boolean connected = false;
+        int[] stack = new int[INITIAL_CAPACITY];
+        for (int cell = 0; cell < cellsCount; cell++) {
+            if (groupLabels[cell] != NO_GROUP || gameBoard.getCellToken(cell) != token) {
+                continue;
+            }
+            int label = groupsCount + 1;
+            byte sides = 0;
+            groupLabels[cell] = label;
+            stack[0] = cell;
+            int stackSize = 1;
+            while (stackSize > 0) {
+                int groupCell = stack[--stackSize];
+                sides |= getSides(topology, groupCell, token);
+                for (int slot = 0; slot < HexTopology.NEIGHBOUR_SLOTS; slot++) {
+                    int neighbour = topology.getNeighbour(groupCell, slot);
+                    if (neighbour != HexTopology.NO_NEIGHBOUR && groupLabels[neighbour] == NO_GROUP
+                        && gameBoard.getCellToken(neighbour) == token) {
+                        groupLabels[neighbour] = label;
+                        if (stackSize == stack.length) {
+                            stack = Arrays.copyOf(stack, stack.length * GROWTH_FACTOR);
+                        }
+                        stack[stackSize++] = neighbour;
+                    }
+                }
+            }
+            if (groupsCount == groupSides.length) {
+                groupSides = Arrays.copyOf(groupSides, groupSides.length * GROWTH_FACTOR);
+            }
+            groupSides[groupsCount++] = sides;
+            connected |= sides == BOTH_SIDES;
+        }
+        BitSet winningCells = new BitSet(cellsCount);
+        for (int cell = 0; cell < cellsCount; cell++) {
+            if (gameBoard.getCellToken(cell) != GameTokens.EMPTY) {
+                continue;
+            }
+            //A stone on the cell would join all the neighbour groups of the token.
+            byte sides = connected ? BOTH_SIDES : getSides(topology, cell, token);
+            for (int slot = 0; slot < HexTopology.NEIGHBOUR_SLOTS && sides != BOTH_SIDES; slot++) {
+                int neighbour = topology.getNeighbour(cell, slot);
+                if (neighbour != HexTopology.NO_NEIGHBOUR && groupLabels[neighbour] != NO_GROUP) {
+                    sides |= groupSides[groupLabels[neighbour] - 1];
+                }
+            }
+            if (sides == BOTH_SIDES) {
+                winningCells.set(cell);
+            }
+        }
+        return winningCells;
+    }
+
+    /**
+     * Finds the winning cell of the given token with the lowest x coordinate, and with the lowest y coordinate among
+     * those.
+     * @param gameBoard the game board to search in.
+     * @param token the token to place.
+     * @return the index of the winning cell, or {@link #NO_CELL} if the token can not win with one stone.
+     */
+    public static int findFirstWinningCell(final GameBoard gameBoard, final GameTokens token) {
+        HexTopology topology = gameBoard.getTopology();
+        BitSet winningCells = findWinningCells(gameBoard, token);
+        int firstCell = NO_CELL;
+        for (int cell = winningCells.nextSetBit(0); cell >= 0; cell = winningCells.nextSetBit(cell + 1)) {
+            if (firstCell == NO_CELL || topology.getxCoordinate(cell) < topology.getxCoordinate(firstCell)) {
+                //The cells are visited by increasing y coordinate, so only a lower x coordinate is better.
+                firstCell = cell;
+            }
+        }
+        return firstCell;
+    }
+
+    private static byte getSides(final HexTopology topology, final int cell, final GameTokens token) {
+        int coordinate = token == GameTokens.X_TOKEN ? topology.getyCoordinate(cell) : topology.getxCoordinate(cell);
+        byte sides = 0;
+        if (coordinate == 0) {
+            sides |= START_SIDE;
+        }
+        if (coordinate == topology.getBoardSize() - 1) {
+            sides |= END_SIDE;
+        }
+        return sides;
+    }
+}
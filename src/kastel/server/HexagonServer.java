@@ -0,0 +1,183 @@
+package kastel.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import kastel.Main;
+import kastel.ui.CommandHandler;
+
+/**
+ * A server hosting many HexagonPrime sessions in one process.
+ * The server listens on a port of the local host, every connection gets its own {@link Session} with its own game,
+ * started with the same arguments as the programm started by {@link Main}. One thread runs a selector based event loop
+ * doing all the reading and writing, the commands and the moves of the AI players are executed by a fixed pool of
+ * workers, so a long search never stalls the other connections.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class HexagonServer {
+    /**
+     * The name of the system property with the number of workers executing the commands.
+     */
+    public static final String WORKERS_PROPERTY = "kastel.server.workers";
+
+    private static final String USAGE = "usage: HexagonServer <port> <board size> <first player> <second player>"
+        + " [options]";
+    private static final String INVALID_PORT = "Error: The given port is not valid.";
+    private static final String LISTENING_MESSAGE = "Listening on port %d";
+    private static final int PORT_INDEX = 0;
+    private static final int FIRST_GAME_ARGUMENT_INDEX = 1;
+    private static final int MAX_PORT = 65535;
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService workers;
+    /**
+     * The arguments every session is started with.
+     */
+    private final String[] gameArguments;
+    /**
+     * The sessions whose operations must be updated by the event loop.
+     */
+    private final Queue<Session> updates;
+
+    /**
+     * Constructs a new server and binds it to a port of the local host.
+     * @param port the port, 0 for any free port.
+     * @param gameArguments the arguments every session is started with, see {@link Main#main(String[])}.
+     * @param workersCount the number of workers executing the commands.
+     * @throws IOException if the port can not be bound.
+     */
+    public HexagonServer(final int port, final String[] gameArguments, final int workersCount) throws IOException {
+        this.gameArguments = gameArguments.clone();
+        this.updates = new ConcurrentLinkedQueue<>();
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+        this.workers = Executors.newFixedThreadPool(workersCount);
+    }
+
+    /**
+     * Starts a server.
+     * @param args the port followed by the arguments every session is started with.
+     * @throws IOException if the server fails.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length <= FIRST_GAME_ARGUMENT_INDEX) {
+            System.err.println(USAGE);
+            return;
+        }
+        int port;
+        try {
+            port = Integer.parseInt(args[PORT_INDEX]);
+        } catch (NumberFormatException e) {
+            System.err.println(INVALID_PORT);
+            return;
+        }
+        if (port < 0 || port > MAX_PORT) {
+            System.err.println(INVALID_PORT);
+            return;
+        }
+        String[] gameArguments = Arrays.copyOfRange(args, FIRST_GAME_ARGUMENT_INDEX, args.length);
+        //The arguments are checked once with a session whose output is dropped.
+        if (Main.createSession(gameArguments, new PrintStream(OutputStream.nullOutputStream()), System.err) == null) {
+            return;
+        }
+        HexagonServer server = new HexagonServer(port, gameArguments,
+            Integer.getInteger(WORKERS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+        System.out.println(LISTENING_MESSAGE.formatted(server.getPort()));
+        server.run();
+    }
+
+    /**
+     * Runs the event loop, it only returns if the selector fails.
+     * @throws IOException if the selector fails.
+     */
+    public void run() throws IOException {
+        while (true) {
+            this.selector.select();
+            Session session = this.updates.poll();
+            while (session != null) {
+                session.updateInterest();
+                session = this.updates.poll();
+            }
+            Iterator<SelectionKey> selectedKeys = this.selector.selectedKeys().iterator();
+            while (selectedKeys.hasNext()) {
+                SelectionKey key = selectedKeys.next();
+                selectedKeys.remove();
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept();
+                } else {
+                    ((Session) key.attachment()).handleReadyOperations();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the port the server is bound to.
+     * @return the port.
+     * @throws IOException if the address of the server can not be read.
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) this.serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Asks the event loop to update the operations of a session, it may be called by any thread.
+     * @param session the session.
+     */
+    void requestUpdate(final Session session) {
+        this.updates.add(session);
+        this.selector.wakeup();
+    }
+
+    /**
+     * Executes a task of a session on a worker.
+     * @param task the task.
+     */
+    void execute(final Runnable task) {
+        this.workers.execute(task);
+    }
+
+    /**
+     * Creates the game and the command handler of a new session.
+     * @param output the stream for the output of the session.
+     * @param error the stream for the errors of the session.
+     * @return the command handler of the session.
+     */
+    CommandHandler createCommandHandler(final PrintStream output, final PrintStream error) {
+        return Main.createSession(this.gameArguments, output, error);
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = this.serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        SelectionKey key = channel.register(this.selector, SelectionKey.OP_READ);
+        Session session = new Session(this, channel, key);
+        key.attach(session);
+        session.start();
+    }
+}
@@ -0,0 +1,133 @@
+package kastel.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import kastel.benchmark.Percentiles;
+
+/**
+ * A client that puts load on a {@link HexagonServer} of the local host.
+ * Every session connects, sends a fixed script of commands ending with quit and reads the output until the server
+ * closes the connection. The sessions run on a fixed number of threads. At the end the client reports the sessions and
+ * commands per second, the received bytes and the percentiles of the session durations.
+ * The script places tokens on cells below 4, so the server must host boards of size 5 or more.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class LoadGenerator {
+    private static final String CLASS_NOT_INSTANTIATABLE = "Utility class cannot be instantiated.";
+    private static final String USAGE = "usage: LoadGenerator <port> [sessions] [concurrent sessions] [moves]";
+    private static final String SUMMARY_FORMAT = "%d sessions in %.2f s (%.1f sessions/s, %.1f commands/s),"
+        + " %d bytes received";
+    private static final String LATENCY_FORMAT = "session duration: p50 %.3f ms, p90 %.3f ms, p99 %.3f ms,"
+        + " max %.3f ms";
+    private static final String PLACE_FORMAT = "place %d %d%n";
+    private static final String[] CLOSING_COMMANDS = {"print", "history", "list-games", "quit"};
+    private static final int PORT_INDEX = 0;
+    private static final int SESSIONS_INDEX = 1;
+    private static final int CONCURRENCY_INDEX = 2;
+    private static final int MOVES_INDEX = 3;
+    private static final int DEFAULT_SESSIONS = 1000;
+    private static final int DEFAULT_CONCURRENCY = 64;
+    private static final int DEFAULT_MOVES = 8;
+    /**
+     * The number of rows and columns the script places tokens in.
+     */
+    private static final int SCRIPT_AREA_SIZE = 4;
+    private static final int READ_BUFFER_SIZE = 8192;
+    private static final int END_OF_STREAM = -1;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private LoadGenerator() {
+        throw new UnsupportedOperationException(CLASS_NOT_INSTANTIATABLE);
+    }
+
+    /**
+     * Runs the client.
+     * @param args the port of the server, the number of sessions, the number of concurrent sessions and the number of
+     *      moves of the script, all but the port have default values.
+     * @throws InterruptedException if the thread is interrupted while it waits for the sessions.
+     * @throws ExecutionException if a session failed.
+     */
+    public static void main(final String[] args) throws InterruptedException, ExecutionException {
+        if (args.length == 0) {
+            System.err.println(USAGE);
+            return;
+        }
+        int port = Integer.parseInt(args[PORT_INDEX]);
+        int sessionsCount = args.length > SESSIONS_INDEX ? Integer.parseInt(args[SESSIONS_INDEX]) : DEFAULT_SESSIONS;
+        int concurrency = args.length > CONCURRENCY_INDEX
+            ? Integer.parseInt(args[CONCURRENCY_INDEX]) : DEFAULT_CONCURRENCY;
+        int moves = args.length > MOVES_INDEX ? Integer.parseInt(args[MOVES_INDEX]) : DEFAULT_MOVES;
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < moves; i++) {
+            script.append(PLACE_FORMAT.formatted(i % SCRIPT_AREA_SIZE, i / SCRIPT_AREA_SIZE % SCRIPT_AREA_SIZE));
+        }
+        for (String command : CLOSING_COMMANDS) {
+            script.append(command).append(System.lineSeparator());
+        }
+        byte[] scriptBytes = script.toString().getBytes(StandardCharsets.UTF_8);
+        int commandsCount = moves + CLOSING_COMMANDS.length;
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> futures = new ArrayList<>(sessionsCount);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < sessionsCount; i++) {
+                futures.add(pool.submit(() -> runSession(port, scriptBytes)));
+            }
+            long[] durations = new long[sessionsCount];
+            long receivedBytes = 0;
+            for (int i = 0; i < sessionsCount; i++) {
+                long[] session = futures.get(i).get();
+                durations[i] = session[0];
+                receivedBytes += session[1];
+            }
+            double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+            Arrays.sort(durations);
+            System.out.println(SUMMARY_FORMAT.formatted(sessionsCount, seconds, sessionsCount / seconds,
+                (double) sessionsCount * commandsCount / seconds, receivedBytes));
+            System.out.println(LATENCY_FORMAT.formatted(Percentiles.inMilliseconds(durations, Percentiles.MEDIAN),
+                Percentiles.inMilliseconds(durations, Percentiles.NINETIETH),
+                Percentiles.inMilliseconds(durations, Percentiles.NINETY_NINTH),
+                Percentiles.inMilliseconds(durations, Percentiles.MAXIMUM)));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs one session. The script is small enough for the socket buffers, so it is sent completely before the output
+     * is read.
+     * @param port the port of the server.
+     * @param script the commands of the session.
+     * @return the duration of the session in nanoseconds and the number of received bytes.
+     * @throws IOException if the connection fails.
+     */
+    private static long[] runSession(final int port, final byte[] script) throws IOException {
+        long start = System.nanoTime();
+        long receivedBytes = 0;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            socket.getOutputStream().write(script);
+            socket.getOutputStream().flush();
+            InputStream input = socket.getInputStream();
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int readBytes = input.read(buffer);
+            while (readBytes != END_OF_STREAM) {
+                receivedBytes += readBytes;
+                readBytes = input.read(buffer);
+            }
+        }
+        return new long[] {System.nanoTime() - start, receivedBytes};
+    }
+}
@@ -0,0 +1,278 @@
+package kastel.server;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import kastel.ui.CommandHandler;
+
+/**
+ * A connection to the server with its own game and command handler, speaking the text protocol of the standard input:
+ * every line is a command, the output and the errors of the commands are sent back over the connection.
+ * The event loop reads the lines and writes the output, the commands including the moves of an AI player are executed
+ * one after the other by a worker. Both directions are bounded: the session stops reading while
+ * {@value #MAX_PENDING_LINES} lines wait for the worker, and it gives its worker back instead of starting the next
+ * command while the output buffer is congested. Only a command whose output does not fit into the buffer holds its
+ * worker until the client has read enough of it.
+ * Lines end with a line feed, a carriage return before it is dropped.
+ * @author ucxug
+ * @version 1.0
+ */
+final class Session {
+    /**
+     * The maximal length of a line in bytes.
+     */
+    private static final int INPUT_BUFFER_CAPACITY = 4096;
+    private static final int OUTPUT_BUFFER_CAPACITY = 64 * 1024;
+    private static final int MAX_PENDING_LINES = 64;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int END_OF_STREAM = -1;
+    private static final String COMMAND_FAILED_ERROR = "Error: the command failed: %s%n";
+
+    private final HexagonServer server;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final ByteBuffer input;
+    private final SessionOutput output;
+    /**
+     * The lines read but not yet executed, guarded by the session.
+     */
+    private final Queue<String> pendingLines;
+    /**
+     * The command handler of the session, it is only used by the worker executing the lines.
+     */
+    private CommandHandler commandHandler;
+    /**
+     * The stream of the output and the errors of the commands, it is only used by the worker executing the lines.
+     */
+    private PrintStream printStream;
+    /**
+     * Indicates whether a worker is executing the pending lines.
+     */
+    private boolean scheduled;
+    private boolean inputPaused;
+    private boolean inputClosed;
+    /**
+     * Indicates whether the session waits for its output to be written before it executes the next line.
+     */
+    private boolean outputPaused;
+    /**
+     * Indicates whether a command quit the session.
+     */
+    private boolean quit;
+    private boolean closed;
+
+    /**
+     * Constructs a new session.
+     * @param server the server of the session.
+     * @param channel the non-blocking channel of the connection.
+     * @param key the key of the channel in the selector of the server.
+     */
+    Session(final HexagonServer server, final SocketChannel channel, final SelectionKey key) {
+        this.server = server;
+        this.channel = channel;
+        this.key = key;
+        this.input = ByteBuffer.allocate(INPUT_BUFFER_CAPACITY);
+        this.output = new SessionOutput(OUTPUT_BUFFER_CAPACITY, () -> server.requestUpdate(this));
+        this.pendingLines = new ArrayDeque<>();
+    }
+
+    /**
+     * Starts the session, a worker creates the game and prints the welcome message.
+     */
+    synchronized void start() {
+        this.scheduled = true;
+        this.server.execute(this::executePendingLines);
+    }
+
+    /**
+     * Handles the operations the connection is ready for, it is called by the event loop.
+     */
+    void handleReadyOperations() {
+        try {
+            if (this.key.isValid() && this.key.isReadable()) {
+                read();
+            }
+            if (this.key.isValid() && this.key.isWritable()) {
+                this.output.writeTo(this.channel);
+            }
+            updateInterest();
+        } catch (IOException e) {
+            //The client is gone, its output is dropped.
+            close();
+        }
+    }
+
+    /**
+     * Sets the operations the event loop waits for, and closes the session once it is finished and its output is
+     * written. It is called by the event loop.
+     */
+    void updateInterest() {
+        if (!this.key.isValid()) {
+            return;
+        }
+        boolean pendingOutput = this.output.hasPendingBytes();
+        int operations = 0;
+        synchronized (this) {
+            if (isFinished() && !pendingOutput) {
+                close();
+                return;
+            }
+            if (this.outputPaused && !this.output.isCongested()) {
+                this.outputPaused = false;
+                schedule();
+            }
+            if (!this.inputPaused && !this.inputClosed && !this.quit) {
+                operations |= SelectionKey.OP_READ;
+            }
+        }
+        if (pendingOutput) {
+            operations |= SelectionKey.OP_WRITE;
+        }
+        this.key.interestOps(operations);
+    }
+
+    /**
+     * Closes the connection, the lines not yet executed are dropped.
+     */
+    void close() {
+        synchronized (this) {
+            this.closed = true;
+            this.pendingLines.clear();
+        }
+        this.key.cancel();
+        this.output.close();
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            //The connection is closed anyway.
+        }
+    }
+
+    private void read() throws IOException {
+        int readBytes = this.channel.read(this.input);
+        Queue<String> lines = new ArrayDeque<>();
+        this.input.flip();
+        int lineStart = 0;
+        for (int i = 0; i < this.input.limit(); i++) {
+            if (this.input.get(i) == LINE_FEED) {
+                lines.add(decodeLine(lineStart, i));
+                lineStart = i + 1;
+            }
+        }
+        this.input.position(lineStart);
+        this.input.compact();
+        if (readBytes == END_OF_STREAM && this.input.position() > 0) {
+            //The last line does not need a line feed.
+            lines.add(decodeLine(0, this.input.position()));
+            this.input.clear();
+        } else if (!this.input.hasRemaining()) {
+            throw new IOException("the line is longer than %d bytes.".formatted(INPUT_BUFFER_CAPACITY));
+        }
+        synchronized (this) {
+            this.inputClosed = readBytes == END_OF_STREAM;
+            this.pendingLines.addAll(lines);
+            this.inputPaused = this.pendingLines.size() >= MAX_PENDING_LINES;
+            if (!this.outputPaused) {
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * Lets a worker execute the pending lines, unless one is already doing it. The caller holds the lock of the
+     * session.
+     */
+    private void schedule() {
+        if (!this.scheduled && !this.pendingLines.isEmpty()) {
+            this.scheduled = true;
+            this.server.execute(this::executePendingLines);
+        }
+    }
+
+    private String decodeLine(final int start, final int end) {
+        int length = end - start;
+        if (length > 0 && this.input.get(end - 1) == CARRIAGE_RETURN) {
+            length--;
+        }
+        byte[] bytes = new byte[length];
+        this.input.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Executes the pending lines until there are none left, it runs on a worker. A command that fails is reported to
+     * the client and the next line is executed. Whatever happens, the worker gives the session back and lets the
+     * event loop check whether the session is finished.
+     */
+    private void executePendingLines() {
+        boolean descheduled = false;
+        try {
+            if (this.commandHandler == null) {
+                this.printStream = new PrintStream(this.output, true, StandardCharsets.UTF_8);
+                this.commandHandler = this.server.createCommandHandler(this.printStream, this.printStream);
+            }
+            while (true) {
+                String line;
+                synchronized (this) {
+                    if (this.output.isCongested()) {
+                        //The event loop schedules the session again once the client has read its output.
+                        this.outputPaused = true;
+                        this.scheduled = false;
+                        descheduled = true;
+                        break;
+                    }
+                    line = this.pendingLines.poll();
+                    if (this.inputPaused && this.pendingLines.size() < MAX_PENDING_LINES) {
+                        this.inputPaused = false;
+                        this.server.requestUpdate(this);
+                    }
+                    if (line == null || this.quit || this.closed) {
+                        this.scheduled = false;
+                        descheduled = true;
+                        break;
+                    }
+                }
+                if (!executeLine(line)) {
+                    synchronized (this) {
+                        this.quit = true;
+                    }
+                }
+            }
+        } finally {
+            if (!descheduled) {
+                //The session could not be set up, it is closed once the event loop sees it is finished.
+                synchronized (this) {
+                    this.scheduled = false;
+                    this.quit = true;
+                }
+            }
+            //The session may be finished now.
+            this.server.requestUpdate(this);
+        }
+    }
+
+    /**
+     * Executes one line, a failing command does not end the session.
+     * @param line the line.
+     * @return false if the command quit the session, true otherwise.
+     */
+    private boolean executeLine(final String line) {
+        try {
+            return this.commandHandler.handleCommandLine(line);
+        } catch (RuntimeException e) {
+            this.printStream.printf(COMMAND_FAILED_ERROR, e);
+            return true;
+        }
+    }
+
+    private boolean isFinished() {
+        return this.closed || this.quit || this.output.isClosed()
+            || this.inputClosed && this.pendingLines.isEmpty() && !this.scheduled;
+    }
+}
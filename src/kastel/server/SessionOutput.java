@@ -0,0 +1,140 @@
+package kastel.server;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The output of a session: a bounded buffer between the worker executing the commands and the event loop writing to
+ * the connection. A worker writing to a full buffer waits until the event loop has written some of it to the
+ * connection, so a client that reads slowly slows down its own session. If the client reads nothing for
+ * {@value #WRITE_TIMEOUT_MILLIS} milliseconds the output is closed.
+ * @author ucxug
+ * @version 1.0
+ */
+final class SessionOutput extends OutputStream {
+    private static final long WRITE_TIMEOUT_MILLIS = 10000;
+    private static final String CLOSED_ERROR = "the session is closed.";
+    private static final String TIMEOUT_ERROR = "the client did not read its output in time.";
+
+    /**
+     * The bytes not yet written to the connection, the buffer is always in the mode for putting bytes.
+     */
+    private final ByteBuffer buffer;
+    /**
+     * Tells the event loop that the buffer holds bytes again.
+     */
+    private final Runnable outputListener;
+    private boolean closed;
+
+    /**
+     * Constructs a new session output.
+     * @param capacity the maximal number of bytes in the buffer.
+     * @param outputListener the listener that is called when bytes are put into the empty buffer or the output is
+     *      closed because of the timeout.
+     */
+    SessionOutput(final int capacity, final Runnable outputListener) {
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+        this.outputListener = outputListener;
+    }
+
+    @Override
+    public synchronized void write(final int value) throws IOException {
+        awaitSpace();
+        putBytes(new byte[] {(byte) value}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        int written = 0;
+        while (written < length) {
+            awaitSpace();
+            int chunk = Math.min(this.buffer.remaining(), length - written);
+            putBytes(bytes, offset + written, chunk);
+            written += chunk;
+        }
+    }
+
+    /**
+     * Closes the output, the bytes in the buffer are dropped and waiting writers fail.
+     */
+    @Override
+    public synchronized void close() {
+        this.closed = true;
+        this.buffer.clear();
+        notifyAll();
+    }
+
+    /**
+     * Indicates whether the buffer holds bytes that are not yet written to the connection.
+     * @return true if there are bytes to write, false otherwise.
+     */
+    synchronized boolean hasPendingBytes() {
+        return this.buffer.position() > 0;
+    }
+
+    /**
+     * Indicates whether the output is closed.
+     * @return true if the output is closed, false otherwise.
+     */
+    synchronized boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Indicates whether the buffer is filled at least halfway, the session should not start new commands then.
+     * @return true if the buffer is congested, false otherwise.
+     */
+    synchronized boolean isCongested() {
+        return this.buffer.position() >= this.buffer.capacity() / 2;
+    }
+
+    /**
+     * Writes as many bytes of the buffer to the connection as it accepts without blocking.
+     * @param channel the non-blocking channel of the connection.
+     * @throws IOException if the connection fails.
+     */
+    synchronized void writeTo(final WritableByteChannel channel) throws IOException {
+        this.buffer.flip();
+        try {
+            channel.write(this.buffer);
+        } finally {
+            this.buffer.compact();
+        }
+        notifyAll();
+    }
+
+    private void putBytes(final byte[] bytes, final int offset, final int length) {
+        boolean wasEmpty = this.buffer.position() == 0;
+        this.buffer.put(bytes, offset, length);
+        if (wasEmpty) {
+            //The event loop only waits for the connection to be writable while there are bytes to write.
+            this.outputListener.run();
+        }
+    }
+
+    private void awaitSpace() throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WRITE_TIMEOUT_MILLIS);
+        while (!this.closed && !this.buffer.hasRemaining()) {
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                close();
+                //The event loop closes the session.
+                this.outputListener.run();
+                throw new IOException(TIMEOUT_ERROR);
+            }
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(CLOSED_ERROR);
+            }
+        }
+        if (this.closed) {
+            throw new IOException(CLOSED_ERROR);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package kastel.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import kastel.benchmark.Percentiles;
+import kastel.model.AIPlayers;
+import kastel.model.ArtificialManager;
+import kastel.model.Game;
+import kastel.model.GameTokens;
+import kastel.model.Hexagon;
+import kastel.model.HexagonPrime;
+import kastel.model.MoveResult;
+import kastel.model.Player;
+
+/**
+ * A program that plays complete games between two AI players without the command handler.
+ * The games run in parallel on a fixed thread pool, every game has its own {@link HexagonPrime} and its own players.
+ * The players take turns as the first player, so both play the X token equally often. At the end the program reports
+ * the games and moves per second, the percentiles of the time the players took for a move and how the wins split up.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class SelfPlayRunner {
+    private static final String CLASS_NOT_INSTANTIATABLE = "Utility class cannot be instantiated.";
+    private static final String USAGE = "usage: SelfPlayRunner <first AI> <second AI> <board size> <games> [threads]";
+    private static final String UNKNOWN_PLAYER_ERROR = "Error: %s is not an AI player.";
+    private static final String SAME_PLAYERS_ERROR = "Error: The two AI players must be different.";
+    private static final String INVALID_NUMBER_ERROR = "Error: The board size, the games and the threads must be"
+        + " positive and the board size odd and at least %d.";
+    private static final String SUMMARY_FORMAT = "%s vs %s on %dx%d: %d games in %.2f s (%.1f games/s), %d moves"
+        + " (%.1f moves/s)";
+    private static final String LATENCY_FORMAT = "move latency: p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms";
+    private static final String WINS_FORMAT = "wins: %s %d (%.1f%%), %s %d (%.1f%%), X %d, O %d, unfinished %d";
+    private static final int FIRST_PLAYER_INDEX = 0;
+    private static final int SECOND_PLAYER_INDEX = 1;
+    private static final int BOARD_SIZE_INDEX = 2;
+    private static final int GAMES_INDEX = 3;
+    private static final int THREADS_INDEX = 4;
+    private static final int MIN_ARGUMENTS_LENGTH = 4;
+    private static final int MAX_ARGUMENTS_LENGTH = 5;
+    private static final int MIN_BOARD_SIZE = 4;
+    private static final int EVEN_DIVISION = 2;
+    private static final int ODD_NUMBER = 1;
+    /**
+     * The first move of a game can be swapped once, which takes a move without a stone.
+     */
+    private static final int SWAP_MOVES_COUNT = 1;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double PERCENT = 100;
+
+    private SelfPlayRunner() {
+        throw new UnsupportedOperationException(CLASS_NOT_INSTANTIATABLE);
+    }
+
+    /**
+     * Runs the games.
+     * @param args the names of the two AI players, the board size, the number of games and optionally the number of
+     *      threads, which is the number of available processors by default.
+     * @throws InterruptedException if the thread is interrupted while it waits for the games.
+     * @throws ExecutionException if a game failed with an exception.
+     */
+    public static void main(final String[] args) throws InterruptedException, ExecutionException {
+        if (args.length < MIN_ARGUMENTS_LENGTH || args.length > MAX_ARGUMENTS_LENGTH) {
+            System.err.println(USAGE);
+            return;
+        }
+        AIPlayers firstType = findPlayerType(args[FIRST_PLAYER_INDEX]);
+        AIPlayers secondType = findPlayerType(args[SECOND_PLAYER_INDEX]);
+        if (firstType == null || secondType == null) {
+            System.err.println(UNKNOWN_PLAYER_ERROR.formatted(firstType == null
+                ? args[FIRST_PLAYER_INDEX] : args[SECOND_PLAYER_INDEX]));
+            return;
+        }
+        if (firstType == secondType) {
+            //The players of a game are told apart by their names.
+            System.err.println(SAME_PLAYERS_ERROR);
+            return;
+        }
+        int boardSize;
+        int gamesCount;
+        int threadsCount;
+        try {
+            boardSize = Integer.parseInt(args[BOARD_SIZE_INDEX]);
+            gamesCount = Integer.parseInt(args[GAMES_INDEX]);
+            threadsCount = args.length > THREADS_INDEX
+                ? Integer.parseInt(args[THREADS_INDEX]) : Runtime.getRuntime().availableProcessors();
+        } catch (NumberFormatException e) {
+            System.err.println(INVALID_NUMBER_ERROR.formatted(MIN_BOARD_SIZE));
+            return;
+        }
+        if (boardSize < MIN_BOARD_SIZE || boardSize % EVEN_DIVISION != ODD_NUMBER || gamesCount <= 0
+            || threadsCount <= 0) {
+            System.err.println(INVALID_NUMBER_ERROR.formatted(MIN_BOARD_SIZE));
+            return;
+        }
+        run(firstType, secondType, boardSize, gamesCount, threadsCount);
+    }
+
+    private static void run(final AIPlayers firstType, final AIPlayers secondType, final int boardSize,
+                            final int gamesCount, final int threadsCount)
+        throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(threadsCount);
+        List<Future<GameRecord>> futures = new ArrayList<>(gamesCount);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < gamesCount; i++) {
+                boolean secondStarts = i % EVEN_DIVISION == ODD_NUMBER;
+                futures.add(pool.submit(() -> secondStarts ? playGame(secondType, firstType, boardSize)
+                    : playGame(firstType, secondType, boardSize)));
+            }
+            List<GameRecord> records = new ArrayList<>(gamesCount);
+            for (Future<GameRecord> future : futures) {
+                records.add(future.get());
+            }
+            report(firstType, secondType, boardSize, records, System.nanoTime() - start);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays one game to its end, the way the command handler plays the moves of an AI player.
+     * @param firstType the type of the first player, it plays the X token.
+     * @param secondType the type of the second player.
+     * @param boardSize the size of the board.
+     * @return the record of the game.
+     */
+    private static GameRecord playGame(final AIPlayers firstType, final AIPlayers secondType, final int boardSize) {
+        Player playerOne = firstType.createPlayer();
+        Player playerTwo = secondType.createPlayer();
+        HexagonPrime hexagonPrime = new HexagonPrime(boardSize, playerOne, playerTwo);
+        ArtificialManager managerOne = new ArtificialManager(playerOne);
+        ArtificialManager managerTwo = new ArtificialManager(playerTwo);
+        Game game = hexagonPrime.getCurrentGame();
+        long[] latencies = new long[boardSize * boardSize + SWAP_MOVES_COUNT];
+        int movesCount = 0;
+        while (!game.isGameOver(false) && movesCount < latencies.length) {
+            ArtificialManager manager = game.getCurrentPlayer() == playerOne ? managerOne : managerTwo;
+            manager.setCurrentGame(game);
+            MoveResult moveResult = manager.getArtificialMove();
+            latencies[movesCount++] = moveResult.getElapsedNanos();
+            if (moveResult.isSwap()) {
+                game.swapMovement();
+                hexagonPrime.changeCurrentPlayer();
+                continue;
+            }
+            Hexagon hexagon = moveResult.getMovement();
+            if (hexagon == null || game.getGameBoard().getHexagon(hexagon.getxCoordinate(), hexagon.getyCoordinate())
+                .getContent() != GameTokens.EMPTY) {
+                //The player has no legal move, the game can not be finished.
+                break;
+            }
+            hexagonPrime.setGameToken(hexagon);
+        }
+        GameTokens winnerToken = game.getStatus().getWinnerToken();
+        String winnerName = null;
+        if (winnerToken != GameTokens.EMPTY) {
+            winnerName = game.getPlayerToken(playerOne) == winnerToken ? playerOne.getName() : playerTwo.getName();
+        }
+        return new GameRecord(winnerName, winnerToken, Arrays.copyOf(latencies, movesCount));
+    }
+
+    private static void report(final AIPlayers firstType, final AIPlayers secondType, final int boardSize,
+                               final List<GameRecord> records, final long elapsedNanos) {
+        int movesCount = 0;
+        for (GameRecord record : records) {
+            movesCount += record.latencies.length;
+        }
+        long[] latencies = new long[movesCount];
+        int firstWins = 0;
+        int secondWins = 0;
+        int xWins = 0;
+        int oWins = 0;
+        int offset = 0;
+        for (GameRecord record : records) {
+            System.arraycopy(record.latencies, 0, latencies, offset, record.latencies.length);
+            offset += record.latencies.length;
+            if (firstType.getPlayerName().equals(record.winnerName)) {
+                firstWins++;
+            } else if (secondType.getPlayerName().equals(record.winnerName)) {
+                secondWins++;
+            }
+            if (record.winnerToken == GameTokens.X_TOKEN) {
+                xWins++;
+            } else if (record.winnerToken == GameTokens.O_TOKEN) {
+                oWins++;
+            }
+        }
+        Arrays.sort(latencies);
+        double seconds = elapsedNanos / NANOS_PER_SECOND;
+        System.out.println(SUMMARY_FORMAT.formatted(firstType.getPlayerName(), secondType.getPlayerName(), boardSize,
+            boardSize, records.size(), seconds, records.size() / seconds, movesCount, movesCount / seconds));
+        System.out.println(LATENCY_FORMAT.formatted(Percentiles.inMilliseconds(latencies, Percentiles.MEDIAN),
+            Percentiles.inMilliseconds(latencies, Percentiles.NINETIETH),
+            Percentiles.inMilliseconds(latencies, Percentiles.NINETY_NINTH),
+            Percentiles.inMilliseconds(latencies, Percentiles.MAXIMUM)));
+        System.out.println(WINS_FORMAT.formatted(firstType.getPlayerName(), firstWins,
+            firstWins * PERCENT / records.size(), secondType.getPlayerName(), secondWins,
+            secondWins * PERCENT / records.size(), xWins, oWins, records.size() - firstWins - secondWins));
+    }
+
+    private static AIPlayers findPlayerType(final String name) {
+        for (AIPlayers player : AIPlayers.values()) {
+            if (player.getPlayerName().equals(name)) {
+                return player;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The result of one played game.
+     */
+    private static final class GameRecord {
+        /**
+         * The name of the winning player, or null if the game was not finished.
+         */
+        private final String winnerName;
+        private final GameTokens winnerToken;
+        /**
+         * The time every move of the game took in nanoseconds, in the order of the moves.
+         */
+        private final long[] latencies;
+
+        GameRecord(final String winnerName, final GameTokens winnerToken, final long[] latencies) {
+            this.winnerName = winnerName;
+            this.winnerToken = winnerToken;
+            this.latencies = latencies;
+        }
+    }
+}
@@ -59,4 +59,14 @@ public abstract class Command {
      */
     public abstract void execute(String[] commandArguments);
 
+    /**
+     * Executes the command with the arguments of a line read by a {@link CommandReader}. By default the arguments are
+     * copied into strings, commands that are executed often can read them from the line directly.
+     *
+     * @param commandLine the line holding the command and its arguments
+     */
+    public void execute(final CommandLine commandLine) {
+        execute(commandLine.getArguments());
+    }
+
 }
@@ -4,13 +4,19 @@
 
 package kastel.ui;
 
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Scanner;
 import kastel.model.ArtificialManager;
 import kastel.model.HexagonPrime;
+import kastel.ui.commands.EvaluateCommand;
 import kastel.ui.commands.HelpCommand;
 import kastel.ui.commands.HistoryCommand;
 import kastel.ui.commands.ListGamesCommand;
@@ -44,6 +50,14 @@ public final class CommandHandler {
      * A map of commands and their names.
      */
     private final Map<String, Command> commands;
+    /**
+     * The commands in the order they were added, for the lines read by a {@link CommandReader}.
+     */
+    private final List<Command> commandsList;
+    /**
+     * The names of the commands in ASCII, in the order of the commands list.
+     */
+    private final List<byte[]> commandNames;
     /**
      * Indicates wheter the game board needs to be printed after each turn.
      */
@@ -56,10 +70,18 @@ public final class CommandHandler {
      * Indicates whether an AI player is involved in the game.
      */
     private final boolean aIPlayer;
+    /**
+     * The stream the commands print their output to.
+     */
+    private final PrintStream output;
+    /**
+     * The stream the commands print their errors to.
+     */
+    private final PrintStream error;
     /**
      * Indicates whether the command handler is running.
      */
-    private boolean running = false;
+    private volatile boolean running = false;
 
 
     /**
@@ -70,17 +92,40 @@ public final class CommandHandler {
      *
      */
     public CommandHandler(final HexagonPrime hexagonPrime, boolean autoPrint, boolean isAIPlayer) {
+        this(hexagonPrime, autoPrint, isAIPlayer, System.out, System.err);
+    }
+
+    /**
+     * Intantiates a new command handler printing to the given streams instead of the standard streams.
+     * @param hexagonPrime the santorini game.
+     * @param autoPrint Indicates wether the board game needs to be printed after each turn.
+     * @param isAIPlayer Indicates whether the second player is a AI Player.
+     * @param output the stream for the output of the commands.
+     * @param error the stream for the errors of the commands.
+     */
+    public CommandHandler(final HexagonPrime hexagonPrime, boolean autoPrint, boolean isAIPlayer,
+                          final PrintStream output, final PrintStream error) {
         this.aIPlayer = isAIPlayer;
         this.autoPrint = autoPrint;
         this.hexagonPrime = Objects.requireNonNull(hexagonPrime);
+        this.output = Objects.requireNonNull(output);
+        this.error = Objects.requireNonNull(error);
         this.commands = new HashMap<>();
+        this.commandsList = new ArrayList<>();
+        this.commandNames = new ArrayList<>();
         this.initCommands();
     }
 
     /**
-     * Handles the user input.
+     * Handles the user input. The standard input is read by a {@link CommandReader} if it supports the default
+     * charset, and by a scanner otherwise.
      */
     public void handleUserInput() {
+        Charset charset = Charset.defaultCharset();
+        if (CommandReader.isSupported(charset)) {
+            handleUserInput(new CommandReader(System.in, charset));
+            return;
+        }
         this.running = true;
         try (Scanner scanner = new Scanner(System.in)) {
             while (running && scanner.hasNext()) {
@@ -89,6 +134,29 @@ public final class CommandHandler {
         }
     }
 
+    /**
+     * Handles the user input read by a command reader, until the input ends or a command quits.
+     * @param commandReader the command reader.
+     */
+    public void handleUserInput(final CommandReader commandReader) {
+        this.running = true;
+        CommandLine commandLine;
+        while (running && (commandLine = commandReader.nextLine()) != null) {
+            executeCommand(commandLine);
+        }
+    }
+
+
+    /**
+     * Handles one line of user input that does not come from the standard input.
+     * @param commandWithArguments the line holding the command and its arguments.
+     * @return true if the command handler is still running, false if the line quit it.
+     */
+    public boolean handleCommandLine(final String commandWithArguments) {
+        this.running = true;
+        executeCommand(commandWithArguments);
+        return this.running;
+    }
 
     /**
      * Quits the user input handling.
@@ -103,13 +171,24 @@ public final class CommandHandler {
         String[] commandArguments = Arrays.copyOfRange(splittedCommand, 1, splittedCommand.length);
 
         if (!commands.containsKey(commandName)) {
-            System.err.print(COMMAND_NOT_FOUND.formatted(commandName));
+            this.error.print(COMMAND_NOT_FOUND.formatted(commandName));
             return;
         }
 
         commands.get(commandName).execute(commandArguments);
     }
 
+    private void executeCommand(final CommandLine commandLine) {
+        //The names are compared as bytes, so no string is created for a known command.
+        for (int i = 0; i < this.commandsList.size(); i++) {
+            if (commandLine.isCommandName(this.commandNames.get(i))) {
+                this.commandsList.get(i).execute(commandLine);
+                return;
+            }
+        }
+        this.error.print(COMMAND_NOT_FOUND.formatted(commandLine.getCommandName()));
+    }
+
     /**
      * Sets the Artificial Manager instace.
      * @param artificialManager the Aritificial Manager instace.
@@ -119,6 +198,7 @@ public final class CommandHandler {
     }
 
     private void initCommands() {
+        this.addCommand(new EvaluateCommand(this, hexagonPrime));
         this.addCommand(new HelpCommand(this, hexagonPrime));
         this.addCommand(new HistoryCommand(this, hexagonPrime));
         this.addCommand(new ListGamesCommand(this, hexagonPrime));
@@ -131,6 +211,8 @@ public final class CommandHandler {
     }
     private void addCommand(final Command command) {
         this.commands.put(command.getCommandName(), command);
+        this.commandsList.add(command);
+        this.commandNames.add(command.getCommandName().getBytes(StandardCharsets.US_ASCII));
     }
 
     /**
@@ -156,4 +238,20 @@ public final class CommandHandler {
     public ArtificialManager getArtificialManager() {
         return this.artificialManager;
     }
+
+    /**
+     * Gets the stream the commands print their output to.
+     * @return the output stream.
+     */
+    public PrintStream getOutput() {
+        return this.output;
+    }
+
+    /**
+     * Gets the stream the commands print their errors to.
+     * @return the error stream.
+     */
+    public PrintStream getError() {
+        return this.error;
+    }
 }
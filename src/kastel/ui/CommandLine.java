@@ -0,0 +1,198 @@
+package kastel.ui;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * A line of user input split into its command name and arguments, read by a {@link CommandReader}.
+ * The line is not copied: the tokens are ranges of the buffer of the reader and stay valid until the next line is
+ * read. The tokens are split like {@code line.trim().split("\\s+")}, so the bytes up to the space are trimmed from
+ * both ends and the tokens are separated by spaces, tabs, line feeds, vertical tabs, form feeds and carriage returns.
+ * A line without tokens has the empty command name. The charset of the input must encode these characters in single
+ * bytes that are not part of any other character, see {@link CommandReader#isSupported(Charset)}.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class CommandLine {
+
+    /**
+     * The value returned by {@link #parseIntArgument(int)} if the argument is not an integer.
+     */
+    public static final long NOT_AN_INT = Long.MIN_VALUE;
+
+    private static final int INITIAL_TOKENS_CAPACITY = 8;
+    private static final int COMMAND_NAME_INDEX = 0;
+    private static final int HIGHEST_TRIMMED_BYTE = ' ';
+    private static final int ASCII_LIMIT = 0x80;
+    private static final int RADIX = 10;
+    private static final byte PLUS_SIGN = '+';
+    private static final byte MINUS_SIGN = '-';
+
+    private final Charset charset;
+    private byte[] buffer;
+    /**
+     * The start of every token in the buffer, the command name is the first token.
+     */
+    private int[] tokenStarts;
+    /**
+     * The end of every token in the buffer, exclusive.
+     */
+    private int[] tokenEnds;
+    private int tokensCount;
+
+    /**
+     * Constructs a new empty command line.
+     * @param charset the charset of the input.
+     */
+    CommandLine(final Charset charset) {
+        this.charset = charset;
+        this.tokenStarts = new int[INITIAL_TOKENS_CAPACITY];
+        this.tokenEnds = new int[INITIAL_TOKENS_CAPACITY];
+    }
+
+    /**
+     * Splits a line of the buffer into its tokens.
+     * @param lineBuffer the buffer holding the line.
+     * @param start the start of the line in the buffer.
+     * @param end the end of the line in the buffer, without the line separator.
+     */
+    void tokenize(final byte[] lineBuffer, final int start, final int end) {
+        this.buffer = lineBuffer;
+        this.tokensCount = 0;
+        int trimmedStart = start;
+        int trimmedEnd = end;
+        while (trimmedStart < trimmedEnd && Byte.toUnsignedInt(lineBuffer[trimmedStart]) <= HIGHEST_TRIMMED_BYTE) {
+            trimmedStart++;
+        }
+        while (trimmedEnd > trimmedStart && Byte.toUnsignedInt(lineBuffer[trimmedEnd - 1]) <= HIGHEST_TRIMMED_BYTE) {
+            trimmedEnd--;
+        }
+        if (trimmedStart == trimmedEnd) {
+            //Splitting the empty string gives the empty string.
+            addToken(trimmedStart, trimmedEnd);
+            return;
+        }
+        int tokenStart = trimmedStart;
+        for (int i = trimmedStart; i < trimmedEnd; i++) {
+            if (isSeparator(lineBuffer[i])) {
+                if (tokenStart < i) {
+                    addToken(tokenStart, i);
+                }
+                tokenStart = i + 1;
+            }
+        }
+        //The trimmed line ends with a token.
+        addToken(tokenStart, trimmedEnd);
+    }
+
+    /**
+     * Checks whether the command name of the line is the given name.
+     * @param name the name in the bytes of the charset of the input.
+     * @return true if the command name is the given name, false otherwise.
+     */
+    public boolean isCommandName(final byte[] name) {
+        return Arrays.equals(this.buffer, this.tokenStarts[COMMAND_NAME_INDEX], this.tokenEnds[COMMAND_NAME_INDEX],
+            name, 0, name.length);
+    }
+
+    /**
+     * Gets the command name of the line.
+     * @return the command name, it is empty if the line holds no tokens.
+     */
+    public String getCommandName() {
+        return getToken(COMMAND_NAME_INDEX);
+    }
+
+    /**
+     * Gets the number of arguments after the command name.
+     * @return the number of arguments.
+     */
+    public int getArgumentsCount() {
+        return this.tokensCount - 1;
+    }
+
+    /**
+     * Gets an argument.
+     * @param index the index of the argument, the first argument after the command name has the index 0.
+     * @return the argument.
+     */
+    public String getArgument(final int index) {
+        return getToken(index + 1);
+    }
+
+    /**
+     * Gets all arguments, like the arguments split from the line as a string.
+     * @return a new array holding the arguments.
+     */
+    public String[] getArguments() {
+        String[] arguments = new String[getArgumentsCount()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = getArgument(i);
+        }
+        return arguments;
+    }
+
+    /**
+     * Parses an argument as a decimal integer, directly from the bytes of the line. The result is the same as the
+     * one of {@link Integer#parseInt(String)}, arguments holding characters beyond ASCII are parsed by it.
+     * @param index the index of the argument.
+     * @return the integer, or {@link #NOT_AN_INT} if the argument is not an integer.
+     */
+    public long parseIntArgument(final int index) {
+        int start = this.tokenStarts[index + 1];
+        int end = this.tokenEnds[index + 1];
+        for (int i = start; i < end; i++) {
+            if (Byte.toUnsignedInt(this.buffer[i]) >= ASCII_LIMIT) {
+                //Integer.parseInt also accepts the digits of other scripts.
+                try {
+                    return Integer.parseInt(getArgument(index));
+                } catch (NumberFormatException e) {
+                    return NOT_AN_INT;
+                }
+            }
+        }
+        int position = start;
+        boolean negative = false;
+        if (end - start > 1 && (this.buffer[start] == PLUS_SIGN || this.buffer[start] == MINUS_SIGN)) {
+            negative = this.buffer[start] == MINUS_SIGN;
+            position++;
+        }
+        if (position == end) {
+            return NOT_AN_INT;
+        }
+        //The digits are summed up negatively, so the smallest integer does not overflow.
+        long limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        long value = 0;
+        for (; position < end; position++) {
+            int digit = Character.digit(this.buffer[position], RADIX);
+            if (digit < 0) {
+                return NOT_AN_INT;
+            }
+            value = value * RADIX - digit;
+            if (value < limit) {
+                return NOT_AN_INT;
+            }
+        }
+        return negative ? value : -value;
+    }
+
+    private String getToken(final int index) {
+        int start = this.tokenStarts[index];
+        return new String(this.buffer, start, this.tokenEnds[index] - start, this.charset);
+    }
+
+    private void addToken(final int start, final int end) {
+        if (this.tokensCount == this.tokenStarts.length) {
+            this.tokenStarts = Arrays.copyOf(this.tokenStarts, this.tokensCount * 2);
+            this.tokenEnds = Arrays.copyOf(this.tokenEnds, this.tokensCount * 2);
+        }
+        this.tokenStarts[this.tokensCount] = start;
+        this.tokenEnds[this.tokensCount] = end;
+        this.tokensCount++;
+    }
+
+    private static boolean isSeparator(final byte value) {
+        //The characters matched by the regular expression \s.
+        return value == ' ' || value == '\t' || value == '\n' || value == '\u000B' || value == '\f' || value == '\r';
+    }
+}
@@ -0,0 +1,312 @@
+package kastel.ui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A buffered reader splitting the user input into command lines at the level of bytes.
+ * The reader returns the same lines as a {@link java.util.Scanner} asked {@code hasNext()} before every
+ * {@code nextLine()}: a line is only returned if a character that is not whitespace follows at some point, so the
+ * whitespace at the end of the input is never returned as a line, and the lines end with the line separators of the
+ * scanner. The lines are not decoded, the tokens of a line are ranges of the buffer, see {@link CommandLine}.
+ * The reader supports the charsets of {@link #isSupported(Charset)}, and reads from a blocking channel.
+ * @author ucxug
+ * @version 1.0
+ */
+public final class CommandReader {
+    private static final int INITIAL_BUFFER_CAPACITY = 8192;
+    private static final int END_OF_STREAM = -1;
+    private static final int NO_POSITION = -1;
+    private static final int ASCII_LIMIT = 0x80;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    /**
+     * The next line character, a line separator of the scanner like the two following ones.
+     */
+    private static final int NEXT_LINE = 0x85;
+    private static final int LINE_SEPARATOR = 0x2028;
+    private static final int PARAGRAPH_SEPARATOR = 0x2029;
+    /**
+     * The code point of an undecodable byte sequence.
+     */
+    private static final int REPLACEMENT_CHARACTER = 0xFFFD;
+    private static final int UTF_8_MAX_LENGTH = 4;
+    private static final int UTF_8_CONTINUATION_MASK = 0xC0;
+    private static final int UTF_8_CONTINUATION = 0x80;
+    private static final int UTF_8_PAYLOAD_MASK = 0x3F;
+    private static final int UTF_8_PAYLOAD_BITS = 6;
+    private static final int UTF_8_TWO_BYTES_LEAD = 0xC2;
+    private static final int UTF_8_THREE_BYTES_LEAD = 0xE0;
+    private static final int UTF_8_FOUR_BYTES_LEAD = 0xF0;
+    private static final int UTF_8_INVALID_LEAD = 0xF5;
+    private static final int UTF_8_TWO_BYTES_PAYLOAD = 0x1F;
+    private static final int UTF_8_THREE_BYTES_PAYLOAD = 0x0F;
+    private static final int UTF_8_FOUR_BYTES_PAYLOAD = 0x07;
+    private static final int MIN_THREE_BYTES_CODE_POINT = 0x800;
+    private static final int MIN_FOUR_BYTES_CODE_POINT = 0x10000;
+    private static final int THREE_BYTES = 3;
+
+    private final ReadableByteChannel channel;
+    private final Charset charset;
+    private final CommandLine commandLine;
+    private byte[] buffer;
+    /**
+     * The start of the bytes not yet returned as a line.
+     */
+    private int position;
+    /**
+     * The end of the bytes read from the channel.
+     */
+    private int limit;
+    /**
+     * The position of a character that is not whitespace found by an earlier line, or {@link #NO_POSITION} if none is
+     * known.
+     */
+    private int tokenPosition;
+    private boolean endOfStream;
+
+    /**
+     * Constructs a new reader of an input stream.
+     * @param input the input stream.
+     * @param charset the charset of the input.
+     */
+    public CommandReader(final InputStream input, final Charset charset) {
+        this(Channels.newChannel(input), charset);
+    }
+
+    /**
+     * Constructs a new reader of a channel.
+     * @param channel the blocking channel.
+     * @param charset the charset of the input.
+     */
+    public CommandReader(final ReadableByteChannel channel, final Charset charset) {
+        if (!isSupported(charset)) {
+            throw new IllegalArgumentException("the charset %s is not supported.".formatted(charset));
+        }
+        this.channel = channel;
+        this.charset = charset;
+        this.commandLine = new CommandLine(charset);
+        this.buffer = new byte[INITIAL_BUFFER_CAPACITY];
+        this.tokenPosition = NO_POSITION;
+    }
+
+    /**
+     * Checks whether the reader supports a charset: UTF-8, US-ASCII and ISO-8859-1 are supported, they encode ASCII
+     * in single bytes that are not part of any other character.
+     * @param charset the charset.
+     * @return true if the charset is supported, false otherwise.
+     */
+    public static boolean isSupported(final Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+            || charset.equals(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Reads the next line.
+     * @return the line, it is reused by the next call, or null if no character but whitespace is left.
+     * @throws UncheckedIOException if the input can not be read.
+     */
+    public CommandLine nextLine() {
+        if (this.position >= this.buffer.length / 2) {
+            compact();
+        }
+        if (this.tokenPosition < this.position && !findToken()) {
+            return null;
+        }
+        int lineEnd = this.position;
+        int separatorLength = 0;
+        while (separatorLength == 0) {
+            if (!ensureAvailable(lineEnd, 1)) {
+                //The last line does not need a line separator.
+                break;
+            }
+            separatorLength = getSeparatorLength(lineEnd);
+            if (separatorLength == 0) {
+                lineEnd++;
+            }
+        }
+        this.commandLine.tokenize(this.buffer, this.position, lineEnd);
+        this.position = lineEnd + separatorLength;
+        return this.commandLine;
+    }
+
+    /**
+     * Searches a character that is not whitespace from the current position on, like {@code Scanner.hasNext()}.
+     * @return true if one was found, false if the input ends before.
+     */
+    private boolean findToken() {
+        int index = this.position;
+        while (true) {
+            if (!ensureAvailable(index, 1)) {
+                return false;
+            }
+            int codePointLength = getCodePointLength(index);
+            if (!Character.isWhitespace(decodeCodePoint(index, codePointLength))) {
+                this.tokenPosition = index;
+                return true;
+            }
+            index += codePointLength;
+        }
+    }
+
+    /**
+     * Gets the length of the line separator of the scanner at a position of the buffer.
+     * @param index the position.
+     * @return the length of the separator in bytes, 0 if there is none.
+     */
+    private int getSeparatorLength(final int index) {
+        byte value = this.buffer[index];
+        if (value == LINE_FEED) {
+            return 1;
+        }
+        if (value == CARRIAGE_RETURN) {
+            return ensureAvailable(index, 2) && this.buffer[index + 1] == LINE_FEED ? 2 : 1;
+        }
+        if (Byte.toUnsignedInt(value) < ASCII_LIMIT) {
+            return 0;
+        }
+        int codePointLength = getCodePointLength(index);
+        int codePoint = decodeCodePoint(index, codePointLength);
+        boolean separator = codePoint == NEXT_LINE || codePoint == LINE_SEPARATOR || codePoint == PARAGRAPH_SEPARATOR;
+        return separator ? codePointLength : 0;
+    }
+
+    /**
+     * Gets the length of the character at a position of the buffer, the buffer is filled as far as it needs to be.
+     * An undecodable sequence may be longer than the one the decoder replaces, but it only ever adds continuation
+     * bytes, which the decoder replaces as well, so no whitespace or line separator is skipped.
+     * @param index the position of the first byte of the character.
+     * @return the length in bytes.
+     */
+    private int getCodePointLength(final int index) {
+        int lead = Byte.toUnsignedInt(this.buffer[index]);
+        if (lead < ASCII_LIMIT || !this.charset.equals(StandardCharsets.UTF_8)) {
+            return 1;
+        }
+        int length;
+        if (lead < UTF_8_TWO_BYTES_LEAD || lead >= UTF_8_INVALID_LEAD) {
+            return 1;
+        } else if (lead < UTF_8_THREE_BYTES_LEAD) {
+            length = 2;
+        } else if (lead < UTF_8_FOUR_BYTES_LEAD) {
+            length = THREE_BYTES;
+        } else {
+            length = UTF_8_MAX_LENGTH;
+        }
+        ensureAvailable(index, length);
+        for (int i = 1; i < length; i++) {
+            if (index + i >= this.limit
+                || (Byte.toUnsignedInt(this.buffer[index + i]) & UTF_8_CONTINUATION_MASK) != UTF_8_CONTINUATION) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Decodes the character at a position of the buffer.
+     * @param index the position of the first byte of the character.
+     * @param length the length of the character, see {@link #getCodePointLength(int)}.
+     * @return the code point, or the replacement character if the bytes are not a valid character.
+     */
+    private int decodeCodePoint(final int index, final int length) {
+        int lead = Byte.toUnsignedInt(this.buffer[index]);
+        if (lead < ASCII_LIMIT) {
+            return lead;
+        }
+        if (this.charset.equals(StandardCharsets.ISO_8859_1)) {
+            return lead;
+        }
+        if (this.charset.equals(StandardCharsets.US_ASCII) || length == 1) {
+            return REPLACEMENT_CHARACTER;
+        }
+        int codePoint;
+        int minimalCodePoint;
+        if (lead < UTF_8_THREE_BYTES_LEAD) {
+            codePoint = lead & UTF_8_TWO_BYTES_PAYLOAD;
+            minimalCodePoint = 0;
+        } else if (lead < UTF_8_FOUR_BYTES_LEAD) {
+            codePoint = lead & UTF_8_THREE_BYTES_PAYLOAD;
+            minimalCodePoint = MIN_THREE_BYTES_CODE_POINT;
+        } else {
+            codePoint = lead & UTF_8_FOUR_BYTES_PAYLOAD;
+            minimalCodePoint = MIN_FOUR_BYTES_CODE_POINT;
+        }
+        if (length != expectedLength(lead)) {
+            return REPLACEMENT_CHARACTER;
+        }
+        for (int i = 1; i < length; i++) {
+            codePoint = (codePoint << UTF_8_PAYLOAD_BITS) | (this.buffer[index + i] & UTF_8_PAYLOAD_MASK);
+        }
+        if (codePoint < minimalCodePoint || codePoint > Character.MAX_CODE_POINT
+            || codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+            return REPLACEMENT_CHARACTER;
+        }
+        return codePoint;
+    }
+
+    private static int expectedLength(final int lead) {
+        if (lead < UTF_8_THREE_BYTES_LEAD) {
+            return 2;
+        }
+        return lead < UTF_8_FOUR_BYTES_LEAD ? THREE_BYTES : UTF_8_MAX_LENGTH;
+    }
+
+    /**
+     * Fills the buffer until it holds a number of bytes from a position on, or the input ends.
+     * @param index the position.
+     * @param count the number of bytes.
+     * @return true if the bytes are available, false if the input ended before.
+     */
+    private boolean ensureAvailable(final int index, final int count) {
+        while (index + count > this.limit) {
+            if (!fill()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads more input into the buffer, the buffer grows if it is full. The positions in the buffer do not change.
+     * @return true if bytes were read, false if the input ended.
+     */
+    private boolean fill() {
+        if (this.endOfStream) {
+            return false;
+        }
+        if (this.limit == this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+        }
+        try {
+            ByteBuffer free = ByteBuffer.wrap(this.buffer, this.limit, this.buffer.length - this.limit);
+            int readBytes = this.channel.read(free);
+            if (readBytes == END_OF_STREAM) {
+                this.endOfStream = true;
+                return false;
+            }
+            this.limit += readBytes;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Moves the bytes not yet returned to the start of the buffer. It is only done between two lines, once the
+     * returned bytes take half of the buffer, so every byte is moved a constant number of times on average.
+     */
+    private void compact() {
+        System.arraycopy(this.buffer, this.position, this.buffer, 0, this.limit - this.position);
+        this.limit -= this.position;
+        this.tokenPosition -= this.position;
+        this.position = 0;
+    }
+}
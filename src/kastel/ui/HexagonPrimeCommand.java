@@ -42,6 +42,11 @@ public abstract class HexagonPrimeCommand extends Command {
             + " to a different one.";
 
     private static final String HELP_COMMAND_FUNCTION = "* help: Prints this help message";
+    /**
+     * Represents the function of the evaluate command.
+     */
+    private static final String EVALUATE_COMMAND_FUNCTION = "* evaluate: displays how many hexagons each player"
+        + " still needs to connect the board sides.";
 
     /**
      * Represents the function of the swap command.
@@ -122,18 +127,35 @@ public abstract class HexagonPrimeCommand extends Command {
     @Override
     public final void execute(final String[] commandArguments) {
         if (commandArguments.length > expectedNumberOfArguments) {
-            ResultType.FAILURE.printResult(NOT_EXPECTED_ARGS_LENGTH_ERROR, expectedNumberOfArguments,
-                commandArguments.length);
+            printArgumentsCountError(commandArguments.length);
             return;
         }
-        Result result = executeTaskCommand(commandArguments);
+        handleResult(executeTaskCommand(commandArguments));
+    }
+
+    @Override
+    public final void execute(final CommandLine commandLine) {
+        if (commandLine.getArgumentsCount() > expectedNumberOfArguments) {
+            printArgumentsCountError(commandLine.getArgumentsCount());
+            return;
+        }
+        handleResult(executeTaskCommand(commandLine));
+    }
+
+    private void printArgumentsCountError(final int argumentsCount) {
+        ResultType.FAILURE.printResult(commandHandler.getOutput(), commandHandler.getError(),
+            NOT_EXPECTED_ARGS_LENGTH_ERROR.formatted(expectedNumberOfArguments, argumentsCount));
+    }
+
+    private void handleResult(final Result result) {
         if (result != null) {
             if (result.getMessage() != null) {
-                result.getType().printResult(result.getMessage());
+                result.getType().printResult(commandHandler.getOutput(), commandHandler.getError(),
+                    result.getMessage());
             }
             if (commandHandler.isAutoPrint() && result.isCommandPrint()
                 && !hexagonPrime.getCurrentGame().isGameOver(true)) {
-                System.out.println(hexagonPrime.getCurrentGame().getGameBoard().toString());
+                commandHandler.getOutput().println(hexagonPrime.getCurrentGame().getGameBoard().toString());
             }
         }
         if (result != null && result.isPrintTurnsMessage()
@@ -187,11 +209,23 @@ public abstract class HexagonPrimeCommand extends Command {
      */
     protected abstract Result executeTaskCommand(String[] commandArguments);
 
+    /**
+     * Executes the command with the arguments of a line read by a command reader, by default with the arguments
+     * copied into strings.
+     *
+     * @param commandLine the line holding the command and its arguments
+     * @return the result of the command
+     */
+    protected Result executeTaskCommand(final CommandLine commandLine) {
+        return executeTaskCommand(commandLine.getArguments());
+    }
+
     /**
      * Gets all  the function of all of the commands toghether in a list for the HexagonPrime intances.
      * @return a list wiht the function of all commands.
      */
     private List<String> generateCommandFunctions() {
+        this.commandInformation.add(EVALUATE_COMMAND_FUNCTION);
         this.commandInformation.add(HELP_COMMAND_FUNCTION);
         this.commandInformation.add(HISTORY_COMMAND_FUNCTION);
         this.commandInformation.add(LIST_GAMES_COMMAND_FUNCTION);
@@ -223,27 +257,27 @@ public abstract class HexagonPrimeCommand extends Command {
     }
 
     private void printPlayersTurns() {
-        System.out.println(CURRENT_PLAYERS_TURN_FORMAT.formatted(
+        commandHandler.getOutput().println(CURRENT_PLAYERS_TURN_FORMAT.formatted(
             hexagonPrime.getCurrentGame().getCurrentPlayer().getName()));
     }
 
     private void printCurrentGame() {
-        System.out.println(hexagonPrime.getCurrentGame().getGameBoard().toString());
+        commandHandler.getOutput().println(hexagonPrime.getCurrentGame().getGameBoard().toString());
     }
 
     private void printWinningBoard() {
-        System.out.println(WINNING_FORMAT_MESSAGE.formatted(
+        commandHandler.getOutput().println(WINNING_FORMAT_MESSAGE.formatted(
             hexagonPrime.getCurrentPlayer().getEnemyPlayer().getName()));
-        System.out.println(hexagonPrime.getCurrentGame().getWinningBoard().toString());
+        commandHandler.getOutput().println(hexagonPrime.getCurrentGame().getWinningBoard());
     }
 
     private void printSwapMovement() {
-        System.out.println(SWAP_MOVEMENT_FORMAT.formatted(
+        commandHandler.getOutput().println(SWAP_MOVEMENT_FORMAT.formatted(
             commandHandler.getArtificialManager().getArtificialPlayer().getName()));
     }
 
     private void printArtificialMove(final Hexagon toPlaceHexagon) {
-        System.out.println(AI_PLAYER_SET_FORMAT.formatted(
+        commandHandler.getOutput().println(AI_PLAYER_SET_FORMAT.formatted(
             commandHandler.getArtificialManager().getArtificialPlayer().getName(),
             toPlaceHexagon.getxCoordinate(), toPlaceHexagon.getyCoordinate()));
     }
@@ -4,6 +4,8 @@
 
 package kastel.ui;
 
+import java.io.PrintStream;
+
 
 /**
  * The type of Result of a execution.
@@ -18,7 +20,12 @@ public enum ResultType {
     FAILURE() {
         @Override
         public <T> void printResult(final String formattedMessage, T... args) {
-            System.err.printf("Error: " + formattedMessage + NEW_LINE_SYMBOL, args);
+            System.err.printf(MESSAGE_FORMAT, ERROR_PREFIX + format(formattedMessage, args));
+        }
+
+        @Override
+        public void printResult(final PrintStream output, final PrintStream error, final String message) {
+            error.printf(MESSAGE_FORMAT, ERROR_PREFIX + message);
         }
     },
 
@@ -28,17 +35,42 @@ public enum ResultType {
     SUCCESS() {
         @Override
         public <T> void printResult(final String formattedMessage, T... args) {
-            System.out.printf(formattedMessage + NEW_LINE_SYMBOL, args);
+            System.out.printf(MESSAGE_FORMAT, format(formattedMessage, args));
+        }
+
+        @Override
+        public void printResult(final PrintStream output, final PrintStream error, final String message) {
+            output.printf(MESSAGE_FORMAT, message);
         }
     };
 
-    private static final String NEW_LINE_SYMBOL = "%n";
+    /**
+     * The format printing a message on its own line, the message is never used as a format itself.
+     */
+    private static final String MESSAGE_FORMAT = "%s%n";
+    private static final String ERROR_PREFIX = "Error: ";
 
     /**
-     * Prints the result of the execution.
+     * Prints the result of the execution. The message is only used as a format if arguments are given, so a message
+     * holding user input is printed as it is.
      * @param formattedMessage  the formatted message
      * @param args              the arguments
      * @param <T>               the type of the arguments
      */
     public abstract <T> void printResult(String formattedMessage, T... args);
+
+    /**
+     * Prints the result of the execution to the given streams.
+     * @param output the stream for the successful results.
+     * @param error the stream for the failed results.
+     * @param message the message, it is printed as it is.
+     */
+    public abstract void printResult(PrintStream output, PrintStream error, String message);
+
+    private static <T> String format(final String formattedMessage, final T[] args) {
+        if (args.length == 0) {
+            return formattedMessage;
+        }
+        return formattedMessage.formatted(args);
+    }
 }
@@ -0,0 +1,79 @@
+package kastel.ui.commands;
+
+import kastel.model.Game;
+import kastel.model.GameTokens;
+import kastel.model.HexagonPrime;
+import kastel.model.Player;
+import kastel.model.searchalgorithms.PathDistances;
+import kastel.ui.CommandHandler;
+import kastel.ui.HexagonPrimeCommand;
+import kastel.ui.Result;
+import kastel.ui.ResultType;
+
+/**
+ * This command evaluates the current HexagonPrime game: for every player it prints how many hexagons are still
+ * missing on the shortest path between the board sides of the player, and it names the player that is sure to win.
+ * @author ucxug
+ * @version 1.0
+ */
+
+public class EvaluateCommand extends HexagonPrimeCommand {
+
+    /**
+     * Represents the command name.
+     */
+    private static final String COMMAND_NAME = "evaluate";
+    /**
+     * Represents the expected number of arguments.
+     */
+    private static final int EXPECTED_NUMBER_OF_ARGUMENTS = 0;
+    /**
+     * Represents the format of the missing hexagons of a player.
+     */
+    private static final String PATH_LENGTH_FORMAT = "%s (%s): %s";
+    /**
+     * Represents the missing hexagons of a player whose board sides have been cut off.
+     */
+    private static final String BLOCKED_PATH = "blocked";
+    /**
+     * Represents the format for the player that is sure to win.
+     */
+    private static final String DECIDED_FORMAT = "%s is sure to win";
+
+    /**
+     * Intantiates an Evaluate command.
+     * @param commandHandler the commandHandler
+     * @param hexagonPrime the hexagonPrime instance.
+     */
+    public EvaluateCommand(final CommandHandler commandHandler, final HexagonPrime hexagonPrime) {
+        super(COMMAND_NAME, commandHandler, hexagonPrime, EXPECTED_NUMBER_OF_ARGUMENTS);
+    }
+
+    /**
+     * Executes the command with the given arguments.
+     * @param commandArguments the arguments of the command
+     */
+    @Override
+    protected Result executeTaskCommand(final String[] commandArguments) {
+        Game currentGame = hexagonPrime.getCurrentGame();
+        Player xPlayer = currentGame.getCurrentPlayer();
+        if (currentGame.getPlayerToken(xPlayer) != GameTokens.X_TOKEN) {
+            xPlayer = xPlayer.getEnemyPlayer();
+        }
+        StringBuilder evaluation = new StringBuilder();
+        evaluation.append(formatPathLength(currentGame, xPlayer, GameTokens.X_TOKEN)).append(LINE_DELIMITER);
+        evaluation.append(formatPathLength(currentGame, xPlayer.getEnemyPlayer(), GameTokens.O_TOKEN));
+        GameTokens decidedWinner = currentGame.getDecidedWinner();
+        if (decidedWinner != GameTokens.EMPTY) {
+            Player winner = decidedWinner == GameTokens.X_TOKEN ? xPlayer : xPlayer.getEnemyPlayer();
+            evaluation.append(LINE_DELIMITER).append(DECIDED_FORMAT.formatted(winner.getName()));
+        }
+        return new Result(ResultType.SUCCESS, evaluation.toString(), false, false);
+    }
+
+    private String formatPathLength(final Game game, final Player player, final GameTokens token) {
+        int pathLength = game.getShortestPathLength(token);
+        String missingHexagons = pathLength == PathDistances.NO_DISTANCE ? BLOCKED_PATH : String.valueOf(pathLength);
+        return PATH_LENGTH_FORMAT.formatted(player.getName(), token.getTokenRepresentation(), missingHexagons);
+    }
+}
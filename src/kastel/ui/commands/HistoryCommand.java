@@ -1,8 +1,7 @@
 package kastel.ui.commands;
 
-import java.util.List;
-import java.util.Map;
 import java.util.StringJoiner;
+import kastel.model.Game;
 import kastel.model.HexagonPrime;
 import kastel.model.Hexagon;
 import kastel.model.Player;
@@ -71,12 +70,11 @@ public class HistoryCommand extends HexagonPrimeCommand {
                     false);
             }
             if (numberOfMovements <= EMPTY_MOVEMENTS_SIZE
-                || hexagonPrime.getCurrentGame().getGameMoves().size() - numberOfMovements < EMPTY_MOVEMENTS_SIZE) {
+                || hexagonPrime.getCurrentGame().getMoveCount() - numberOfMovements < EMPTY_MOVEMENTS_SIZE) {
                 return new Result(ResultType.FAILURE, INVALID_NUMBER_MOVEMENTS_ERROR, false,
                     false);
             }
-            List<Map<Player, Hexagon>> gameMoves = hexagonPrime.getCurrentGame().getGameMoves();
-            if (gameMoves.isEmpty()) {
+            if (hexagonPrime.getCurrentGame().getMoveCount() == EMPTY_MOVEMENTS_SIZE) {
                 return new Result(ResultType.FAILURE, NO_MOVEMENTS_ERROR, false, false);
             }
             return getCertainMovements(numberOfMovements);
@@ -85,13 +83,13 @@ public class HistoryCommand extends HexagonPrimeCommand {
 
 
     private Result getCertainMovements(final int numberOfMovements) {
-        List<Map<Player, Hexagon>> reversedMoves = hexagonPrime.getCurrentGame().getGameMoves();
+        Game currentGame = hexagonPrime.getCurrentGame();
         StringJoiner stringJoiner = new StringJoiner(System.lineSeparator());
         int count = 0;
-        for (int i = reversedMoves.size() - 1; i >= 0 && count < numberOfMovements; i--) {
-            Map<Player, Hexagon> currentMove = reversedMoves.get(i);
-            Player player = currentMove.keySet().iterator().next();
-            Hexagon movement = currentMove.get(player);
+        //Only the requested moves at the end of the history are visited.
+        for (int i = currentGame.getMoveCount() - 1; i >= 0 && count < numberOfMovements; i--) {
+            Player player = currentGame.getMovePlayer(i);
+            Hexagon movement = currentGame.getMove(i);
             stringJoiner.add(PLAYER_MOVEMENT_FORMAT.formatted(player.getName(),
                 movement.getxCoordinate(), movement.getyCoordinate()));
             count++;
@@ -104,9 +102,8 @@ public class HistoryCommand extends HexagonPrimeCommand {
         if (hexagonPrime.getCurrentGame().getLastMove() == null) {
             return new Result(ResultType.FAILURE, NO_MOVEMENTS_ERROR, false, false);
         }
-        Map<Player, Hexagon> currentMove = hexagonPrime.getCurrentGame().getLastMove();
-        Player player = currentMove.keySet().iterator().next();
-        Hexagon movement = currentMove.get(player);
+        Player player = hexagonPrime.getCurrentGame().getLastMovePlayer();
+        Hexagon movement = hexagonPrime.getCurrentGame().getLastMove();
         String moveFormat = PLAYER_MOVEMENT_FORMAT.formatted(player.getName(),
             movement.getxCoordinate(), movement.getyCoordinate());
         return new Result(ResultType.SUCCESS, moveFormat, false, false);
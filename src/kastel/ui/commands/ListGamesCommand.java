@@ -49,7 +49,7 @@ public class ListGamesCommand extends HexagonPrimeCommand {
         StringJoiner gamesInformation = new StringJoiner(LINE_DELIMITER);
         for (Game game : hexagonPrime.getGames()) {
             if (!game.isGameOver(true)) {
-                gamesInformation.add(LIST_GAMES_FORMAT.formatted(game.getGameName(), game.getGameMoves().size()));
+                gamesInformation.add(LIST_GAMES_FORMAT.formatted(game.getGameName(), game.getMoveCount()));
             }
         }
         return new Result(ResultType.SUCCESS, gamesInformation.toString(), false, false);
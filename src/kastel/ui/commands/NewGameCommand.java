@@ -1,6 +1,5 @@
 package kastel.ui.commands;
 
-import kastel.model.Game;
 import kastel.model.HexagonPrime;
 import kastel.ui.CommandHandler;
 import kastel.ui.HexagonPrimeCommand;
@@ -63,13 +62,10 @@ public class NewGameCommand extends HexagonPrimeCommand {
         if (gameName.isEmpty()) {
             return new Result(ResultType.FAILURE, EMPTY_NAME_ERROR, false, false);
         }
-        Game newGame = hexagonPrime.getGame(gameName);
-        //There can not be two games with the same name.
-        if (newGame != null) {
+        //Adds a new game and sets it as the current game, there can not be two games with the same name.
+        if (!hexagonPrime.addNewGame(gameName)) {
             return new Result(ResultType.FAILURE, GAME_NAME_EXIST_ERROR, false, false);
         }
-        hexagonPrime.addNewGame(gameName);
-        //Adds a new game and sets it as the current game.
         return new Result(ResultType.SUCCESS, NEW_GAME_WELCOME_MESSAGE.formatted(gameName),
             true, true);
 
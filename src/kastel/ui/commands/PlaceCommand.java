@@ -1,9 +1,8 @@
 package kastel.ui.commands;
 
-import kastel.model.GameTokens;
 import kastel.model.HexagonPrime;
-import kastel.model.Hexagon;
 import kastel.ui.CommandHandler;
+import kastel.ui.CommandLine;
 import kastel.ui.HexagonPrimeCommand;
 import kastel.ui.Result;
 import kastel.ui.ResultType;
@@ -65,44 +64,45 @@ public class PlaceCommand extends HexagonPrimeCommand {
     @Override
     protected Result executeTaskCommand(final String[] commandArguments) {
         if (commandArguments.length != EXPECTED_NUMBER_OF_ARGUMENTS) {
-            return new Result(ResultType.FAILURE, MORE_ARGUMENTS_THAN_EXPECTED.formatted(COMMAND_NAME,
-                EXPECTED_NUMBER_OF_ARGUMENTS), false, false);
+            return getArgumentsCountError();
         }
-        if (hexagonPrime.getCurrentGame().isGameOver(true)) {
-            //No token can be place if the current game is over.
-            return new Result(ResultType.FAILURE, GAME_OVER_ERROR, false, false);
-        }
-        int xCoordinate = getCoordinate(commandArguments[X_COORDINATE_INDEX]);
-        int yCoordinate = getCoordinate(commandArguments[Y_COORDINATE_INDEX]);
-        if (xCoordinate == INVALID_COORDINATE || yCoordinate == INVALID_COORDINATE) {
-            return new Result(ResultType.FAILURE, INVALID_COORDINATE_ERROR, false, false);
-        }
-        Hexagon hexagon = hexagonPrime.getCurrentGame().getGameBoard().getHexagon(xCoordinate, yCoordinate);
-        //The hexagon must be free (with the empty token ) to so that the game token can be placed on it.
-        if (hexagon == null || !hexagon.getContent().getTokenRepresentation().equals(
-            GameTokens.EMPTY.getTokenRepresentation())) {
-            return new Result(ResultType.FAILURE, INVALID_BOARD_POSITION, false, false);
-        }
-
-        return placeHexagon(hexagon);
+        return placeHexagon(getCoordinate(commandArguments[X_COORDINATE_INDEX]),
+            getCoordinate(commandArguments[Y_COORDINATE_INDEX]));
+    }
 
+    /**
+     * Executes the command with the arguments of a line, the coordinates are parsed from its bytes.
+     * @param commandLine the line holding the command and its arguments
+     */
+    @Override
+    protected Result executeTaskCommand(final CommandLine commandLine) {
+        if (commandLine.getArgumentsCount() != EXPECTED_NUMBER_OF_ARGUMENTS) {
+            return getArgumentsCountError();
+        }
+        return placeHexagon(getCoordinate(commandLine.parseIntArgument(X_COORDINATE_INDEX)),
+            getCoordinate(commandLine.parseIntArgument(Y_COORDINATE_INDEX)));
     }
 
-    private Result placeHexagon(final Hexagon hexagonToPlace) {
+    private Result getArgumentsCountError() {
+        return new Result(ResultType.FAILURE, MORE_ARGUMENTS_THAN_EXPECTED.formatted(COMMAND_NAME,
+            EXPECTED_NUMBER_OF_ARGUMENTS), false, false);
+    }
 
-        hexagonPrime.setGameToken(hexagonToPlace);
-        if (hexagonPrime.getCurrentGame().isGameOver(true)) {
-            return new Result(ResultType.SUCCESS,
+    private Result placeHexagon(final int xCoordinate, final int yCoordinate) {
+        //The checks and the move are made under the session lock, so no other command source can come in between.
+        return switch (hexagonPrime.tryPlace(xCoordinate, yCoordinate)) {
+            case GAME_OVER -> new Result(ResultType.FAILURE, GAME_OVER_ERROR, false, false);
+            case INVALID_COORDINATES -> new Result(ResultType.FAILURE, INVALID_COORDINATE_ERROR, false, false);
+            case CELL_OCCUPIED -> new Result(ResultType.FAILURE, INVALID_BOARD_POSITION, false, false);
+            case WON -> new Result(ResultType.SUCCESS,
                 WINNING_FORMAT_MESSAGE.formatted(
                     hexagonPrime.getCurrentGame().getCurrentPlayer().getEnemyPlayer().getName())
                     + LINE_DELIMITER
-                    + hexagonPrime.getCurrentGame().getWinningBoard().toString(), true, false);
-        }
-        return new Result(ResultType.SUCCESS, true, true);
-
+                    + hexagonPrime.getCurrentGame().getWinningBoard(), true, false);
+            case PLACED -> new Result(ResultType.SUCCESS, true, true);
+        };
     }
 
-
     private int getCoordinate(final String coordinateRepresentation) {
         int coordinate;
         try {
@@ -110,11 +110,16 @@ public class PlaceCommand extends HexagonPrimeCommand {
         } catch (NumberFormatException e) {
             return INVALID_COORDINATE;
         }
+        return getCoordinate(coordinate);
+    }
+
+    private int getCoordinate(final long coordinate) {
+        //A coordinate that is not an integer is negative.
         if (coordinate >= hexagonPrime.getCurrentGame().getGameBoard().getBoardSize()
             ||  coordinate < ZERO_COORDINATE) {
             return INVALID_COORDINATE;
         }
-        return coordinate;
+        return (int) coordinate;
 
     }
 
@@ -45,7 +45,7 @@ public class SwapCommand extends HexagonPrimeCommand {
     @Override
     protected Result executeTaskCommand(final String[] commandArguments) {
         Game currentGame = hexagonPrime.getCurrentGame();
-        if (currentGame.getGameMoves().size() != EXPECTED_MOVEMENTS_SIZE
+        if (currentGame.getMoveCount() != EXPECTED_MOVEMENTS_SIZE
             ||  currentGame.getTurnsCount() != EXPECTED_MOVEMENTS_SIZE) {
             return new Result(ResultType.FAILURE, INVALID_SWAP_TURN, false, false);
         }